@@ -26,6 +26,11 @@ const MainLayout = ({ onLogout, role }) => {
         return `${base}${url.startsWith('/') ? '' : '/'}${url}`;
     };
 
+    // Content-addressed uploads have small square variants (<hash>-<size>.jpg); older uploads do not
+    const thumbnailUrl = (url, size) => url
+        ? url.replace(/\/([0-9a-f]{64})\.(jpg|png|gif|webp)$/, `/$1-${size}.jpg`)
+        : url;
+
     const refreshUnreadCount = useCallback(async () => {
         if (role !== 'STUDENT') {
             setUnreadCount(0);
@@ -169,7 +174,7 @@ const MainLayout = ({ onLogout, role }) => {
                 if (cancelled) return;
                 const data = res?.data || {};
                 const resolvedName = data.name || `${data.firstName || ''} ${data.lastName || ''}`.trim() || (role === 'ADMIN' ? 'Admin Account' : 'Student Account');
-                const avatarUrl = resolveImageSrc(data.profileImageUrl || data.photoUrl || '');
+                const avatarUrl = resolveImageSrc(thumbnailUrl(data.profileImageUrl || data.photoUrl || '', 128));
                 setProfileSummary({
                     name: resolvedName,
                     avatarUrl,
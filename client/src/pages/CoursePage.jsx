@@ -32,7 +32,8 @@ const CoursePage = () => {
                 getCourses(),
                 getTeachers()
             ]);
-            setCourses(coursesRes.data);
+            // GET /courses answers with a page object; the first page is what this list shows
+            setCourses(coursesRes.data.content || []);
             setTeachers(teachersRes.data);
             // programs are provided by the hook; set default if available
             if (!programsLoading && programs && programs.length > 0) {
@@ -104,11 +105,11 @@ const CoursePage = () => {
 
             <div className="course-list-grid">
                 {courses.map((course) => (
-                    <div key={course.courseID} className="course-card">
+                    <div key={course.id} className="course-card">
                         <div className="course-card-header">
                             <div>
-                                <span className="course-title">{course.title}</span>
-                                <span className="course-code">{course.courseCode}</span>
+                                <span className="course-title">{course.description}</span>
+                                <span className="course-code">{course.subjectCode}</span>
                             </div>
                             <div className="course-info-right">
                                 <span className="course-teacher">
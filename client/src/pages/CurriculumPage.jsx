@@ -1146,13 +1146,10 @@ const CurriculumPage = ({ role }) => {
 
             const deptToRefresh = selectedDeptId || (payload.department && payload.department.id) || editingCurriculum.departmentId || '';
 
-            if (id) {
-              const res = await updateCurriculum(id, payload);
-              alert('Curriculum updated');
-            } else {
-              const res = await createCurriculum(payload);
-              alert('Curriculum created');
-            }
+            const res = id ? await updateCurriculum(id, payload) : await createCurriculum(payload);
+            // Prerequisites naming courses outside this curriculum are saved but reported back
+            const warnings = res.headers['x-prerequisite-warnings'];
+            alert((id ? 'Curriculum updated' : 'Curriculum created') + (warnings ? '\n\nWarnings:\n' + warnings.split(', ').join('\n') : ''));
 
             // Refresh programs list for the active department so admin sees the new program immediately
             try {
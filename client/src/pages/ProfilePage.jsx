@@ -329,7 +329,7 @@ const ProfilePage = () => {
                 type="file"
                 ref={fileInputRef}
                 style={{ display: 'none' }}
-                accept="image/*"
+                accept="image/jpeg,image/png,image/gif,image/webp"
                 onChange={handleImageChange}
                 disabled={uploading}
             />
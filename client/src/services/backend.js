@@ -75,7 +75,7 @@ export const getCalendarEvents = () => API.get('/calendar');
 export const createCalendarEvent = (payload) => API.post('/calendar', payload);
 export const deleteCalendarEvent = (id) => API.delete(`/calendar/${id}`);
 export const getTeachers = () => API.get('/teachers'); // Adding missing export from previous context if needed
-export const getCourses = () => API.get('/courses');
+export const getCourses = (params) => API.get('/courses', { params });
 export const addCourse = (payload) => API.post('/courses', payload);
 
 export const getCurriculum = (programCode) => API.get(`/curricula/${encodeURIComponent(programCode)}`);
@@ -0,0 +1,45 @@
+package com.classlink.server.config;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.classlink.server.storage.BlobStore;
+import com.classlink.server.storage.FileSystemBlobStore;
+import com.classlink.server.storage.InMemoryBlobStore;
+import com.classlink.server.storage.S3BlobStore;
+
+/**
+ * Picks the upload backend from {@code app.storage.backend}: {@code filesystem} (default), {@code memory}
+ * or {@code s3}.
+ */
+@Configuration
+public class BlobStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.backend", havingValue = "filesystem", matchIfMissing = true)
+    public BlobStore fileSystemBlobStore(@Value("${app.storage.filesystem.root:uploads}") String root) {
+        return new FileSystemBlobStore(Path.of(root));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.backend", havingValue = "memory")
+    public BlobStore inMemoryBlobStore() {
+        return new InMemoryBlobStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3")
+    public BlobStore s3BlobStore(@Value("${app.storage.s3.endpoint}") URI endpoint,
+            @Value("${app.storage.s3.region:us-east-1}") String region,
+            @Value("${app.storage.s3.bucket}") String bucket,
+            @Value("${app.storage.s3.access-key}") String accessKey,
+            @Value("${app.storage.s3.secret-key}") String secretKey,
+            @Value("${app.storage.s3.path-style:true}") boolean pathStyle) {
+        return new S3BlobStore(endpoint, region, bucket, accessKey, secretKey, pathStyle);
+    }
+}
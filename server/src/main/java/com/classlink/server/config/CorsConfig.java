@@ -33,6 +33,7 @@ public class CorsConfig {
 
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
     config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of("X-Prerequisite-Warnings"));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L);
 
@@ -0,0 +1,57 @@
+package com.classlink.server.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FlushMode;
+import org.springframework.session.SaveMode;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.classlink.server.session.MeteredSessionRepository;
+import com.classlink.server.session.SessionMetrics;
+
+/**
+ * Keeps HTTP sessions in the SPRING_SESSION tables so they survive restarts and can be shared between nodes.
+ * Spring Security keeps using the servlet session API; the repository filter swaps in the JDBC-backed one.
+ */
+@Configuration
+@EnableSpringHttpSession
+public class SessionConfig {
+
+    @Bean
+    public JdbcIndexedSessionRepository jdbcSessionRepository(DataSource dataSource,
+            @Value("${server.servlet.session.timeout:30m}") Duration timeout) {
+        // Session writes run in their own short transactions, independent of the JPA transaction manager
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new JdbcTransactionManager(dataSource));
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.afterPropertiesSet();
+
+        JdbcIndexedSessionRepository repository =
+                new JdbcIndexedSessionRepository(new JdbcTemplate(dataSource), transactionTemplate);
+        repository.setDefaultMaxInactiveInterval(timeout);
+        // Buffer changes until the request completes and write only attributes that were set or removed
+        repository.setFlushMode(FlushMode.ON_SAVE);
+        repository.setSaveMode(SaveMode.ON_SET_ATTRIBUTE);
+        // Expired rows are removed in batches by ExpiredSessionCleaner instead of one unbounded DELETE
+        repository.setCleanupCron(Scheduled.CRON_DISABLED);
+        return repository;
+    }
+
+    @Bean
+    @Primary
+    public MeteredSessionRepository<?> sessionRepository(JdbcIndexedSessionRepository jdbcSessionRepository,
+            SessionMetrics metrics) {
+        return new MeteredSessionRepository<>(jdbcSessionRepository, metrics);
+    }
+}
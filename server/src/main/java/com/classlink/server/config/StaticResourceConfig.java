@@ -1,19 +1,79 @@
 package com.classlink.server.config;
 
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import com.classlink.server.storage.BlobMetadata;
+import com.classlink.server.storage.ThumbnailFallbackResolver;
 
+/**
+ * Uploaded files never change under a given name: blobs are named by their SHA-256 and older uploads by a
+ * random UUID. They are therefore served as immutable for a year, with a strong ETag (the hash where the
+ * name carries one) and Last-Modified, so browsers stop re-downloading them and revalidations end in a
+ * 304. Range requests are answered by the resource handler, which lets PDF viewers fetch pages on
+ * demand. Images and PDFs are already compressed, so nothing is gzipped on the fly; a precompressed
+ * {@code .br}/{@code .gz} sibling is served instead when one exists.
+ *
+ * <p>New uploads are linked through {@code /api/files/**} (see {@code FileController}); these handlers
+ * keep the {@code /static/profile/**} URLs already stored in the database working while uploads stay on
+ * the local file system. Legacy {@code /static/requirements/**} URLs are answered by {@code FileController}
+ * with its access check.</p>
+ */
 @Configuration
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "filesystem", matchIfMissing = true)
 public class StaticResourceConfig implements WebMvcConfigurer {
+
+    private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+    // A thumbnail URL may be answered with the original until the variant exists, so it is only cached briefly
+    private static final Duration THUMBNAIL_MAX_AGE = Duration.ofMinutes(10);
+
+    private final String profileLocation;
+
+    public StaticResourceConfig(@Value("${app.storage.filesystem.root:uploads}") String root) {
+        String base = "file:" + (root.endsWith("/") ? root : root + "/");
+        this.profileLocation = base + "profile/";
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Serve files saved under ./uploads/profile as /static/profile/**
+        // Thumbnail URLs (<hash>-<size>.jpg) fall back to the original until the variant is generated
+        registry.addResourceHandler("/static/profile/*/*/{variant:[0-9a-f]{64}-\\d+\\.jpg}")
+            .addResourceLocations(profileLocation)
+            .setCacheControl(CacheControl.maxAge(THUMBNAIL_MAX_AGE).cachePublic())
+            .setEtagGenerator(StaticResourceConfig::etag)
+            .resourceChain(false)
+            .addResolver(new ThumbnailFallbackResolver())
+            .addResolver(new PathResourceResolver());
+
+        // Serve files saved under <root>/profile as /static/profile/**
         registry.addResourceHandler("/static/profile/**")
-            .addResourceLocations("file:uploads/profile/");
+            .addResourceLocations(profileLocation)
+            .setCacheControl(CacheControl.maxAge(IMMUTABLE_MAX_AGE).cachePublic().immutable())
+            .setEtagGenerator(StaticResourceConfig::etag)
+            .resourceChain(false)
+            .addResolver(new EncodedResourceResolver())
+            .addResolver(new PathResourceResolver());
+
+        // No handler for /static/requirements/**: those legacy URLs go through FileController, which
+        // only serves a requirements document to admins and to the student it belongs to
+    }
 
-        // Serve requirements PDFs for admin review
-        registry.addResourceHandler("/static/requirements/**")
-            .addResourceLocations("file:uploads/requirements/");
+    // Content hash from the file name when there is one, otherwise size and modification time
+    private static String etag(Resource resource) {
+        try {
+            return BlobMetadata.etag(resource.getFilename(), resource.contentLength(), resource.lastModified());
+        } catch (IOException ex) {
+            return null;
+        }
     }
 }
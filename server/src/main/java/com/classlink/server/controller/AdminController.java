@@ -36,6 +36,12 @@ import com.classlink.server.repository.ApplicationHistoryRepository;
 import com.classlink.server.repository.StudentRepository;
 import com.classlink.server.security.ClasslinkUserDetails;
 import com.classlink.server.service.NotificationService;
+import com.classlink.server.service.StudyPlanService;
+import com.classlink.server.session.SessionMetrics;
+import com.classlink.server.storage.ThumbnailService;
+import com.classlink.server.storage.UploadGarbageCollector;
+import com.classlink.server.storage.UploadRejectedException;
+import com.classlink.server.storage.UploadStorageService;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -47,14 +53,26 @@ public class AdminController {
 	private final AdminRepository adminRepository;
 	private final ApplicationHistoryRepository applicationHistoryRepository;
 	private final NotificationService notificationService;
+	private final SessionMetrics sessionMetrics;
+	private final StudyPlanService studyPlanService;
+	private final UploadStorageService uploadStorageService;
+	private final UploadGarbageCollector uploadGarbageCollector;
 
 	public AdminController(StudentRepository studentRepository, AdminRepository adminRepository,
 			ApplicationHistoryRepository applicationHistoryRepository,
-			NotificationService notificationService) {
+			NotificationService notificationService,
+			SessionMetrics sessionMetrics,
+			StudyPlanService studyPlanService,
+			UploadStorageService uploadStorageService,
+			UploadGarbageCollector uploadGarbageCollector) {
 		this.studentRepository = studentRepository;
 		this.adminRepository = adminRepository;
 		this.applicationHistoryRepository = applicationHistoryRepository;
 		this.notificationService = notificationService;
+		this.sessionMetrics = sessionMetrics;
+		this.studyPlanService = studyPlanService;
+		this.uploadStorageService = uploadStorageService;
+		this.uploadGarbageCollector = uploadGarbageCollector;
 	}
 
 	public record RemoveAdminAccountRequest(String email, String password) {}
@@ -263,7 +281,7 @@ public class AdminController {
 	}
 
 	@PostMapping("/me/profile-image")
-	public ResponseEntity<?> uploadAdminProfileImage(@RequestParam("file") org.springframework.web.multipart.MultipartFile file,
+	public ResponseEntity<?> uploadAdminProfileImage(jakarta.servlet.http.HttpServletRequest request,
 			@AuthenticationPrincipal ClasslinkUserDetails principal) {
 		if (principal == null) {
 			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
@@ -272,31 +290,17 @@ public class AdminController {
 		if (admin == null) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Admin record not found");
 		}
-		if (file == null || file.isEmpty()) {
-			return ResponseEntity.badRequest().body("Empty file");
-		}
-		if (file.getContentType() == null || !file.getContentType().startsWith("image/")) {
-			return ResponseEntity.badRequest().body("File must be an image");
-		}
 		try {
-			java.nio.file.Path uploadRoot = java.nio.file.Path.of("uploads", "profile");
-			java.nio.file.Files.createDirectories(uploadRoot);
-			String extension = "";
-			String original = file.getOriginalFilename();
-			if (original != null && original.contains(".")) {
-				extension = original.substring(original.lastIndexOf('.'));
-			}
-			String filename = java.util.UUID.randomUUID() + extension;
-			java.nio.file.Path target = uploadRoot.resolve(filename);
-			java.nio.file.Files.copy(file.getInputStream(), target, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-			String relative = "/static/profile/" + filename;
-			String url = org.springframework.web.servlet.support.ServletUriComponentsBuilder.fromCurrentContextPath()
-				.path(relative)
-				.toUriString();
+			UploadStorageService.StoredUpload stored = uploadStorageService.storeProfileImage(request);
+			String url = stored.url();
 			admin.setProfileImageUrl(url);
 			adminRepository.save(admin);
-			return ResponseEntity.ok(Map.of("profileImageUrl", url));
+			return ResponseEntity.ok(Map.of("profileImageUrl", url,
+					"profileImageThumbnails", ThumbnailService.variantUrls(url)));
+		} catch (UploadRejectedException e) {
+			return ResponseEntity.status(e.getStatus()).body(e.getMessage());
 		} catch (java.io.IOException e) {
+			log.error("Failed to store admin profile image", e);
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Could not store image");
 		}
 	}
@@ -439,6 +443,46 @@ public class AdminController {
 		return ResponseEntity.ok(Map.of("removedBy", removerName));
 	}
 
+	// Remaining-course plan for a student; completed=IT101,IT102 overrides the year/semester assumption
+	@GetMapping("/students/{id}/study-plan")
+	public ResponseEntity<?> studentStudyPlan(@PathVariable Long id,
+			@RequestParam(name = "completed", required = false) List<String> completed,
+			@RequestParam(name = "maxUnits", required = false) Integer maxUnits) {
+		Student student = studentRepository.findById(id).orElse(null);
+		if (student == null) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Student not found");
+		}
+		return studyPlanService.planFor(student, completed, maxUnits)
+				.<ResponseEntity<?>>map(ResponseEntity::ok)
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("No curriculum found for the student's program"));
+	}
+
+	// Session store reads/writes, totals and per request, since startup
+	@GetMapping("/session-metrics")
+	public ResponseEntity<?> sessionMetrics() {
+		return ResponseEntity.ok(sessionMetrics.snapshot());
+	}
+
+	// Report of the last orphaned-upload collection (runs nightly)
+	@GetMapping("/uploads/gc")
+	public ResponseEntity<?> lastUploadCollection() {
+		UploadGarbageCollector.Report report = uploadGarbageCollector.lastReport();
+		if (report == null) {
+			return ResponseEntity.ok(Map.of("message", "No upload collection has run since startup"));
+		}
+		return ResponseEntity.ok(report);
+	}
+
+	// Run the collection now; dryRun=true only reports what would be deleted
+	@PostMapping("/uploads/gc")
+	public ResponseEntity<?> runUploadCollection(@RequestParam(defaultValue = "false") boolean dryRun) {
+		UploadGarbageCollector.Report report = uploadGarbageCollector.collect(dryRun);
+		if (report == null) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "An upload collection is already running"));
+		}
+		return ResponseEntity.ok(report);
+	}
+
 	private AdminAccountDto toAdminAccountDto(Admin admin) {
 		AdminAccountDto dto = new AdminAccountDto();
 		dto.setId(admin.getAdminId());
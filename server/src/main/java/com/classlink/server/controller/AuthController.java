@@ -2,7 +2,9 @@ package com.classlink.server.controller;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -25,6 +27,7 @@ import com.classlink.server.model.Student;
 import com.classlink.server.model.StudentStatus;
 import com.classlink.server.repository.AdminRepository;
 import com.classlink.server.repository.StudentRepository;
+import com.classlink.server.security.AccountProfileVersions;
 import com.classlink.server.security.ClasslinkUserDetails;
 import com.classlink.server.security.ClasslinkUserDetailsService;
 import com.classlink.server.security.RemovedAdminException;
@@ -43,15 +46,18 @@ public class AuthController {
     private final StudentRepository studentRepository;
     private final AuthenticationManager authenticationManager;
     private final ClasslinkUserDetailsService userDetailsService;
+    private final AccountProfileVersions profileVersions;
 
     public AuthController(AdminRepository adminRepository,
             StudentRepository studentRepository,
             AuthenticationManager authenticationManager,
-            ClasslinkUserDetailsService userDetailsService) {
+            ClasslinkUserDetailsService userDetailsService,
+            AccountProfileVersions profileVersions) {
         this.adminRepository = adminRepository;
         this.studentRepository = studentRepository;
         this.authenticationManager = authenticationManager;
         this.userDetailsService = userDetailsService;
+        this.profileVersions = profileVersions;
     }
 
     public record LoginRequest(String identifier, String password) {
@@ -157,26 +163,37 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> me(@AuthenticationPrincipal ClasslinkUserDetails principal) {
+    public ResponseEntity<?> me(@AuthenticationPrincipal ClasslinkUserDetails principal, HttpServletRequest request) {
         if (principal == null) {
             return ResponseEntity.status(401).body(Map.of("authenticated", false));
         }
+        // The principal carries the display fields; only touch the database when the account changed since
+        ClasslinkUserDetails current = principal;
+        if (profileVersions.isStale(principal)) {
+            current = userDetailsService.reload(principal);
+            if (current == null) {
+                return ResponseEntity.status(401).body(Map.of("authenticated", false));
+            }
+            storeAuthentication(new UsernamePasswordAuthenticationToken(current, null, current.getAuthorities()), request);
+        }
         Map<String, Object> payload = new HashMap<>();
         payload.put("authenticated", true);
-        payload.put("userType", principal.getUserType());
-        payload.put("userId", principal.getUserId());
-        payload.put("role", principal.getRole());
-        payload.put("mustChangePassword", false);
-        if (principal.isStudent()) {
-            studentRepository.findById(principal.getUserId()).ifPresent(student -> {
-                payload.put("firstName", student.getFirstName());
-                payload.put("lastName", student.getLastName());
-                payload.put("mustChangePassword", student.isPasswordResetRequired());
-            });
+        payload.put("userType", current.getUserType());
+        payload.put("userId", current.getUserId());
+        payload.put("role", current.getRole());
+        if (current.isStudent()) {
+            payload.put("firstName", current.getFirstName());
+            payload.put("lastName", current.getLastName());
+            payload.put("mustChangePassword", current.isMustChangePassword());
         } else {
-            adminRepository.findById(principal.getUserId()).ifPresent(admin -> payload.put("name", admin.getName()));
+            payload.put("name", current.getName());
+            payload.put("mustChangePassword", false);
         }
-        return ResponseEntity.ok(payload);
+        // A matching If-None-Match turns this into a 304 without a body
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(meEtag(current))
+                .body(payload);
     }
 
     @PostMapping("/logout")
@@ -284,6 +301,12 @@ public class AuthController {
         session.removeAttribute(SESSION_EMAIL_LOGIN_KEY);
     }
 
+    private String meEtag(ClasslinkUserDetails principal) {
+        int fields = Objects.hash(principal.getRole(), principal.getFirstName(), principal.getLastName(),
+                principal.getName(), principal.isMustChangePassword());
+        return principal.getUserType() + "-" + principal.getUserId() + "-" + Integer.toHexString(fields);
+    }
+
     private void storeAuthentication(Authentication authentication, HttpServletRequest request) {
         SecurityContext context = SecurityContextHolder.createEmptyContext();
         context.setAuthentication(authentication);
@@ -1,35 +1,80 @@
 package com.classlink.server.controller;
 
-import java.util.List;
 import java.util.Map;
+import java.time.Duration;
 import java.time.LocalDate; // Import LocalDate
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import com.classlink.server.event.CalendarChangedEvent;
 import com.classlink.server.model.Calendar;
 import com.classlink.server.repository.CalendarEventRepository;
 import com.classlink.server.security.ClasslinkUserDetails;
+import com.classlink.server.service.CalendarEventIndex;
+import com.classlink.server.service.CalendarFeedService;
+import com.classlink.server.service.CalendarSeries;
 import com.classlink.server.service.NotificationService;
 
 @RestController
 @RequestMapping("/api/calendar")
 public class CalendarController {
 
+    private static final int MAX_RANGE_YEARS = 2;
+
     private final CalendarEventRepository calendarEventRepository;
     private final NotificationService notificationService;
+    private final CalendarEventIndex calendarEventIndex;
+    private final CalendarFeedService calendarFeedService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CalendarController(CalendarEventRepository calendarEventRepository, NotificationService notificationService) {
+    public CalendarController(CalendarEventRepository calendarEventRepository, NotificationService notificationService,
+                              CalendarEventIndex calendarEventIndex, CalendarFeedService calendarFeedService,
+                              ApplicationEventPublisher eventPublisher) {
         this.calendarEventRepository = calendarEventRepository;
         this.notificationService = notificationService;
+        this.calendarEventIndex = calendarEventIndex;
+        this.calendarFeedService = calendarFeedService;
+        this.eventPublisher = eventPublisher;
     }
 
-    // --- GET all events (Sorted by Start Date) ---
+    // --- GET events (Sorted by Start Date) ---
+    // Without parameters this returns every event; with from/to (ISO dates) only events overlapping that window
     @GetMapping
-    public List<Calendar> getAllEvents() {
-        // ASSUMPTION: Repository method is updated to findAllByOrderByStartDateAsc
-        return calendarEventRepository.findAllByOrderByStartDateAsc();
+    public ResponseEntity<?> getAllEvents(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(required = false) String type) {
+        if (from == null && to == null) {
+            if (type == null || type.isBlank()) {
+                return ResponseEntity.ok(calendarEventRepository.findAllByOrderByStartDateAsc());
+            }
+            return ResponseEntity.ok(calendarEventRepository.findAllByTypeIgnoreCaseOrderByStartDateAsc(type.trim()));
+        }
+        if (from == null || to == null) {
+            return ResponseEntity.badRequest().body("Both from and to are required for a date range");
+        }
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body("to cannot be before from");
+        }
+        if (from.plusYears(MAX_RANGE_YEARS).isBefore(to)) {
+            return ResponseEntity.badRequest().body("Date range cannot exceed " + MAX_RANGE_YEARS + " years");
+        }
+        return ResponseEntity.ok(calendarEventIndex.findOverlapping(from, to, type == null ? null : type.trim()));
+    }
+
+    // --- GET iCalendar feed for calendar apps (public; see SecurityConfig) ---
+    @GetMapping(value = "/feed.ics", produces = "text/calendar;charset=UTF-8")
+    public ResponseEntity<byte[]> getFeed(@RequestParam(required = false) String type) {
+        CalendarFeedService.Feed feed = calendarFeedService.feed(type);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(15)).cachePublic())
+                .eTag(feed.etag())
+                .lastModified(feed.lastModified())
+                .body(feed.body());
     }
 
     // --- POST create a new event (Supporting date range) ---
@@ -57,7 +102,15 @@ public class CalendarController {
             return ResponseEntity.badRequest().body("End Date cannot be before Start Date");
         }
 
+        // 3. Recurring events: one row per series, validated and stored in canonical RRULE form
+        try {
+            CalendarSeries.normalize(event);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+
         Calendar saved = calendarEventRepository.save(event);
+        eventPublisher.publishEvent(new CalendarChangedEvent(saved.getId(), false));
         notificationService.notifyCalendarEvent(saved);
         return ResponseEntity.ok(saved);
     }
@@ -70,6 +123,7 @@ public class CalendarController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
         }
         calendarEventRepository.deleteById(id);
+        eventPublisher.publishEvent(new CalendarChangedEvent(id, true));
         return ResponseEntity.ok(Map.of("success", true));
     }
 
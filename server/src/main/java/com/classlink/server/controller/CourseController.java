@@ -1,9 +1,14 @@
 package com.classlink.server.controller;
 
 import java.net.URI;
-import java.util.List;
-import java.util.Optional;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -14,25 +19,82 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.classlink.server.dto.CourseSummaryDto;
+import com.classlink.server.event.CurriculumChangedEvent;
 import com.classlink.server.model.Course;
 import com.classlink.server.repository.CourseRepository;
 import com.classlink.server.security.ClasslinkUserDetails;
+import com.classlink.server.service.CourseSearchIndex;
+import com.classlink.server.service.CurriculumLabels;
 
 @RestController
 @RequestMapping("/api/courses")
 public class CourseController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final CourseRepository courseRepository;
+    private final CourseSearchIndex courseSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CourseController(CourseRepository courseRepository) {
+    public CourseController(CourseRepository courseRepository, CourseSearchIndex courseSearchIndex,
+                            ApplicationEventPublisher eventPublisher) {
         this.courseRepository = courseRepository;
+        this.courseSearchIndex = courseSearchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * One page of the catalog as {@code {content, page, size, totalElements, totalPages}}, with
+     * {@link CourseSummaryDto} rows. This used to be a bare array of every course; callers read
+     * {@code content} now, and ask for further pages while {@code page + 1 < totalPages}.
+     */
     @GetMapping
-    public List<Course> getAll(@RequestParam(name = "programId", required = false) Optional<Long> programId) {
-        return programId
-                .map(courseRepository::findAllByProgram_Id)
-                .orElseGet(courseRepository::findAll);
+    public ResponseEntity<?> getAll(@RequestParam(name = "programId", required = false) Long programId,
+                                    @RequestParam(name = "curriculumId", required = false) Long curriculumId,
+                                    @RequestParam(name = "year", required = false) String year,
+                                    @RequestParam(name = "semester", required = false) String semester,
+                                    @RequestParam(name = "subjectPrefix", required = false) String subjectPrefix,
+                                    @RequestParam(name = "page", defaultValue = "0") int page,
+                                    @RequestParam(name = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        Integer yearFilter = null;
+        if (year != null && !year.isBlank()) {
+            yearFilter = CurriculumLabels.parseYearLabel(year);
+            if (yearFilter == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Unrecognised year: " + year));
+            }
+        }
+        Integer termFilter = null;
+        if (semester != null && !semester.isBlank()) {
+            termFilter = CurriculumLabels.termOrder(semester);
+            if (termFilter == Integer.MAX_VALUE) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Unrecognised semester: " + semester));
+            }
+        }
+        String codePrefix = subjectPrefix == null || subjectPrefix.isBlank() ? null
+                : subjectPrefix.trim().replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by("yearOrder", "termOrder", "id"));
+        Page<CourseSummaryDto> result = courseRepository.findCatalogPage(programId, curriculumId, yearFilter, termFilter,
+                codePrefix, pageable);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("content", result.getContent());
+        body.put("page", result.getNumber());
+        body.put("size", result.getSize());
+        body.put("totalElements", result.getTotalElements());
+        body.put("totalPages", result.getTotalPages());
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam(name = "q", defaultValue = "") String q,
+                                    @RequestParam(name = "page", defaultValue = "0") int page,
+                                    @RequestParam(name = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(courseSearchIndex.search(q, Math.max(page, 0), Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE)));
     }
 
     @PostMapping
@@ -42,6 +104,9 @@ public class CourseController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
         }
         Course saved = courseRepository.save(course);
+        if (saved.getProgram() != null) {
+            eventPublisher.publishEvent(new CurriculumChangedEvent(saved.getProgram().getId()));
+        }
         return ResponseEntity.created(URI.create("/api/courses/" + saved.getId())).body(saved);
     }
 
@@ -1,22 +1,39 @@
 package com.classlink.server.controller;
 
+import com.classlink.server.dto.CurriculumItem;
+import com.classlink.server.event.CurriculumChangedEvent;
+import com.classlink.server.importer.CsvRowSource;
+import com.classlink.server.importer.CurriculumImportService;
+import com.classlink.server.importer.RowSource;
+import com.classlink.server.importer.XlsxRowSource;
 import com.classlink.server.model.Curriculum;
-import com.classlink.server.model.Course;
 import com.classlink.server.repository.CurriculumRepository;
 import com.classlink.server.repository.CourseRepository;
 import com.classlink.server.repository.ProgramRepository;
 import com.classlink.server.repository.DepartmentRepository;
 import com.classlink.server.model.Department;
 import com.classlink.server.model.Program;
+import com.classlink.server.service.CurriculumCloneService;
+import com.classlink.server.service.CurriculumDiffService;
+import com.classlink.server.service.CurriculumIndexService;
+import com.classlink.server.service.CurriculumMergeService;
+import com.classlink.server.service.CurriculumReadModel;
+import com.classlink.server.service.PrerequisiteGraph;
+import com.classlink.server.service.PrerequisiteGraphService;
+import com.classlink.server.service.ProgramDirectory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Optional;
 import java.util.Map;
 import java.util.List;
-import java.util.Comparator;
 
 import com.classlink.server.security.ClasslinkUserDetails;
 
@@ -24,128 +41,47 @@ import com.classlink.server.security.ClasslinkUserDetails;
 @RequestMapping("/api/curricula")
 public class CurriculumController {
 
+    // Unknown prerequisite references accepted on save, one value per reference
+    private static final String PREREQUISITE_WARNINGS_HEADER = "X-Prerequisite-Warnings";
+
     private final CurriculumRepository curriculumRepository;
     private final ProgramRepository programRepository;
     private final DepartmentRepository departmentRepository;
     private final CourseRepository courseRepository;
-
-    public CurriculumController(CurriculumRepository curriculumRepository, ProgramRepository programRepository, DepartmentRepository departmentRepository, CourseRepository courseRepository) {
+    private final CurriculumIndexService curriculumIndexService;
+    private final ProgramDirectory programDirectory;
+    private final CurriculumReadModel curriculumReadModel;
+    private final CurriculumMergeService curriculumMergeService;
+    private final CurriculumCloneService curriculumCloneService;
+    private final PrerequisiteGraphService prerequisiteGraphService;
+    private final CurriculumImportService curriculumImportService;
+    private final CurriculumDiffService curriculumDiffService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CurriculumController(CurriculumRepository curriculumRepository, ProgramRepository programRepository, DepartmentRepository departmentRepository, CourseRepository courseRepository,
+                                CurriculumIndexService curriculumIndexService, ProgramDirectory programDirectory, CurriculumReadModel curriculumReadModel,
+                                CurriculumMergeService curriculumMergeService, CurriculumCloneService curriculumCloneService,
+                                PrerequisiteGraphService prerequisiteGraphService, CurriculumImportService curriculumImportService,
+                                CurriculumDiffService curriculumDiffService, ApplicationEventPublisher eventPublisher) {
         this.curriculumRepository = curriculumRepository;
         this.programRepository = programRepository;
         this.departmentRepository = departmentRepository;
         this.courseRepository = courseRepository;
-    }
-
-    private static final String[] YEAR_LABELS = new String[]{
-            "First Year",
-            "Second Year",
-            "Third Year",
-            "Fourth Year",
-            "Fifth Year",
-            "Sixth Year"
-    };
-
-    private Integer parseYearLabel(Object labelObj) {
-        if (labelObj == null) {
-            return null;
-        }
-        String raw = String.valueOf(labelObj).trim();
-        if (raw.isEmpty()) {
-            return null;
-        }
-        String normalized = raw.toLowerCase();
-        for (int i = 0; i < YEAR_LABELS.length; i++) {
-            String candidate = YEAR_LABELS[i].toLowerCase();
-            if (candidate.equals(normalized) || normalized.contains(candidate)) {
-                return i + 1;
-            }
-        }
-        if (normalized.endsWith("year")) {
-            normalized = normalized.substring(0, normalized.length() - 4).trim();
-        }
-        try {
-            return Integer.valueOf(normalized.replaceAll("[^0-9]", ""));
-        } catch (Exception ignore) {
-            return null;
-        }
-    }
-
-    private String toYearLabel(Integer year) {
-        if (year == null || year <= 0) {
-            return null;
-        }
-        if (year <= YEAR_LABELS.length) {
-            return YEAR_LABELS[year - 1];
-        }
-        return year + "th Year";
-    }
-
-    private int yearOrder(Integer year) {
-        return year != null && year > 0 ? year : Integer.MAX_VALUE;
-    }
-
-    private int termOrder(String term) {
-        if (term == null) {
-            return Integer.MAX_VALUE;
-        }
-        String normalized = term.trim().toLowerCase();
-        if (normalized.isEmpty()) {
-            return Integer.MAX_VALUE;
-        }
-        String[] labels = new String[]{"first", "second", "third", "fourth", "fifth", "sixth"};
-        for (int i = 0; i < labels.length; i++) {
-            if (normalized.startsWith(labels[i])) {
-                return i + 1;
-            }
-        }
-        try {
-            return Integer.parseInt(normalized.replaceAll("[^0-9]", ""));
-        } catch (Exception ignore) {
-            return Integer.MAX_VALUE;
-        }
-    }
-
-    private String resolveTermLabel(Course course) {
-        String semester = course.getSemester();
-        if (semester != null && !semester.isBlank()) {
-            return semester;
-        }
-        String termTitle = course.getTermTitle();
-        return termTitle == null || termTitle.isBlank() ? null : termTitle;
-    }
-
-    private Map<String, Object> courseToDto(Course course) {
-        Map<String, Object> dto = new java.util.LinkedHashMap<>();
-        dto.put("id", course.getId());
-        dto.put("subjectCode", course.getSubjectCode());
-        dto.put("description", course.getDescription());
-        dto.put("equivSubjectCode", course.getEquivSubjectCode());
-        dto.put("prerequisite", course.getPrerequisite());
-        String semester = resolveTermLabel(course);
-        dto.put("semester", semester);
-        dto.put("termTitle", course.getTermTitle());
-        dto.put("units", course.getUnits());
-        dto.put("year", course.getYear());
-        String yearLabel = toYearLabel(course.getYear());
-        dto.put("yearLabel", yearLabel != null ? yearLabel : "Unknown Year");
-        return dto;
+        this.curriculumIndexService = curriculumIndexService;
+        this.programDirectory = programDirectory;
+        this.curriculumReadModel = curriculumReadModel;
+        this.curriculumMergeService = curriculumMergeService;
+        this.curriculumCloneService = curriculumCloneService;
+        this.prerequisiteGraphService = prerequisiteGraphService;
+        this.curriculumImportService = curriculumImportService;
+        this.curriculumDiffService = curriculumDiffService;
+        this.eventPublisher = eventPublisher;
     }
 
     @GetMapping
     public ResponseEntity<?> listAll() {
         try {
-            var progs = programRepository.findAll();
-            var out = progs.stream().map(p -> {
-                java.util.Map<String,Object> m = new java.util.HashMap<>();
-                m.put("programId", p.getId());
-                m.put("programName", p.getName());
-                m.put("durationInYears", p.getDurationInYears());
-                if (p.getDepartment() != null) m.put("department", java.util.Map.of("id", p.getDepartment().getId(), "name", p.getDepartment().getName()));
-                int itemsCount = courseRepository.findAllByProgram_Id(p.getId()).size();
-                m.put("itemsCount", itemsCount);
-                return m;
-            }).toList();
-            return ResponseEntity.ok(out);
+            return ResponseEntity.ok(curriculumIndexService.getIndex());
         } catch (Exception ex) {
             System.err.println("Error listing curricula: " + ex.getMessage());
             return ResponseEntity.status(500).body(java.util.Map.of("error", ex.getMessage()));
@@ -154,46 +90,24 @@ public class CurriculumController {
 
     @GetMapping("/{programIdentifier}")
     public ResponseEntity<?> getByProgram(@PathVariable String programIdentifier) {
-        String normalized = programIdentifier.trim();
-        Optional<Program> maybeProg = programRepository.findAll().stream()
-                .filter(p -> p.getName() != null && (p.getName().equalsIgnoreCase(normalized) || p.getName().trim().equalsIgnoreCase(normalized)))
-                .findFirst();
-
-        if (maybeProg.isPresent()) {
-            Program prog = maybeProg.get();
-            var items = courseRepository.findAllByProgram_Id(prog.getId());
-                var dtoItems = items.stream()
-                    .sorted(Comparator
-                        .comparing((Course c) -> yearOrder(c.getYear()))
-                        .thenComparing(c -> termOrder(resolveTermLabel(c)))
-                    .thenComparing(Course::getId, Comparator.nullsLast(Long::compareTo)))
-                .map(this::courseToDto)
-                .toList();
-            java.util.Map<String,Object> out = new java.util.HashMap<>();
-            out.put("program", java.util.Map.of("id", prog.getId(), "name", prog.getName(), "durationInYears", prog.getDurationInYears()));
-            out.put("department", prog.getDepartment() == null ? null : java.util.Map.of("id", prog.getDepartment().getId(), "name", prog.getDepartment().getName()));
-                out.put("programId", prog.getId());
-                out.put("programName", prog.getName());
-                out.put("programCode", prog.getName());
-                out.put("durationInYears", prog.getDurationInYears());
-                if (prog.getDepartment() != null) {
-                    out.put("departmentId", prog.getDepartment().getId());
-                }
-                var versions = curriculumRepository.findAllByProgram_Id(prog.getId());
-                Curriculum version = versions.isEmpty() ? null : versions.get(0);
-                if (version != null) {
-                    out.put("curriculumId", version.getId());
-                    if (version.getVersionName() != null) out.put("curriculumVersionName", version.getVersionName());
-                    if (version.getEffectivityYear() != null) out.put("effectivityYear", version.getEffectivityYear());
-                    if (version.getDurationInYears() != null && out.get("durationInYears") == null) {
-                        out.put("durationInYears", version.getDurationInYears());
-                    }
-                }
-            out.put("items", dtoItems);
-            return ResponseEntity.ok(out);
-        }
+        String nameKey = Program.normalizeName(programIdentifier);
+        Optional<CurriculumReadModel.Snapshot> snapshot = programDirectory.resolveId(programIdentifier)
+                .flatMap(curriculumReadModel::get)
+                .filter(s -> nameKey.equals(s.programNameKey()));
+        if (snapshot.isEmpty() && nameKey != null) {
+            // Stale mapping (program renamed or removed elsewhere): retry once against the indexed column
+            programDirectory.evict(programIdentifier);
+            snapshot = programRepository.findByNameKey(nameKey)
+                    .flatMap(p -> curriculumReadModel.get(p.getId()));
+        }
+        return snapshot.map(this::curriculumResponse).orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        return ResponseEntity.notFound().build();
+    @GetMapping("/diff")
+    public ResponseEntity<?> diff(@RequestParam Long from, @RequestParam Long to) {
+        return curriculumDiffService.diff(from, to)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
@@ -202,6 +116,15 @@ public class CurriculumController {
         if (!isAdmin(principal)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
         }
+        List<CurriculumItem> items = payload.get("items") instanceof List<?> rawItems ? toItems(rawItems) : null;
+        // Only cycles make the curriculum unusable; unknown prerequisites are saved and reported, as on import
+        List<String> warnings = List.of();
+        if (items != null) {
+            PrerequisiteGraph graph = prerequisiteGraphService.validate(items);
+            if (!graph.cycles().isEmpty()) return invalidPrerequisites(graph.cycles());
+            warnings = graph.unknownReferences();
+        }
+
         // Resolve department if provided
         Department d = null;
         try {
@@ -222,7 +145,7 @@ public class CurriculumController {
         String programCode = payload.get("programCode") == null ? null : String.valueOf(payload.get("programCode"));
         Program program = null;
         if (programName != null && !programName.isBlank()) {
-            program = programRepository.findByName(programName).orElse(null);
+            program = programRepository.findByNameKey(Program.normalizeName(programName)).orElse(null);
         }
         if (program == null) program = new Program();
 
@@ -236,16 +159,9 @@ public class CurriculumController {
         }
         if (d != null) program.setDepartment(d);
 
-        // Replace curriculum items on the Program by creating Course entities linked to a curriculum version
+        // Merge curriculum items into the Program's Course rows (linked to a curriculum version)
         Program savedProgram = programRepository.save(program);
-        Object itemsObj = payload.get("items");
-        if (itemsObj instanceof List) {
-            // remove existing courses for this program
-            var existing = courseRepository.findAllByProgram_Id(savedProgram.getId());
-            if (existing != null && !existing.isEmpty()) {
-                courseRepository.deleteAll(existing);
-            }
-
+        if (items != null) {
             // ensure a default curriculum version exists
             java.util.List<Curriculum> versions = curriculumRepository.findAllByProgram_Id(savedProgram.getId());
             Curriculum version = versions.isEmpty() ? null : versions.get(0);
@@ -258,35 +174,11 @@ public class CurriculumController {
                 version = curriculumRepository.save(version);
             }
 
-            List<Course> toSave = new java.util.ArrayList<>();
-            for (Object itemObj : (List<?>)itemsObj) {
-                if (!(itemObj instanceof Map)) continue;
-                Map<?,?> it = (Map<?,?>) itemObj;
-                String semester = it.get("semester") == null ? null : String.valueOf(it.get("semester"));
-                String termTitle = it.get("termTitle") == null ? null : String.valueOf(it.get("termTitle"));
-                if ((semester == null || semester.isBlank()) && termTitle != null) semester = termTitle;
-                Integer year = parseYearLabel(it.get("yearLabel"));
-                if (year == null && it.get("year") != null) {
-                    try { year = Integer.valueOf(String.valueOf(it.get("year"))); } catch (Exception ignore) {}
-                }
-
-                Course newIt = new Course();
-                newIt.setSemester(semester);
-                newIt.setTermTitle(termTitle == null || termTitle.isBlank() ? semester : termTitle);
-                newIt.setSubjectCode(it.get("subjectCode") == null ? null : String.valueOf(it.get("subjectCode")));
-                newIt.setPrerequisite(it.get("prerequisite") == null ? null : String.valueOf(it.get("prerequisite")));
-                newIt.setEquivSubjectCode(it.get("equivSubjectCode") == null ? null : String.valueOf(it.get("equivSubjectCode")));
-                newIt.setDescription(it.get("description") == null ? null : String.valueOf(it.get("description")));
-                try { newIt.setUnits(it.get("units") == null ? null : Integer.valueOf(String.valueOf(it.get("units")))); } catch (Exception ignore) {}
-                newIt.setYear(year);
-                newIt.setProgram(savedProgram);
-                newIt.setCurriculum(version);
-                toSave.add(newIt);
-            }
-            if (!toSave.isEmpty()) courseRepository.saveAll(toSave);
+            curriculumMergeService.replaceCourses(savedProgram.getId(), version.getId(), items);
         }
 
-        return ResponseEntity.ok(savedProgram);
+        eventPublisher.publishEvent(new CurriculumChangedEvent(savedProgram.getId()));
+        return saved(savedProgram, warnings);
     }
 
     @PutMapping("/{id}")
@@ -301,6 +193,15 @@ public class CurriculumController {
             return ResponseEntity.notFound().build();
         }
 
+        List<CurriculumItem> items = payload.get("items") instanceof List<?> rawItems ? toItems(rawItems) : null;
+        // Only cycles make the curriculum unusable; unknown prerequisites are saved and reported, as on import
+        List<String> warnings = List.of();
+        if (items != null) {
+            PrerequisiteGraph graph = prerequisiteGraphService.validate(items);
+            if (!graph.cycles().isEmpty()) return invalidPrerequisites(graph.cycles());
+            warnings = graph.unknownReferences();
+        }
+
         Curriculum curriculum = maybeCurriculum.get();
         Program program = curriculum.getProgram();
 
@@ -333,6 +234,10 @@ public class CurriculumController {
             return ResponseEntity.badRequest().body(java.util.Map.of("error", "programName or programCode required"));
         }
 
+        Optional<Program> sameName = programRepository.findByNameKey(Program.normalizeName(desiredName));
+        if (sameName.isPresent() && !sameName.get().getId().equals(program.getId())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(java.util.Map.of("error", "Another program already uses that name."));
+        }
         program.setName(desiredName);
 
         Object durObj2 = payload.get("durationInYears");
@@ -368,13 +273,7 @@ public class CurriculumController {
         }
         curriculumRepository.save(curriculum);
 
-        Object itemsObj2 = payload.get("items");
-        if (itemsObj2 instanceof List<?>) {
-            var existing = courseRepository.findAllByProgram_Id(savedProgram.getId());
-            if (existing != null && !existing.isEmpty()) {
-                courseRepository.deleteAll(existing);
-            }
-
+        if (items != null) {
             Curriculum version = curriculum;
             if (version.getVersionName() == null) {
                 version.setVersionName("Imported - initial");
@@ -387,36 +286,11 @@ public class CurriculumController {
             }
             curriculumRepository.save(version);
 
-            List<Course> toSave = new java.util.ArrayList<>();
-            for (Object itemObj : (List<?>) itemsObj2) {
-                if (!(itemObj instanceof Map<?,?> it)) continue;
-                String semester = it.get("semester") == null ? null : String.valueOf(it.get("semester"));
-                String termTitle = it.get("termTitle") == null ? null : String.valueOf(it.get("termTitle"));
-                if ((semester == null || semester.isBlank()) && termTitle != null) semester = termTitle;
-                Integer year = parseYearLabel(it.get("yearLabel"));
-                if (year == null && it.get("year") != null) {
-                    try { year = Integer.valueOf(String.valueOf(it.get("year"))); } catch (Exception ignore) {}
-                }
-
-                Course newIt = new Course();
-                newIt.setSemester(semester);
-                newIt.setTermTitle(termTitle == null || termTitle.isBlank() ? semester : termTitle);
-                newIt.setSubjectCode(it.get("subjectCode") == null ? null : String.valueOf(it.get("subjectCode")));
-                newIt.setPrerequisite(it.get("prerequisite") == null ? null : String.valueOf(it.get("prerequisite")));
-                newIt.setEquivSubjectCode(it.get("equivSubjectCode") == null ? null : String.valueOf(it.get("equivSubjectCode")));
-                newIt.setDescription(it.get("description") == null ? null : String.valueOf(it.get("description")));
-                try { newIt.setUnits(it.get("units") == null ? null : Integer.valueOf(String.valueOf(it.get("units")))); } catch (Exception ignore) {}
-                newIt.setYear(year);
-                newIt.setProgram(savedProgram);
-                newIt.setCurriculum(version);
-                toSave.add(newIt);
-            }
-            if (!toSave.isEmpty()) {
-                courseRepository.saveAll(toSave);
-            }
+            curriculumMergeService.replaceCourses(savedProgram.getId(), version.getId(), items);
         }
 
-        return ResponseEntity.ok(savedProgram);
+        eventPublisher.publishEvent(new CurriculumChangedEvent(savedProgram.getId()));
+        return saved(savedProgram, warnings);
     }
 
     @DeleteMapping("/{id}")
@@ -437,91 +311,163 @@ public class CurriculumController {
             courseRepository.deleteAll(linkedCourses);
         }
 
+        Program owner = maybeCurriculum.get().getProgram();
         curriculumRepository.deleteById(id);
+        if (owner != null) {
+            eventPublisher.publishEvent(new CurriculumChangedEvent(owner.getId()));
+        }
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/import")
+    public ResponseEntity<?> importCurricula(@RequestParam("file") MultipartFile file,
+                                             @RequestParam(value = "createPrograms", defaultValue = "true") boolean createPrograms,
+                                             @AuthenticationPrincipal ClasslinkUserDetails principal) {
+        if (!isAdmin(principal)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+        }
+        if (file == null || file.isEmpty()) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", "Empty file"));
+        }
+        String filename = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(java.util.Locale.ROOT);
+        java.nio.file.Path spooled = null;
+        try {
+            RowSource rows;
+            if (filename.endsWith(".xlsx")) {
+                // XLSX needs random access to the zip directory, so spool the upload to disk first
+                spooled = java.nio.file.Files.createTempFile("curriculum-import-", ".xlsx");
+                file.transferTo(spooled);
+                rows = new XlsxRowSource(spooled.toFile());
+            } else if (filename.endsWith(".csv") || "text/csv".equalsIgnoreCase(file.getContentType())) {
+                rows = new CsvRowSource(file.getInputStream());
+            } else {
+                return ResponseEntity.badRequest().body(java.util.Map.of("error", "Only .csv and .xlsx files are supported"));
+            }
+            try (rows) {
+                return ResponseEntity.ok(curriculumImportService.importRows(rows, createPrograms));
+            }
+        } catch (IllegalArgumentException | java.io.IOException ex) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", "Import failed: " + ex.getMessage()));
+        } finally {
+            if (spooled != null) {
+                try { java.nio.file.Files.deleteIfExists(spooled); } catch (java.io.IOException ignore) {}
+            }
+        }
+    }
+
     @PostMapping("/{id}/clone")
     public ResponseEntity<?> cloneCurriculum(@PathVariable Long id,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                             @RequestParam(value = "cloneKey", required = false) String cloneKeyParam,
                                              @AuthenticationPrincipal ClasslinkUserDetails principal) {
         if (!isAdmin(principal)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
         }
+        String cloneKey = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey.trim()
+                : (cloneKeyParam != null && !cloneKeyParam.isBlank() ? cloneKeyParam.trim() : null);
+        if (cloneKey != null && cloneKey.length() > CurriculumCloneService.MAX_CLONE_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", "Clone key is too long."));
+        }
+
+        // A retried request with the same clone key gets the program created the first time
+        Optional<CurriculumCloneService.CloneRequest> previous = curriculumCloneService.findClone(cloneKey);
+        if (previous.isPresent()) return earlierClone(previous.get(), id);
+
         // Interpret {id} as a Program id to clone the program and its curriculum items
         Optional<Program> srcProg = programRepository.findById(id);
         if (srcProg.isEmpty()) return ResponseEntity.notFound().build();
-        Program src = srcProg.get();
-
-        Program p = new Program();
-        String baseName = src.getName();
-        p.setName(baseName == null ? "Cloned Program" : baseName + " (Copy)");
-        p.setDepartment(src.getDepartment());
-        p.setDurationInYears(src.getDurationInYears());
-
-        var items = courseRepository.findAllByProgram_Id(src.getId());
-        Curriculum newVersion = new Curriculum();
-        newVersion.setProgram(p);
-        newVersion.setVersionName((baseName == null ? "Cloned" : baseName) + " - Clone");
-        newVersion.setEffectivityYear(java.time.LocalDate.now().getYear());
-        newVersion.setDurationInYears(p.getDurationInYears());
-        newVersion = curriculumRepository.save(newVersion);
 
-        if (items != null) {
-            java.util.List<Course> toSave = new java.util.ArrayList<>();
-            for (var it : items) {
-                Course newIt = new Course();
-                newIt.setSemester(it.getSemester());
-                newIt.setSubjectCode(it.getSubjectCode());
-                newIt.setPrerequisite(it.getPrerequisite());
-                newIt.setEquivSubjectCode(it.getEquivSubjectCode());
-                newIt.setDescription(it.getDescription());
-                newIt.setUnits(it.getUnits());
-                newIt.setProgram(p);
-                newIt.setCurriculum(newVersion);
-                toSave.add(newIt);
+        Long clonedId = null;
+        for (int attempt = 1; clonedId == null; attempt++) {
+            try {
+                clonedId = curriculumCloneService.cloneProgram(srcProg.get(), cloneKey);
+            } catch (DuplicateKeyException ex) {
+                // Lost the race against a concurrent request with the same key
+                Optional<CurriculumCloneService.CloneRequest> raced = curriculumCloneService.findClone(cloneKey);
+                if (raced.isPresent()) return earlierClone(raced.get(), id);
+                // Otherwise a concurrent clone took the same copy name; the retry picks the next free one
+                if (attempt == 2) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(java.util.Map.of("error", "Another program took the copy name at the same time; retry shortly."));
+                }
             }
-            if (!toSave.isEmpty()) courseRepository.saveAll(toSave);
         }
 
-        Program saved = programRepository.save(p);
-        return ResponseEntity.ok(saved);
+        eventPublisher.publishEvent(new CurriculumChangedEvent(clonedId));
+        return programRepository.findById(clonedId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Answer for a clone key seen before: the same program again, or 409 if the key was used for another source
+    private ResponseEntity<?> earlierClone(CurriculumCloneService.CloneRequest request, Long sourceProgramId) {
+        if (!request.sourceProgramId().equals(sourceProgramId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(java.util.Map.of("error", "Clone key was already used to clone another program."));
+        }
+        if (request.programId() == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(java.util.Map.of("error", "Clone is already in progress; retry shortly."));
+        }
+        return programRepository.findById(request.programId())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body(java.util.Map.of("error", "The program cloned with this key no longer exists.")));
     }
 
     @GetMapping("/byProgramId/{programId}")
     public ResponseEntity<?> getByProgramId(@PathVariable Long programId) {
-        Optional<Program> prog = programRepository.findById(programId);
-        if (prog.isEmpty()) return ResponseEntity.notFound().build();
-        Program p = prog.get();
-        var items = courseRepository.findAllByProgram_Id(p.getId());
-        var dtoItems = items.stream()
-            .sorted(Comparator
-                .comparing((Course c) -> yearOrder(c.getYear()))
-                .thenComparing(c -> termOrder(resolveTermLabel(c)))
-                .thenComparing(Course::getId, Comparator.nullsLast(Long::compareTo)))
-            .map(this::courseToDto)
-            .toList();
-        java.util.Map<String,Object> out = new java.util.HashMap<>();
-        out.put("program", java.util.Map.of("id", p.getId(), "name", p.getName(), "durationInYears", p.getDurationInYears()));
-        out.put("department", p.getDepartment() == null ? null : java.util.Map.of("id", p.getDepartment().getId(), "name", p.getDepartment().getName()));
-        out.put("programId", p.getId());
-        out.put("programName", p.getName());
-        out.put("programCode", p.getName());
-        out.put("durationInYears", p.getDurationInYears());
-        if (p.getDepartment() != null) {
-            out.put("departmentId", p.getDepartment().getId());
-        }
-        var versions = curriculumRepository.findAllByProgram_Id(p.getId());
-        Curriculum version = versions.isEmpty() ? null : versions.get(0);
-        if (version != null) {
-            out.put("curriculumId", version.getId());
-            if (version.getVersionName() != null) out.put("curriculumVersionName", version.getVersionName());
-            if (version.getEffectivityYear() != null) out.put("effectivityYear", version.getEffectivityYear());
-            if (version.getDurationInYears() != null && out.get("durationInYears") == null) {
-                out.put("durationInYears", version.getDurationInYears());
-            }
+        return curriculumReadModel.get(programId)
+                .map(this::curriculumResponse)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{curriculumId}/graph/unlocks")
+    public ResponseEntity<?> unlocks(@PathVariable Long curriculumId, @RequestParam String code) {
+        Optional<PrerequisiteGraph> graph = prerequisiteGraphService.forCurriculum(curriculumId);
+        if (graph.isEmpty()) return ResponseEntity.notFound().build();
+        Optional<List<String>> direct = graph.get().directUnlocks(code);
+        if (direct.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(java.util.Map.of("error", "Course not in curriculum: " + code));
+        }
+        Map<String, Object> body = new java.util.LinkedHashMap<>();
+        body.put("curriculumId", curriculumId);
+        body.put("code", code);
+        body.put("direct", direct.get());
+        body.put("all", graph.get().allUnlocks(code).orElse(List.of()));
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/{curriculumId}/graph/eligibility")
+    public ResponseEntity<?> eligibility(@PathVariable Long curriculumId, @RequestParam String code,
+                                         @RequestParam(required = false) List<String> completed) {
+        Optional<PrerequisiteGraph> graph = prerequisiteGraphService.forCurriculum(curriculumId);
+        if (graph.isEmpty()) return ResponseEntity.notFound().build();
+        return graph.get().eligibility(code, completed == null ? List.of() : completed)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(java.util.Map.of("error", "Course not in curriculum: " + code)));
+    }
+
+    private ResponseEntity<?> invalidPrerequisites(List<String> problems) {
+        return ResponseEntity.badRequest().body(java.util.Map.of("error", "Invalid prerequisites", "problems", problems));
+    }
+
+    // The body stays the saved program; warnings ride along as one header value each
+    private ResponseEntity<?> saved(Program program, List<String> warnings) {
+        return ResponseEntity.ok().header(PREREQUISITE_WARNINGS_HEADER, warnings.toArray(new String[0])).body(program);
+    }
+
+    // Pre-encoded JSON with a strong ETag; a matching If-None-Match is answered with 304
+    private ResponseEntity<?> curriculumResponse(CurriculumReadModel.Snapshot snapshot) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(snapshot.etag())
+                .body(snapshot.json());
+    }
+
+    private List<CurriculumItem> toItems(List<?> rawItems) {
+        List<CurriculumItem> items = new java.util.ArrayList<>(rawItems.size());
+        for (Object itemObj : rawItems) {
+            if (itemObj instanceof Map<?,?> it) items.add(CurriculumItem.fromMap(it));
         }
-        out.put("items", dtoItems);
-        return ResponseEntity.ok(out);
+        return items;
     }
 
 	private boolean isAdmin(ClasslinkUserDetails principal) {
@@ -0,0 +1,156 @@
+package com.classlink.server.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import com.classlink.server.repository.StudentRepository;
+import com.classlink.server.security.ClasslinkUserDetails;
+import com.classlink.server.storage.BlobMetadata;
+import com.classlink.server.storage.BlobStore;
+import com.classlink.server.storage.ThumbnailService;
+import com.classlink.server.storage.UploadStorageService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Serves uploads by store key ({@code /api/files/<area>/...}), and requirement documents still linked by
+ * their legacy {@code /static/requirements/...} URL. Profile images are public; requirement
+ * documents are only served to admins and to the student they belong to. When the store hands out signed
+ * URLs (object storage), the answer is a redirect to a short-lived one, so the bytes never pass through
+ * this node; otherwise the file is streamed from the store with ETag, Last-Modified and range support.
+ */
+@RestController
+public class FileController {
+
+    private static final Logger log = LoggerFactory.getLogger(FileController.class);
+
+    private static final String PROFILE_AREA = "profile";
+    private static final String REQUIREMENTS_AREA = "requirements";
+    private static final String LEGACY_PATH = "/static/";
+    private static final String LEGACY_REQUIREMENTS_PATH = LEGACY_PATH + REQUIREMENTS_AREA + "/";
+    // Stored names never change content, see StaticResourceConfig
+    private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+    // A thumbnail URL answered with the original is only cached until the variant is likely to exist
+    private static final Duration THUMBNAIL_MAX_AGE = Duration.ofMinutes(10);
+
+    private final BlobStore blobStore;
+    private final StudentRepository studentRepository;
+    private final Duration signedUrlTtl;
+
+    public FileController(BlobStore blobStore, StudentRepository studentRepository,
+            @Value("${app.storage.signed-url-ttl:PT15M}") Duration signedUrlTtl) {
+        this.blobStore = blobStore;
+        this.studentRepository = studentRepository;
+        this.signedUrlTtl = signedUrlTtl;
+    }
+
+    @GetMapping({ "/api/files/**", "/static/requirements/**" })
+    public ResponseEntity<?> getFile(HttpServletRequest request,
+            @AuthenticationPrincipal ClasslinkUserDetails principal) {
+        String key = keyOf(request);
+        if (key == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found");
+        }
+        String area = key.substring(0, key.indexOf('/'));
+        boolean restricted = REQUIREMENTS_AREA.equals(area);
+        if (!restricted && !PROFILE_AREA.equals(area)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found");
+        }
+        if (restricted) {
+            if (principal == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+            }
+            if (!mayReadRequirements(principal, key)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not allowed to view this file");
+            }
+        }
+
+        List<String> originals = ThumbnailService.originalKeys(key);
+        try {
+            // Object storage answers missing keys itself; only thumbnails need a look first, for the fallback
+            if (originals.isEmpty()) {
+                URI signed = blobStore.signedUrl(key, signedUrlTtl);
+                if (signed != null) {
+                    return redirect(signed, restricted);
+                }
+            }
+            BlobMetadata blob = blobStore.stat(key);
+            boolean fallback = false;
+            for (int i = 0; blob == null && i < originals.size(); i++) {
+                blob = blobStore.stat(originals.get(i));
+                fallback = blob != null;
+            }
+            if (blob == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found");
+            }
+            URI signed = blobStore.signedUrl(blob.key(), signedUrlTtl);
+            if (signed != null) {
+                return redirect(signed, restricted);
+            }
+            Resource body = blobStore.get(blob.key());
+            if (body == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found");
+            }
+            CacheControl cacheControl = CacheControl.maxAge(fallback ? THUMBNAIL_MAX_AGE : IMMUTABLE_MAX_AGE);
+            cacheControl = restricted ? cacheControl.cachePrivate() : cacheControl.cachePublic();
+            // Conditional GETs are answered with 304 and Range requests with 206 from these headers
+            return ResponseEntity.ok()
+                    .cacheControl(fallback ? cacheControl : cacheControl.immutable())
+                    .eTag(blob.etag())
+                    .lastModified(blob.lastModified())
+                    .contentType(MediaType.parseMediaType(blob.mediaType()))
+                    .body(body);
+        } catch (IOException e) {
+            log.error("Failed to read stored file {}", key, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Could not read file");
+        }
+    }
+
+    // The redirect is cached for a fraction of the signed URL's lifetime, so a cached one is still valid
+    private ResponseEntity<?> redirect(URI signed, boolean restricted) {
+        CacheControl cacheControl = CacheControl.maxAge(signedUrlTtl.dividedBy(4));
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(signed)
+                .cacheControl(restricted ? cacheControl.cachePrivate() : cacheControl.cachePublic())
+                .build();
+    }
+
+    private boolean mayReadRequirements(ClasslinkUserDetails principal, String key) {
+        if ("ADMIN".equalsIgnoreCase(principal.getRole())) {
+            return true;
+        }
+        return principal.isStudent() && studentRepository.findById(principal.getUserId())
+                .map(student -> key.equals(UploadStorageService.keyOf(student.getRequirementsDocumentUrl())))
+                .orElse(false);
+    }
+
+    private static String keyOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String prefix;
+        if (path.startsWith(UploadStorageService.FILES_PATH)) {
+            prefix = UploadStorageService.FILES_PATH;
+        } else if (path.startsWith(LEGACY_REQUIREMENTS_PATH)) {
+            prefix = LEGACY_PATH;
+        } else {
+            return null;
+        }
+        String key = UriUtils.decode(path.substring(prefix.length()), StandardCharsets.UTF_8);
+        return BlobStore.isValidKey(key) && key.indexOf('/') > 0 ? key : null;
+    }
+}
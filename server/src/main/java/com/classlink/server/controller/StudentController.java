@@ -1,15 +1,11 @@
 package com.classlink.server.controller;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,8 +19,6 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.classlink.server.model.ApplicantType;
 import com.classlink.server.model.ApplicationHistory;
@@ -35,6 +29,12 @@ import com.classlink.server.repository.DepartmentRepository;
 import com.classlink.server.repository.ProgramRepository;
 import com.classlink.server.repository.StudentRepository;
 import com.classlink.server.security.ClasslinkUserDetails;
+import com.classlink.server.service.StudyPlanService;
+import com.classlink.server.storage.ThumbnailService;
+import com.classlink.server.storage.UploadRejectedException;
+import com.classlink.server.storage.UploadStorageService;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/api/students")
@@ -44,16 +44,20 @@ public class StudentController {
     private final ProgramRepository programRepository;
     private final DepartmentRepository departmentRepository;
     private final ApplicationHistoryRepository applicationHistoryRepository;
+    private final StudyPlanService studyPlanService;
+    private final UploadStorageService uploadStorageService;
     private final Logger log = LoggerFactory.getLogger(StudentController.class);
     private static final int MAX_PHONE_LENGTH = 11;
-    private static final long MAX_REQUIREMENTS_FILE_SIZE = 10 * 1024 * 1024; // 10 MB
 
     public StudentController(StudentRepository studentRepository, ProgramRepository programRepository,
-            DepartmentRepository departmentRepository, ApplicationHistoryRepository applicationHistoryRepository) {
+            DepartmentRepository departmentRepository, ApplicationHistoryRepository applicationHistoryRepository,
+            StudyPlanService studyPlanService, UploadStorageService uploadStorageService) {
         this.studentRepository = studentRepository;
         this.programRepository = programRepository;
         this.departmentRepository = departmentRepository;
         this.applicationHistoryRepository = applicationHistoryRepository;
+        this.studyPlanService = studyPlanService;
+        this.uploadStorageService = uploadStorageService;
     }
 
     // Use a Map<String, Object> for flexibility or a dedicated DTO class
@@ -175,6 +179,21 @@ public class StudentController {
         return ResponseEntity.ok(student);
     }
 
+    @GetMapping("/me/study-plan")
+    public ResponseEntity<?> getMyStudyPlan(@RequestParam(name = "maxUnits", required = false) Integer maxUnits,
+            @AuthenticationPrincipal ClasslinkUserDetails principal) {
+        Long userId = resolveStudentId(principal);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Student access required.");
+        }
+        Student student = studentRepository.findById(userId).orElse(null);
+        if (student == null)
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Student record not found.");
+        return studyPlanService.planFor(student, null, maxUnits)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("No curriculum found for your program."));
+    }
+
     @GetMapping("/me/history")
     public ResponseEntity<?> getMyHistory(@AuthenticationPrincipal ClasslinkUserDetails principal) {
         Long userId = resolveStudentId(principal);
@@ -199,7 +218,7 @@ public class StudentController {
     }
 
     @PostMapping("/me/profile-image")
-    public ResponseEntity<?> uploadProfileImage(@RequestParam("file") MultipartFile file,
+    public ResponseEntity<?> uploadProfileImage(HttpServletRequest request,
             @AuthenticationPrincipal ClasslinkUserDetails principal) {
         Long userId = resolveStudentId(principal);
         if (userId == null) {
@@ -208,33 +227,17 @@ public class StudentController {
         Student student = studentRepository.findById(userId).orElse(null);
         if (student == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Student record not found.");
 
-        if (file == null || file.isEmpty()) {
-            return ResponseEntity.badRequest().body("Empty file");
-        }
-        if (file.getContentType() == null || !file.getContentType().startsWith("image/")) {
-            return ResponseEntity.badRequest().body("File must be an image");
-        }
-
         try {
-            Path uploadRoot = Path.of("uploads", "profile");
-            Files.createDirectories(uploadRoot);
-            String extension = "";
-            String original = file.getOriginalFilename();
-            if (original != null && original.contains(".")) {
-                extension = original.substring(original.lastIndexOf('.'));
-            }
-            String filename = UUID.randomUUID() + extension;
-            Path target = uploadRoot.resolve(filename);
-            Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
-
-            // Expose via /static/profile/{filename}
-        String relative = "/static/profile/" + filename;
-        String url = ServletUriComponentsBuilder.fromCurrentContextPath()
-            .path(relative)
-            .toUriString();
+            // Streamed straight from the request body; type and size are checked while it arrives
+            UploadStorageService.StoredUpload stored = uploadStorageService.storeProfileImage(request);
+            String url = stored.url();
             student.setProfileImageUrl(url);
             studentRepository.save(student);
-            return ResponseEntity.ok(Map.of("profileImageUrl", url));
+            // Thumbnail URLs work right away; they serve the original until the variants are ready
+            return ResponseEntity.ok(Map.of("profileImageUrl", url,
+                    "profileImageThumbnails", ThumbnailService.variantUrls(url)));
+        } catch (UploadRejectedException e) {
+            return ResponseEntity.status(e.getStatus()).body(e.getMessage());
         } catch (IOException e) {
             log.error("Failed to store profile image", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Could not store image");
@@ -242,7 +245,7 @@ public class StudentController {
     }
 
     @PostMapping("/me/requirements")
-    public ResponseEntity<?> uploadRequirementsDocument(@RequestParam("file") MultipartFile file,
+    public ResponseEntity<?> uploadRequirementsDocument(HttpServletRequest request,
             @AuthenticationPrincipal ClasslinkUserDetails principal) {
         Long userId = resolveStudentId(principal);
         if (userId == null) {
@@ -253,38 +256,15 @@ public class StudentController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Student record not found.");
         }
 
-        if (file == null || file.isEmpty()) {
-            return ResponseEntity.badRequest().body("Empty file");
-        }
-        if (file.getSize() > MAX_REQUIREMENTS_FILE_SIZE) {
-            return ResponseEntity.badRequest().body("File exceeds 10 MB limit");
-        }
-        String contentType = file.getContentType();
-        String filename = file.getOriginalFilename();
-        boolean isPdf = (contentType != null && contentType.equalsIgnoreCase("application/pdf"))
-                || (filename != null && filename.toLowerCase().endsWith(".pdf"));
-        if (!isPdf) {
-            return ResponseEntity.badRequest().body("Requirements file must be a PDF");
-        }
-
         try {
-            Path uploadRoot = Path.of("uploads", "requirements");
-            Files.createDirectories(uploadRoot);
-            String extension = ".pdf";
-            if (filename != null && filename.contains(".")) {
-                extension = filename.substring(filename.lastIndexOf('.'));
-            }
-            String storedName = UUID.randomUUID() + extension;
-            Path target = uploadRoot.resolve(storedName);
-            Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
-
-            String relative = "/static/requirements/" + storedName;
-            String url = ServletUriComponentsBuilder.fromCurrentContextPath()
-                    .path(relative)
-                    .toUriString();
+            UploadStorageService.StoredUpload stored = uploadStorageService.storeRequirementsDocument(request);
+            String url = stored.url();
+            // The previous file is left to the upload collector once no URL points at it
             student.setRequirementsDocumentUrl(url);
             studentRepository.save(student);
             return ResponseEntity.ok(Map.of("requirementsDocumentUrl", url));
+        } catch (UploadRejectedException e) {
+            return ResponseEntity.status(e.getStatus()).body(e.getMessage());
         } catch (IOException e) {
             log.error("Failed to store requirements document", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Could not store requirements file");
@@ -0,0 +1,18 @@
+package com.classlink.server.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One dated occurrence of a calendar event, as returned by range queries. Single events yield one
+ * occurrence; recurring events yield one per matching date with the series' id.
+ */
+public record CalendarOccurrence(
+        Long id,
+        String title,
+        LocalDate startDate,
+        LocalDate endDate,
+        String type,
+        String description,
+        boolean recurring,
+        String recurrenceRule) {
+}
@@ -0,0 +1,20 @@
+package com.classlink.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CourseSummaryDto {
+    private Long id;
+    private String subjectCode;
+    private String description;
+    private Integer units;
+    private Integer year;
+    private String semester;
+    private String termTitle;
+    private String prerequisite;
+    private String equivSubjectCode;
+    private Long programId;
+    private Long curriculumId;
+}
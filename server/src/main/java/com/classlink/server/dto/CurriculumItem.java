@@ -0,0 +1,49 @@
+package com.classlink.server.dto;
+
+import java.util.Map;
+
+import com.classlink.server.service.CurriculumLabels;
+
+/**
+ * One course row of a curriculum as submitted by the admin editor or an import file,
+ * already coerced to the types stored on {@code Course}.
+ */
+public record CurriculumItem(
+        String subjectCode,
+        String description,
+        String equivSubjectCode,
+        String prerequisite,
+        String semester,
+        String termTitle,
+        Integer units,
+        Integer year) {
+
+    /**
+     * Builds an item from the loosely typed JSON map posted by the curriculum editor. A missing semester
+     * falls back to the term title (and vice versa), and the year may be given as a label ("Second Year").
+     */
+    public static CurriculumItem fromMap(Map<?, ?> it) {
+        String semester = asString(it.get("semester"));
+        String termTitle = asString(it.get("termTitle"));
+        if ((semester == null || semester.isBlank()) && termTitle != null) semester = termTitle;
+        Integer year = CurriculumLabels.parseYearLabel(it.get("yearLabel"));
+        if (year == null && it.get("year") != null) {
+            try { year = Integer.valueOf(String.valueOf(it.get("year"))); } catch (Exception ignore) {}
+        }
+        Integer units = null;
+        try { units = it.get("units") == null ? null : Integer.valueOf(String.valueOf(it.get("units"))); } catch (Exception ignore) {}
+        return new CurriculumItem(
+                asString(it.get("subjectCode")),
+                asString(it.get("description")),
+                asString(it.get("equivSubjectCode")),
+                asString(it.get("prerequisite")),
+                semester,
+                termTitle == null || termTitle.isBlank() ? semester : termTitle,
+                units,
+                year);
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : String.valueOf(value);
+    }
+}
@@ -0,0 +1,15 @@
+package com.classlink.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CurriculumSummaryDto {
+    private Long programId;
+    private String programName;
+    private Integer durationInYears;
+    private Long departmentId;
+    private String departmentName;
+    private Long itemsCount;
+}
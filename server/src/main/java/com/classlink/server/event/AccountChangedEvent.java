@@ -0,0 +1,9 @@
+package com.classlink.server.event;
+
+/**
+ * Published whenever a {@code Student} or {@code Admin} row is inserted, updated or removed so that
+ * cached authentication principals can be refreshed on their next use. {@code profileVersion} is the
+ * version written with the change, or -1 once the account is gone.
+ */
+public record AccountChangedEvent(String userType, Long userId, long profileVersion) {
+}
@@ -0,0 +1,47 @@
+package com.classlink.server.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.classlink.server.model.Admin;
+import com.classlink.server.model.Student;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener registered on {@link Student} and {@link Admin}. Hibernate resolves it through
+ * Spring's bean container, so the publisher is injected like any other component. It runs after the
+ * entity's own {@code @PreUpdate}, so the version it reports is the one just written.
+ */
+@Component
+public class AccountEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AccountEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onAccountWrite(Object entity) {
+        publish(entity, false);
+    }
+
+    @PostRemove
+    public void onAccountRemove(Object entity) {
+        publish(entity, true);
+    }
+
+    private void publish(Object entity, boolean removed) {
+        if (entity instanceof Student student && student.getId() != null) {
+            eventPublisher.publishEvent(new AccountChangedEvent("student", student.getId(),
+                    removed ? -1L : student.getProfileVersion()));
+        } else if (entity instanceof Admin admin && admin.getAdminId() != null) {
+            eventPublisher.publishEvent(new AccountChangedEvent("admin", admin.getAdminId(),
+                    removed ? -1L : admin.getProfileVersion()));
+        }
+    }
+}
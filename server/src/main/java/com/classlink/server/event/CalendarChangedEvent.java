@@ -0,0 +1,7 @@
+package com.classlink.server.event;
+
+/**
+ * Published after a calendar event is created, changed or deleted so calendar caches can refresh.
+ */
+public record CalendarChangedEvent(Long eventId, boolean removed) {
+}
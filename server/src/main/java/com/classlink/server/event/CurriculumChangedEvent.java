@@ -0,0 +1,8 @@
+package com.classlink.server.event;
+
+/**
+ * Published after a program's curriculum or courses were created, edited, cloned or removed.
+ * Read-side caches keyed by program drop their entries for {@code programId} when they receive it.
+ */
+public record CurriculumChangedEvent(Long programId) {
+}
@@ -0,0 +1,106 @@
+package com.classlink.server.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV reader: comma separated, double-quoted fields with {@code ""} escapes, quoted line
+ * breaks, CRLF or LF row endings and an optional UTF-8 byte order mark.
+ */
+public class CsvRowSource implements RowSource {
+
+    private static final int MAX_FIELD_LENGTH = 10_000;
+
+    private final Reader reader;
+    private int rowNumber;
+    private int pushedBack = -2;
+
+    public CsvRowSource(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public List<String> nextRow() throws IOException {
+        int c = read();
+        if (c == 0xFEFF && rowNumber == 0) {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        rowNumber++;
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in row " + rowNumber);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        append(field, '"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    append(field, (char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') unread(next);
+                }
+                row.add(field.toString());
+                return row;
+            } else {
+                append(field, (char) c);
+            }
+            c = read();
+        }
+    }
+
+    @Override
+    public int rowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void append(StringBuilder field, char c) throws IOException {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IOException("Field too long in row " + rowNumber);
+        }
+        field.append(c);
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
@@ -0,0 +1,46 @@
+package com.classlink.server.importer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import lombok.Data;
+
+/**
+ * Outcome of a curriculum import: row counts plus one entry per rejected row. Only the first
+ * {@link #MAX_ERRORS} row errors are kept so a badly formatted file cannot blow up the response.
+ */
+@Data
+public class CurriculumImportReport {
+
+    public static final int MAX_ERRORS = 1000;
+
+    public record RowError(int row, String message) {
+    }
+
+    private int rowsRead;
+    private int inserted;
+    private int skippedDuplicates;
+    private int rejected;
+    private int programsCreated;
+    private Set<String> programs = new LinkedHashSet<>();
+    private List<RowError> errors = new ArrayList<>();
+    private List<String> warnings = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    void reject(int row, String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    void warn(String message) {
+        if (warnings.size() < MAX_ERRORS) {
+            warnings.add(message);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.classlink.server.importer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.classlink.server.dto.CurriculumItem;
+import com.classlink.server.event.CurriculumChangedEvent;
+import com.classlink.server.model.Curriculum;
+import com.classlink.server.model.Program;
+import com.classlink.server.repository.CurriculumRepository;
+import com.classlink.server.repository.ProgramRepository;
+import com.classlink.server.service.CurriculumLabels;
+import com.classlink.server.service.CurriculumMergeService;
+import com.classlink.server.service.PrerequisiteGraphService;
+
+/**
+ * Imports curriculum rows (one course per row, any number of programs per file) from a {@link RowSource}.
+ * The first row is a header naming the columns; rows are validated one at a time, buffered for the
+ * program being read and flushed as JDBC batches, each committed on its own. Rows that match an existing
+ * course of the program (subject code, year and term) are skipped.
+ *
+ * <p>Only the program whose rows are being read keeps state (its existing course keys and the pending
+ * batch); it is flushed and released as soon as the file moves on to another program. Memory therefore
+ * stays bounded by the largest program rather than by the catalog, and a program that shows up again
+ * later in the file reloads its keys, which by then include the rows already committed.</p>
+ */
+@Service
+public class CurriculumImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CurriculumImportService.class);
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_EXISTING =
+            "SELECT subject_code, semester, term_title, year FROM course WHERE program_id = ?";
+
+    private enum Column {
+        PROGRAM("program", "programname", "programcode"),
+        SUBJECT_CODE("subjectcode", "code", "coursecode"),
+        DESCRIPTION("description", "descriptivetitle", "title", "coursetitle"),
+        UNITS("units", "unit", "credits"),
+        YEAR("year", "yearlevel", "yearlabel"),
+        SEMESTER("semester", "sem", "term"),
+        TERM_TITLE("termtitle"),
+        PREREQUISITE("prerequisite", "prerequisites", "prereq"),
+        EQUIV_SUBJECT_CODE("equivsubjectcode", "equivalent", "equivcode", "equivalentcode");
+
+        private final String[] headers;
+
+        Column(String... headers) {
+            this.headers = headers;
+        }
+    }
+
+    /** A program the import wrote to, kept until the end for its warnings and change event. */
+    private record ImportedProgram(Long programId, String programName, Long curriculumId) {
+    }
+
+    /** State of the program being read: target version, known keys and the pending batch. */
+    private static final class ProgramTarget {
+        final String nameKey;
+        final ImportedProgram program;
+        final Set<String> keys;
+        final List<CurriculumItem> pending = new ArrayList<>();
+
+        ProgramTarget(String nameKey, ImportedProgram program, Set<String> keys) {
+            this.nameKey = nameKey;
+            this.program = program;
+            this.keys = keys;
+        }
+    }
+
+    private final ProgramRepository programRepository;
+    private final CurriculumRepository curriculumRepository;
+    private final CurriculumMergeService curriculumMergeService;
+    private final PrerequisiteGraphService prerequisiteGraphService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CurriculumImportService(ProgramRepository programRepository, CurriculumRepository curriculumRepository,
+            CurriculumMergeService curriculumMergeService, PrerequisiteGraphService prerequisiteGraphService,
+            JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher) {
+        this.programRepository = programRepository;
+        this.curriculumRepository = curriculumRepository;
+        this.curriculumMergeService = curriculumMergeService;
+        this.prerequisiteGraphService = prerequisiteGraphService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Runs the import batch by batch: invalid rows are only reported, and a file that turns out to be
+     * unreadable part-way keeps the batches committed before the failure. Running the same file again is
+     * safe, since the rows already stored are skipped as duplicates. Programs named in the file that do not
+     * exist yet are created when {@code createMissingPrograms} is set.
+     */
+    public CurriculumImportReport importRows(RowSource rows, boolean createMissingPrograms) throws IOException {
+        CurriculumImportReport report = new CurriculumImportReport();
+        List<String> header = rows.nextRow();
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty.");
+        }
+        Map<Column, Integer> columns = mapHeader(header);
+        if (!columns.containsKey(Column.PROGRAM) || !columns.containsKey(Column.SUBJECT_CODE)) {
+            throw new IllegalArgumentException("Header must include program and subject code columns.");
+        }
+
+        Map<String, ImportedProgram> imported = new LinkedHashMap<>();
+        ProgramTarget target = null;
+        List<String> row;
+        while ((row = rows.nextRow()) != null) {
+            if (isBlank(row)) {
+                continue;
+            }
+            report.setRowsRead(report.getRowsRead() + 1);
+            int rowNumber = rows.rowNumber();
+
+            String programName = cell(row, columns, Column.PROGRAM);
+            String nameKey = Program.normalizeName(programName);
+            if (nameKey == null) {
+                report.reject(rowNumber, "Program is required.");
+                continue;
+            }
+            CurriculumItem item;
+            try {
+                item = toItem(row, columns);
+            } catch (IllegalArgumentException ex) {
+                report.reject(rowNumber, ex.getMessage());
+                continue;
+            }
+
+            if (target == null || !target.nameKey.equals(nameKey)) {
+                ProgramTarget next = resolveTarget(programName.trim(), nameKey, createMissingPrograms, report);
+                if (next == null) {
+                    report.reject(rowNumber, "Unknown program: " + programName.trim());
+                    continue;
+                }
+                if (target != null) {
+                    flush(target, report);
+                }
+                target = next;
+                if (imported.putIfAbsent(nameKey, target.program) == null) {
+                    report.getPrograms().add(programName.trim());
+                }
+            }
+            if (!target.keys.add(CurriculumMergeService.matchKey(item))) {
+                report.setSkippedDuplicates(report.getSkippedDuplicates() + 1);
+                continue;
+            }
+            target.pending.add(item);
+            if (target.pending.size() >= BATCH_SIZE) {
+                flush(target, report);
+            }
+        }
+
+        if (target != null) {
+            flush(target, report);
+        }
+        for (ImportedProgram program : imported.values()) {
+            // Imported rows are kept even when their prerequisites do not resolve; surface those as warnings
+            for (String problem : prerequisiteGraphService.load(program.curriculumId()).problems()) {
+                report.warn(program.programName() + ": " + problem);
+            }
+            eventPublisher.publishEvent(new CurriculumChangedEvent(program.programId()));
+        }
+        log.info("Curriculum import: {} rows, {} inserted, {} duplicates, {} rejected across {} programs",
+                report.getRowsRead(), report.getInserted(), report.getSkippedDuplicates(), report.getRejected(), imported.size());
+        return report;
+    }
+
+    private void flush(ProgramTarget target, CurriculumImportReport report) {
+        if (target.pending.isEmpty()) {
+            return;
+        }
+        // appendCourses commits the batch on its own
+        int inserted = curriculumMergeService.appendCourses(target.program.programId(), target.program.curriculumId(),
+                target.pending);
+        report.setInserted(report.getInserted() + inserted);
+        target.pending.clear();
+    }
+
+    // A new program and its first version are created together or not at all
+    private ProgramTarget resolveTarget(String programName, String nameKey, boolean createMissing,
+            CurriculumImportReport report) {
+        return transactionTemplate.execute(status -> findOrCreateTarget(programName, nameKey, createMissing, report));
+    }
+
+    private ProgramTarget findOrCreateTarget(String programName, String nameKey, boolean createMissing,
+            CurriculumImportReport report) {
+        Program program = programRepository.findByNameKey(nameKey).orElse(null);
+        if (program == null) {
+            if (!createMissing) {
+                return null;
+            }
+            program = new Program();
+            program.setName(programName);
+            program = programRepository.save(program);
+            report.setProgramsCreated(report.getProgramsCreated() + 1);
+        }
+        List<Curriculum> versions = curriculumRepository.findAllByProgram_Id(program.getId());
+        Curriculum version = versions.isEmpty() ? null : versions.get(0);
+        if (version == null) {
+            version = new Curriculum();
+            version.setProgram(program);
+            version.setVersionName("Imported - initial");
+            version.setEffectivityYear(java.time.LocalDate.now().getYear());
+            version.setDurationInYears(program.getDurationInYears());
+            version = curriculumRepository.save(version);
+        }
+        Set<String> keys = new HashSet<>();
+        jdbcTemplate.query(SELECT_EXISTING, rs -> {
+            keys.add(CurriculumMergeService.matchKey(new CurriculumItem(rs.getString("subject_code"), null, null, null,
+                    rs.getString("semester"), rs.getString("term_title"), null, rs.getObject("year", Integer.class))));
+        }, program.getId());
+        return new ProgramTarget(nameKey, new ImportedProgram(program.getId(), program.getName(), version.getId()), keys);
+    }
+
+    private CurriculumItem toItem(List<String> row, Map<Column, Integer> columns) {
+        String subjectCode = cell(row, columns, Column.SUBJECT_CODE);
+        if (subjectCode == null) {
+            throw new IllegalArgumentException("Subject code is required.");
+        }
+        String yearText = cell(row, columns, Column.YEAR);
+        Integer year = CurriculumLabels.parseYearLabel(yearText);
+        if (yearText != null && (year == null || year <= 0)) {
+            throw new IllegalArgumentException("Unrecognised year: " + yearText);
+        }
+        String unitsText = cell(row, columns, Column.UNITS);
+        Integer units = null;
+        if (unitsText != null) {
+            try {
+                units = new BigDecimal(unitsText).intValueExact();
+            } catch (ArithmeticException | NumberFormatException ex) {
+                throw new IllegalArgumentException("Units must be a whole number: " + unitsText);
+            }
+        }
+        String semester = cell(row, columns, Column.SEMESTER);
+        String termTitle = cell(row, columns, Column.TERM_TITLE);
+        if (semester == null) semester = termTitle;
+        if (termTitle == null) termTitle = semester;
+        return new CurriculumItem(subjectCode, cell(row, columns, Column.DESCRIPTION),
+                cell(row, columns, Column.EQUIV_SUBJECT_CODE), cell(row, columns, Column.PREREQUISITE),
+                semester, termTitle, units, year);
+    }
+
+    private static Map<Column, Integer> mapHeader(List<String> header) {
+        Map<Column, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i) == null ? "" : header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+            for (Column column : Column.values()) {
+                for (String alias : column.headers) {
+                    if (alias.equals(name)) {
+                        columns.putIfAbsent(column, i);
+                    }
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String cell(List<String> row, Map<Column, Integer> columns, Column column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.size()) {
+            return null;
+        }
+        String value = row.get(index);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean isBlank(List<String> row) {
+        for (String value : row) {
+            if (value != null && !value.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package com.classlink.server.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Sequential reader over the rows of a tabular upload. Rows are produced one at a time so an import
+ * never holds more than the current row in memory.
+ */
+public interface RowSource extends Closeable {
+
+    /** Next row's cell values (blank cells as empty strings), or {@code null} once the input is exhausted. */
+    List<String> nextRow() throws IOException;
+
+    /** 1-based position of the row last returned, as a spreadsheet user would count it. */
+    int rowNumber();
+}
@@ -0,0 +1,206 @@
+package com.classlink.server.importer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streams the first worksheet of an XLSX workbook with StAX. Only the shared-string table is held in
+ * memory (as Excel's own streaming readers do); sheet rows are pulled one at a time from the zip entry.
+ */
+public class XlsxRowSource implements RowSource {
+
+    private static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+    private static final String FIRST_SHEET = "xl/worksheets/sheet1.xml";
+    private static final long MAX_SHARED_STRING_CHARS = 32L * 1024 * 1024;
+
+    private final ZipFile zip;
+    private final InputStream sheetStream;
+    private final XMLStreamReader sheet;
+    private final List<String> sharedStrings;
+    private int rowNumber;
+
+    public XlsxRowSource(File workbook) throws IOException {
+        this.zip = new ZipFile(workbook);
+        try {
+            XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            this.sharedStrings = readSharedStrings(factory);
+            ZipEntry sheetEntry = findFirstSheet();
+            this.sheetStream = zip.getInputStream(sheetEntry);
+            this.sheet = factory.createXMLStreamReader(sheetStream);
+        } catch (IOException | XMLStreamException | RuntimeException ex) {
+            zip.close();
+            throw ex instanceof IOException io ? io : new IOException("Not a readable XLSX workbook", ex);
+        }
+    }
+
+    @Override
+    public List<String> nextRow() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    String r = sheet.getAttributeValue(null, "r");
+                    rowNumber = r == null ? rowNumber + 1 : Integer.parseInt(r);
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException | NumberFormatException ex) {
+            throw new IOException("Malformed worksheet near row " + rowNumber, ex);
+        }
+    }
+
+    @Override
+    public int rowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException ignore) {
+            // closing the underlying stream below is what matters
+        }
+        sheetStream.close();
+        zip.close();
+    }
+
+    private List<String> readRow() throws XMLStreamException, IOException {
+        List<String> cells = new ArrayList<>();
+        String type = null;
+        int column = -1;
+        String value = null;
+        StringBuilder inline = null;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (sheet.getLocalName()) {
+                    case "c" -> {
+                        type = sheet.getAttributeValue(null, "t");
+                        String ref = sheet.getAttributeValue(null, "r");
+                        column = ref == null ? cells.size() : columnIndex(ref);
+                        value = null;
+                        inline = null;
+                    }
+                    case "v" -> value = sheet.getElementText();
+                    case "is" -> inline = new StringBuilder();
+                    case "t" -> {
+                        if (inline != null) inline.append(sheet.getElementText());
+                    }
+                    default -> { }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = sheet.getLocalName();
+                if ("c".equals(name)) {
+                    while (cells.size() < column) cells.add("");
+                    cells.add(cellText(type, value, inline));
+                } else if ("row".equals(name)) {
+                    return cells;
+                }
+            }
+        }
+        return cells;
+    }
+
+    private String cellText(String type, String value, StringBuilder inline) throws IOException {
+        if ("inlineStr".equals(type)) {
+            return inline == null ? "" : inline.toString();
+        }
+        if (value == null) {
+            return "";
+        }
+        if ("s".equals(type)) {
+            try {
+                return sharedStrings.get(Integer.parseInt(value.trim()));
+            } catch (RuntimeException ex) {
+                throw new IOException("Invalid shared string reference in row " + rowNumber);
+            }
+        }
+        if ("b".equals(type)) {
+            return "1".equals(value) ? "TRUE" : "FALSE";
+        }
+        // Whole numbers are stored as e.g. "3" or "3.0"; keep them integral for unit/year parsing
+        if (type == null || "n".equals(type)) {
+            if (value.endsWith(".0")) return value.substring(0, value.length() - 2);
+        }
+        return value;
+    }
+
+    private static int columnIndex(String cellRef) {
+        int index = 0;
+        for (int i = 0; i < cellRef.length(); i++) {
+            char c = cellRef.charAt(i);
+            if (c < 'A' || c > 'Z') break;
+            index = index * 26 + (c - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    private List<String> readSharedStrings(XMLInputFactory factory) throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry(SHARED_STRINGS);
+        if (entry == null) {
+            return strings;
+        }
+        long budget = MAX_SHARED_STRING_CHARS;
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            StringBuilder current = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("si".equals(name)) {
+                        current = new StringBuilder();
+                    } else if ("t".equals(name) && current != null) {
+                        current.append(reader.getElementText());
+                    } else if ("rPh".equals(name)) {
+                        skipElement(reader); // phonetic hints are not part of the cell text
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "si".equals(reader.getLocalName()) && current != null) {
+                    budget -= current.length();
+                    if (budget < 0) {
+                        throw new IOException("Workbook shared strings exceed the import limit");
+                    }
+                    strings.add(current.toString());
+                    current = null;
+                }
+            }
+            reader.close();
+        }
+        return strings;
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) depth++;
+            else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+        }
+    }
+
+    private ZipEntry findFirstSheet() throws IOException {
+        ZipEntry entry = zip.getEntry(FIRST_SHEET);
+        if (entry != null) {
+            return entry;
+        }
+        return zip.stream()
+                .filter(e -> e.getName().startsWith("xl/worksheets/sheet") && e.getName().endsWith(".xml"))
+                .min(Comparator.comparing(ZipEntry::getName))
+                .orElseThrow(() -> new IOException("Workbook has no worksheets"));
+    }
+}
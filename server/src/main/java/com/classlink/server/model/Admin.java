@@ -1,11 +1,14 @@
 package com.classlink.server.model;
 
 import jakarta.persistence.*;
+import com.classlink.server.event.AccountEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
 @Data
+@EntityListeners(AccountEntityListener.class)
 public class Admin {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,6 +26,11 @@ public class Admin {
     @Column(name = "created_at", nullable = false, updatable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime createdAt;
 
+    // Bumped in the same UPDATE as any change; session principals compare against it (AccountProfileVersions)
+    @JsonIgnore
+    @Column(name = "profile_version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long profileVersion;
+
     @PrePersist
     public void onCreate() {
         if (createdAt == null) {
@@ -30,4 +38,9 @@ public class Admin {
         }
     }
 
+    @PreUpdate
+    void bumpProfileVersion() {
+        profileVersion++;
+    }
+
 }
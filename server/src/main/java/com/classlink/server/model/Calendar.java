@@ -2,6 +2,9 @@ package com.classlink.server.model;
 
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -24,4 +27,17 @@ public class Calendar {
     private String type;
 
     private String description;
-}
\ No newline at end of file
+
+    // RRULE subset (see RecurrenceRule); startDate/endDate describe the first occurrence
+    @Column(name = "recurrence_rule")
+    private String recurrenceRule;
+
+    // Comma-separated ISO dates of skipped occurrences (EXDATE)
+    @Column(name = "recurrence_exceptions", length = 2000)
+    private String recurrenceExceptions;
+
+    // Last day any occurrence covers; null for open-ended series. Derived on save for range queries.
+    @Column(name = "recurrence_until")
+    @JsonIgnore
+    private LocalDate recurrenceUntil;
+}
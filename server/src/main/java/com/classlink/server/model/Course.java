@@ -1,5 +1,8 @@
 package com.classlink.server.model;
 
+import com.classlink.server.service.CurriculumLabels;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -34,4 +37,19 @@ public class Course {
     @JoinColumn(name = "curriculum_version_id")
     private Curriculum curriculum;
 
+    // Normalized sort keys (see V25); derived from year/semester/termTitle on every write
+    @Column(name = "year_order", nullable = false)
+    @JsonIgnore
+    private int yearOrder = Integer.MAX_VALUE;
+
+    @Column(name = "term_order", nullable = false)
+    @JsonIgnore
+    private int termOrder = Integer.MAX_VALUE;
+
+    @PrePersist
+    @PreUpdate
+    public void syncSortOrder() {
+        yearOrder = CurriculumLabels.yearOrder(year);
+        termOrder = CurriculumLabels.termOrder(CurriculumLabels.resolveTermLabel(semester, termTitle));
+    }
 }
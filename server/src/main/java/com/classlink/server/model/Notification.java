@@ -12,6 +12,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -19,7 +20,7 @@ import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = @Index(name = "ix_notifications_type_related", columnList = "type, related_entity_id"))
 @Data
 public class Notification {
 
@@ -43,6 +44,7 @@ public class Notification {
     @Column(name = "is_read")
     private boolean read;
 
+    @Column(name = "related_entity_id")
     private Long relatedEntityId;
 
     private LocalDateTime createdAt;
@@ -12,6 +12,12 @@ public class Program {
     private Long id;
 
     private String name;
+
+    // Trimmed, lower-cased copy of name; uniquely indexed (see V23) for case-insensitive lookups
+    @Column(name = "name_key")
+    @JsonIgnore
+    private String nameKey;
+
     private Integer durationInYears;
 
     @ManyToOne
@@ -21,4 +27,18 @@ public class Program {
     @OneToMany(mappedBy = "program", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private java.util.List<com.classlink.server.model.Curriculum> curriculum = new java.util.ArrayList<>();
-}
\ No newline at end of file
+
+    @PrePersist
+    @PreUpdate
+    public void syncNameKey() {
+        nameKey = normalizeName(name);
+    }
+
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmed = name.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(java.util.Locale.ROOT);
+    }
+}
@@ -2,10 +2,12 @@ package com.classlink.server.model;
 
 import java.time.LocalDate; 
 
+import com.classlink.server.event.AccountEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -13,11 +15,13 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Transient;
 import lombok.Data;
 
 @Entity
 @Data
+@EntityListeners(AccountEntityListener.class)
 public class Student {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -81,4 +85,14 @@ public class Student {
     @Transient
     private String processedBy;
 
+    // Bumped in the same UPDATE as any change; session principals compare against it (AccountProfileVersions)
+    @JsonIgnore
+    @Column(name = "profile_version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long profileVersion;
+
+    @PreUpdate
+    void bumpProfileVersion() {
+        profileVersion++;
+    }
+
 }
\ No newline at end of file
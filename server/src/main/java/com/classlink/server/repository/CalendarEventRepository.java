@@ -1,11 +1,28 @@
 package com.classlink.server.repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.classlink.server.model.Calendar;
 
 public interface CalendarEventRepository extends JpaRepository<Calendar, Long> {
     List<Calendar> findAllByOrderByStartDateAsc();
+
+    List<Calendar> findAllByTypeIgnoreCaseOrderByStartDateAsc(String type);
+
+    // Overlap test for [from, to]; served by ix_calendar_start_end (start_date, end_date).
+    // Recurring series match while any occurrence can still fall in the window (recurrence_until null = open-ended).
+    @Query("select c from Calendar c where c.startDate <= :to and (coalesce(c.endDate, c.startDate) >= :from "
+            + "or (c.recurrenceRule is not null and (c.recurrenceUntil is null or c.recurrenceUntil >= :from))) "
+            + "order by c.startDate asc, c.id asc")
+    List<Calendar> findOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select c from Calendar c where coalesce(c.endDate, c.startDate) >= :floor "
+            + "or (c.recurrenceRule is not null and (c.recurrenceUntil is null or c.recurrenceUntil >= :floor)) "
+            + "order by c.startDate asc, c.id asc")
+    List<Calendar> findEndingOnOrAfter(@Param("floor") LocalDate floor);
 }
\ No newline at end of file
@@ -1,11 +1,40 @@
 package com.classlink.server.repository;
 
+import com.classlink.server.dto.CourseSummaryDto;
 import com.classlink.server.model.Course;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
     List<Course> findAllByProgram_Id(Long programId);
     List<Course> findAllByCurriculum_Id(Long curriculumId);
+    // Served by ix_course_program_order (program_id, year_order, term_order, id)
+    List<Course> findAllByProgram_IdOrderByYearOrderAscTermOrderAscIdAsc(Long programId);
+
+    // Slim catalog rows; program/curriculum ids come straight from the FK columns, so no joins are issued
+    @Query(value = "select new com.classlink.server.dto.CourseSummaryDto(c.id, c.subjectCode, c.description, c.units, c.year, "
+            + "c.semester, c.termTitle, c.prerequisite, c.equivSubjectCode, c.program.id, c.curriculum.id) "
+            + "from Course c "
+            + "where (:programId is null or c.program.id = :programId) "
+            + "and (:curriculumId is null or c.curriculum.id = :curriculumId) "
+            + "and (:year is null or c.year = :year) "
+            + "and (:termOrder is null or c.termOrder = :termOrder) "
+            + "and (:codePrefix is null or c.subjectCode like :codePrefix escape '!')",
+            countQuery = "select count(c) from Course c "
+            + "where (:programId is null or c.program.id = :programId) "
+            + "and (:curriculumId is null or c.curriculum.id = :curriculumId) "
+            + "and (:year is null or c.year = :year) "
+            + "and (:termOrder is null or c.termOrder = :termOrder) "
+            + "and (:codePrefix is null or c.subjectCode like :codePrefix escape '!')")
+    Page<CourseSummaryDto> findCatalogPage(@Param("programId") Long programId,
+                                           @Param("curriculumId") Long curriculumId,
+                                           @Param("year") Integer year,
+                                           @Param("termOrder") Integer termOrder,
+                                           @Param("codePrefix") String codePrefix,
+                                           Pageable pageable);
 }
 
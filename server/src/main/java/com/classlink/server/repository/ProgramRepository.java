@@ -1,10 +1,28 @@
 package com.classlink.server.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.classlink.server.dto.CurriculumSummaryDto;
 import com.classlink.server.model.Program;
 import java.util.List;
 
 public interface ProgramRepository extends JpaRepository<Program, Long> {
     List<Program> findAllByDepartmentId(Long departmentId);
     java.util.Optional<Program> findByName(String name);
+    java.util.Optional<Program> findByNameKey(String nameKey);
+
+    interface ProgramKey {
+        Long getId();
+        String getNameKey();
+    }
+
+    @Query("select p.id as id, p.nameKey as nameKey from Program p where p.nameKey is not null")
+    List<ProgramKey> findAllNameKeys();
+
+    // One grouped query instead of loading every course of every program just to count them
+    @Query("select new com.classlink.server.dto.CurriculumSummaryDto(p.id, p.name, p.durationInYears, d.id, d.name, count(c.id)) "
+            + "from Program p left join p.department d left join Course c on c.program = p "
+            + "group by p.id, p.name, p.durationInYears, d.id, d.name order by p.id")
+    List<CurriculumSummaryDto> findCurriculumSummaries();
 }
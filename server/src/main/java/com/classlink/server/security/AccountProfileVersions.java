@@ -0,0 +1,92 @@
+package com.classlink.server.security;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.classlink.server.event.AccountChangedEvent;
+
+/**
+ * Tells whether a principal stored in the session still matches its account's {@code profile_version},
+ * so the display fields it carries (names, role, password reset flag) can be served without a query.
+ *
+ * <p>Versions are kept in memory. Writes on this node replace the entry as soon as they commit; the
+ * column is only read when an account has no entry yet or its entry is older than
+ * {@code app.auth.profile-version-ttl}, which bounds how long a change made on another node (or before a
+ * restart) goes unnoticed. Accounts that no longer exist report -1.</p>
+ */
+@Component
+public class AccountProfileVersions {
+
+    private static final String STUDENT_VERSION = "SELECT profile_version FROM student WHERE id = ?";
+    private static final String ADMIN_VERSION = "SELECT profile_version FROM admin WHERE admin_id = ?";
+    // Below this many entries expired ones are simply refreshed on their next use
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private record Checked(long version, long checkedAtNanos) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlNanos;
+    private final Map<String, Checked> versions = new ConcurrentHashMap<>();
+    private volatile int nextSweep = SWEEP_THRESHOLD;
+
+    public AccountProfileVersions(JdbcTemplate jdbcTemplate,
+            @Value("${app.auth.profile-version-ttl:PT30S}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long current(String userType, Long userId) {
+        if (userId == null) {
+            return -1L;
+        }
+        String key = key(userType, userId);
+        long now = System.nanoTime();
+        Checked checked = versions.get(key);
+        if (checked != null && now - checked.checkedAtNanos() < ttlNanos) {
+            return checked.version();
+        }
+        String sql = isStudent(userType) ? STUDENT_VERSION : ADMIN_VERSION;
+        List<Long> rows = jdbcTemplate.queryForList(sql, Long.class, userId);
+        long version = rows.isEmpty() ? -1L : rows.get(0);
+        return remember(key, version, now);
+    }
+
+    public boolean isStale(ClasslinkUserDetails principal) {
+        return principal.getProfileVersion() != current(principal.getUserType(), principal.getUserId());
+    }
+
+    // After commit, so a concurrent reload never sees the new version paired with pre-commit data
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (event.userId() != null) {
+            remember(key(event.userType(), event.userId()), event.profileVersion(), System.nanoTime());
+        }
+    }
+
+    // Versions only grow while the account exists: a read that raced a commit must not undo its entry
+    private long remember(String key, long version, long now) {
+        Checked kept = versions.merge(key, new Checked(version, now),
+                (old, next) -> next.version() >= old.version() || next.version() < 0 ? next : old);
+        if (versions.size() > nextSweep) {
+            versions.values().removeIf(checked -> now - checked.checkedAtNanos() >= ttlNanos);
+            nextSweep = Math.max(SWEEP_THRESHOLD, versions.size() * 2);
+        }
+        return kept.version();
+    }
+
+    private static boolean isStudent(String userType) {
+        return "student".equalsIgnoreCase(userType);
+    }
+
+    private static String key(String userType, Long userId) {
+        return (isStudent(userType) ? "student:" : "admin:") + userId;
+    }
+}
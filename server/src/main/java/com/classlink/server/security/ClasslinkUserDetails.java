@@ -13,6 +13,9 @@ import com.classlink.server.model.StudentStatus;
 
 public class ClasslinkUserDetails implements UserDetails {
 
+    // Stored in JDBC sessions: bump when the serialized fields change incompatibly
+    private static final long serialVersionUID = 1L;
+
     private final Long userId;
     private final String username;
     private final String password;
@@ -22,11 +25,18 @@ public class ClasslinkUserDetails implements UserDetails {
     private final String email;
     private final String accountId;
     private final boolean enabled;
+    private final String firstName;
+    private final String lastName;
+    private final String name;
+    private final boolean mustChangePassword;
+    private final long profileVersion;
 
     private ClasslinkUserDetails(Long userId, String username, String password,
                                  Collection<? extends GrantedAuthority> authorities,
                                  String userType, StudentStatus studentStatus,
-                                 String email, String accountId, boolean enabled) {
+                                 String email, String accountId, boolean enabled,
+                                 String firstName, String lastName, String name,
+                                 boolean mustChangePassword, long profileVersion) {
         this.userId = userId;
         this.username = username;
         this.password = password;
@@ -36,9 +46,14 @@ public class ClasslinkUserDetails implements UserDetails {
         this.email = email;
         this.accountId = accountId;
         this.enabled = enabled;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.name = name;
+        this.mustChangePassword = mustChangePassword;
+        this.profileVersion = profileVersion;
     }
 
-    public static ClasslinkUserDetails forAdmin(Admin admin) {
+    public static ClasslinkUserDetails forAdmin(Admin admin, long profileVersion) {
         boolean active = admin.isActive();
         return new ClasslinkUserDetails(
             admin.getAdminId(),
@@ -49,11 +64,16 @@ public class ClasslinkUserDetails implements UserDetails {
             null,
             admin.getEmail(),
             null,
-            active
+            active,
+            null,
+            null,
+            admin.getName(),
+            false,
+            profileVersion
         );
     }
 
-    public static ClasslinkUserDetails forStudent(Student student, String usernameUsed) {
+    public static ClasslinkUserDetails forStudent(Student student, String usernameUsed, long profileVersion) {
         boolean active = student.getStatus() != StudentStatus.INACTIVE;
         String resolvedUsername = usernameUsed != null ? usernameUsed.trim() : "";
         String credential = student.getPassword();
@@ -67,7 +87,12 @@ public class ClasslinkUserDetails implements UserDetails {
             student.getStatus(),
             student.getEmail(),
             student.getAccountId(),
-            active
+            active,
+            student.getFirstName(),
+            student.getLastName(),
+            null,
+            student.isPasswordResetRequired(),
+            profileVersion
         );
     }
 
@@ -91,6 +116,26 @@ public class ClasslinkUserDetails implements UserDetails {
         return accountId;
     }
 
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isMustChangePassword() {
+        return mustChangePassword;
+    }
+
+    public long getProfileVersion() {
+        return profileVersion;
+    }
+
     public String getRole() {
         return authorities.stream()
             .findFirst()
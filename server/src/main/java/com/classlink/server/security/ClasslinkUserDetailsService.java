@@ -33,14 +33,15 @@ public class ClasslinkUserDetailsService implements UserDetailsService {
             if (!admin.isActive()) {
                 throw new RemovedAdminException(admin.getRemovedBy());
             }
-            return ClasslinkUserDetails.forAdmin(admin);
+            return ClasslinkUserDetails.forAdmin(admin, admin.getProfileVersion());
         }
         Student student = studentRepository.findByEmail(trimmed);
         if (student == null) {
             student = studentRepository.findByAccountId(trimmed);
         }
         if (student != null) {
-            ClasslinkUserDetails details = ClasslinkUserDetails.forStudent(student, trimmed);
+            ClasslinkUserDetails details = ClasslinkUserDetails.forStudent(student, trimmed,
+                student.getProfileVersion());
             if (!details.isEnabled()) {
                 throw new DisabledException("Student account inactive");
             }
@@ -48,4 +49,23 @@ public class ClasslinkUserDetailsService implements UserDetailsService {
         }
         throw new UsernameNotFoundException("User not found");
     }
+
+    /**
+     * Rebuilds a principal from the current database state, keeping the username the session signed in with.
+     * Returns {@code null} when the account no longer exists or has been deactivated.
+     */
+    public ClasslinkUserDetails reload(ClasslinkUserDetails current) {
+        // The version comes from the same row as the fields, so the two always match
+        ClasslinkUserDetails refreshed;
+        if (current.isStudent()) {
+            refreshed = studentRepository.findById(current.getUserId())
+                .map(student -> ClasslinkUserDetails.forStudent(student, current.getUsername(), student.getProfileVersion()))
+                .orElse(null);
+        } else {
+            refreshed = adminRepository.findById(current.getUserId())
+                .map(admin -> ClasslinkUserDetails.forAdmin(admin, admin.getProfileVersion()))
+                .orElse(null);
+        }
+        return refreshed != null && refreshed.isEnabled() ? refreshed : null;
+    }
 }
@@ -29,8 +29,13 @@ public class SecurityConfig {
             .authorizeHttpRequests(registry -> registry
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                // Requirement documents are personal; FileController also checks who owns them
+                .requestMatchers("/static/requirements/**").authenticated()
                 .requestMatchers("/", "/index.html", "/static/**").permitAll()
                 .requestMatchers("/api/departments/**", "/api/programs/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/calendar/feed.ics").permitAll()
+                // Profile images are public; FileController checks access to requirement documents itself
+                .requestMatchers(HttpMethod.GET, "/api/files/**").permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/students/**").hasAnyRole("STUDENT", "ADMIN")
                 .requestMatchers("/api/**").authenticated()
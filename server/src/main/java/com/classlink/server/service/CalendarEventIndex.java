@@ -0,0 +1,129 @@
+package com.classlink.server.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.classlink.server.dto.CalendarOccurrence;
+import com.classlink.server.event.CalendarChangedEvent;
+import com.classlink.server.model.Calendar;
+import com.classlink.server.repository.CalendarEventRepository;
+
+/**
+ * Answers calendar range queries. Events and recurring series that reach the day the cache was built (or
+ * later) are held in an {@link IntervalTree}, so month views of the current and coming terms never touch
+ * the database; windows that reach further back fall through to the indexed overlap query. Recurring
+ * series are expanded into occurrences only for the requested window, and expanded windows are kept in a
+ * small LRU map. Everything is rebuilt after a calendar write.
+ */
+@Service
+public class CalendarEventIndex {
+
+    private static final Comparator<CalendarOccurrence> OCCURRENCE_ORDER = Comparator
+            .comparing(CalendarOccurrence::startDate)
+            .thenComparing(CalendarOccurrence::id, Comparator.nullsLast(Long::compareTo));
+
+    private record Upcoming(LocalDate floor, IntervalTree<LocalDate, Calendar> tree) {
+    }
+
+    private record RangeKey(LocalDate from, LocalDate to, String type) {
+    }
+
+    private final CalendarEventRepository calendarEventRepository;
+    private final Clock clock;
+    private final int maxCachedRanges;
+    private final LinkedHashMap<RangeKey, List<CalendarOccurrence>> ranges = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile Upcoming upcoming;
+    private long generation;
+
+    public CalendarEventIndex(CalendarEventRepository calendarEventRepository,
+            @Value("${app.calendar.range-cache.max-entries:128}") int maxCachedRanges) {
+        this.calendarEventRepository = calendarEventRepository;
+        this.clock = Clock.systemDefaultZone();
+        this.maxCachedRanges = maxCachedRanges;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        upcoming();
+    }
+
+    /** Occurrences overlapping {@code [from, to]}, optionally limited to one {@code type}, ordered by start date. */
+    public List<CalendarOccurrence> findOverlapping(LocalDate from, LocalDate to, String type) {
+        RangeKey key = new RangeKey(from, to, type == null || type.isBlank() ? null : type.trim().toLowerCase(Locale.ROOT));
+        long expectedGeneration;
+        synchronized (this) {
+            List<CalendarOccurrence> cached = ranges.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            expectedGeneration = generation;
+        }
+
+        Upcoming current = upcoming();
+        List<Calendar> events = !from.isBefore(current.floor())
+                ? current.tree().overlapping(from, to)
+                : calendarEventRepository.findOverlapping(from, to);
+        List<CalendarOccurrence> occurrences = new ArrayList<>();
+        for (Calendar event : events) {
+            if (key.type() != null && (event.getType() == null || !key.type().equalsIgnoreCase(event.getType()))) {
+                continue;
+            }
+            occurrences.addAll(CalendarSeries.occurrences(event, from, to));
+        }
+        occurrences.sort(OCCURRENCE_ORDER);
+        List<CalendarOccurrence> result = List.copyOf(occurrences);
+
+        synchronized (this) {
+            if (generation == expectedGeneration) {
+                ranges.put(key, result);
+                if (ranges.size() > maxCachedRanges) {
+                    Iterator<RangeKey> eldest = ranges.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCalendarChanged(CalendarChangedEvent event) {
+        synchronized (this) {
+            generation++;
+            upcoming = null;
+            ranges.clear();
+        }
+    }
+
+    private Upcoming upcoming() {
+        Upcoming current = upcoming;
+        if (current != null && !current.floor().isAfter(LocalDate.now(clock))) {
+            return current;
+        }
+        long expectedGeneration;
+        synchronized (this) {
+            expectedGeneration = generation;
+        }
+        LocalDate floor = LocalDate.now(clock);
+        List<Calendar> events = calendarEventRepository.findEndingOnOrAfter(floor);
+        Upcoming built = new Upcoming(floor, new IntervalTree<>(events, Calendar::getStartDate, CalendarSeries::lastDay));
+        synchronized (this) {
+            if (generation == expectedGeneration) {
+                upcoming = built;
+            }
+        }
+        return built;
+    }
+}
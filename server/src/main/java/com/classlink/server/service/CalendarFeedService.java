@@ -0,0 +1,198 @@
+package com.classlink.server.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.classlink.server.event.CalendarChangedEvent;
+import com.classlink.server.model.Calendar;
+import com.classlink.server.repository.CalendarEventRepository;
+
+/**
+ * Renders the academic calendar as an iCalendar (RFC 5545) feed. Rendered feeds are kept as bytes per
+ * type filter and reused until a calendar write bumps the version, so polling calendar clients cost a map
+ * lookup and usually end in a 304. Only types that have events get an entry of their own: the feed is
+ * public and the type comes from the query string, so every other filter shares the one empty feed.
+ */
+@Service
+public class CalendarFeedService {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final String ALL_TYPES = "";
+    // Cache key for a filter that matches no event; cannot collide with a trimmed type
+    private static final String NO_EVENTS = " ";
+    private static final int MAX_LINE_OCTETS = 75;
+
+    public record Feed(byte[] body, String etag, Instant lastModified) {
+    }
+
+    private record CachedFeed(long version, Feed feed) {
+    }
+
+    private final CalendarEventRepository calendarEventRepository;
+    private final Map<String, CachedFeed> feeds = new ConcurrentHashMap<>();
+    private long version;
+    private Instant lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public CalendarFeedService(CalendarEventRepository calendarEventRepository) {
+        this.calendarEventRepository = calendarEventRepository;
+    }
+
+    public Feed feed(String type) {
+        String key = type == null || type.isBlank() ? ALL_TYPES : type.trim().toLowerCase(Locale.ROOT);
+        long currentVersion;
+        Instant modified;
+        synchronized (this) {
+            currentVersion = version;
+            modified = lastModified;
+        }
+        CachedFeed cached = feeds.get(key);
+        if (cached != null && cached.version() == currentVersion) {
+            return cached.feed();
+        }
+        List<Calendar> events = key.isEmpty()
+                ? calendarEventRepository.findAllByOrderByStartDateAsc()
+                : calendarEventRepository.findAllByTypeIgnoreCaseOrderByStartDateAsc(key);
+        if (events.isEmpty() && !key.isEmpty()) {
+            // Unknown types all render the same empty calendar; keying them separately would let any
+            // caller grow the cache without bound
+            key = NO_EVENTS;
+            cached = feeds.get(key);
+            if (cached != null && cached.version() == currentVersion) {
+                return cached.feed();
+            }
+        }
+        byte[] body = render(events, modified);
+        Feed feed = new Feed(body, etag(body), modified);
+        synchronized (this) {
+            // Only keep it if no write happened while rendering
+            if (version == currentVersion) {
+                feeds.put(key, new CachedFeed(currentVersion, feed));
+            }
+        }
+        return feed;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCalendarChanged(CalendarChangedEvent event) {
+        synchronized (this) {
+            version++;
+            Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            // Last-Modified has one-second resolution; keep it strictly increasing across writes
+            lastModified = now.isAfter(lastModified) ? now : lastModified.plusSeconds(1);
+            feeds.clear();
+        }
+    }
+
+    private byte[] render(List<Calendar> events, Instant stamp) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + events.size() * 256);
+        line(out, "BEGIN:VCALENDAR");
+        line(out, "VERSION:2.0");
+        line(out, "PRODID:-//ClassLink//Academic Calendar//EN");
+        line(out, "CALSCALE:GREGORIAN");
+        line(out, "METHOD:PUBLISH");
+        line(out, "X-WR-CALNAME:ClassLink Academic Calendar");
+        String dtStamp = STAMP.format(stamp);
+        for (Calendar event : events) {
+            if (event.getStartDate() == null) {
+                continue;
+            }
+            LocalDate end = event.getEndDate() != null && !event.getEndDate().isBefore(event.getStartDate())
+                    ? event.getEndDate() : event.getStartDate();
+            line(out, "BEGIN:VEVENT");
+            line(out, "UID:calendar-" + event.getId() + "@classlink");
+            line(out, "DTSTAMP:" + dtStamp);
+            line(out, "DTSTART;VALUE=DATE:" + DATE.format(event.getStartDate()));
+            // All-day events: DTEND is exclusive
+            line(out, "DTEND;VALUE=DATE:" + DATE.format(end.plusDays(1)));
+            if (CalendarSeries.isRecurring(event)) {
+                // Calendar clients expand the series themselves
+                line(out, "RRULE:" + event.getRecurrenceRule());
+                Set<LocalDate> exceptions = CalendarSeries.exceptions(event);
+                if (!exceptions.isEmpty()) {
+                    StringJoiner dates = new StringJoiner(",");
+                    for (LocalDate date : exceptions) dates.add(DATE.format(date));
+                    line(out, "EXDATE;VALUE=DATE:" + dates);
+                }
+            }
+            line(out, "SUMMARY:" + escape(event.getTitle()));
+            if (event.getDescription() != null && !event.getDescription().isBlank()) {
+                line(out, "DESCRIPTION:" + escape(event.getDescription()));
+            }
+            if (event.getType() != null && !event.getType().isBlank()) {
+                line(out, "CATEGORIES:" + escape(event.getType()));
+            }
+            line(out, "TRANSP:TRANSPARENT");
+            line(out, "END:VEVENT");
+        }
+        line(out, "END:VCALENDAR");
+        return out.toByteArray();
+    }
+
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case ';' -> sb.append("\\;");
+                case ',' -> sb.append("\\,");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> { }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Content lines are folded at 75 octets without splitting a UTF-8 sequence; continuations start with a space
+    static void line(ByteArrayOutputStream out, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        int pos = 0;
+        int limit = MAX_LINE_OCTETS;
+        while (bytes.length - pos > limit) {
+            int cut = pos + limit;
+            while (cut > pos && (bytes[cut] & 0xC0) == 0x80) {
+                cut--;
+            }
+            out.write(bytes, pos, cut - pos);
+            out.write('\r');
+            out.write('\n');
+            out.write(' ');
+            pos = cut;
+            limit = MAX_LINE_OCTETS - 1;
+        }
+        out.write(bytes, pos, bytes.length - pos);
+        out.write('\r');
+        out.write('\n');
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.classlink.server.service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.classlink.server.dto.CalendarOccurrence;
+import com.classlink.server.event.CalendarChangedEvent;
+import com.classlink.server.model.Calendar;
+import com.classlink.server.repository.CalendarEventRepository;
+
+/**
+ * Sends "coming up" reminders ahead of calendar events, by default 7 days and 1 day before each
+ * occurrence. Reminders are planned into the {@code calendar_reminder} due index for occurrences inside a
+ * rolling horizon and kept in an in-memory {@link TimingWheel} that is ticked once a minute, so
+ * scheduling and expiry are O(1) per reminder however many are pending. On startup the wheel is reloaded
+ * from the unfired rows. Due reminders are claimed and fanned out in batches, each batch in one
+ * transaction together with its {@code fired_at} checkpoint, so a restart neither loses nor repeats a batch.
+ */
+@Service
+public class CalendarReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarReminderScheduler.class);
+
+    private static final String INSERT_REMINDER =
+            "INSERT IGNORE INTO calendar_reminder (event_id, occurrence_date, offset_days, due_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_PENDING =
+            "SELECT id, due_at FROM calendar_reminder WHERE fired_at IS NULL AND due_at < ?";
+    private static final String CLAIM_PENDING =
+            "SELECT id, event_id, occurrence_date FROM calendar_reminder WHERE fired_at IS NULL AND id IN (%s) FOR UPDATE";
+    private static final String MARK_FIRED =
+            "UPDATE calendar_reminder SET fired_at = ? WHERE id IN (%s)";
+    private static final String DELETE_PENDING_FOR_EVENT =
+            "DELETE FROM calendar_reminder WHERE event_id = ? AND fired_at IS NULL";
+
+    private record Claimed(Long id, Long eventId, LocalDate occurrenceDate) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CalendarEventRepository calendarEventRepository;
+    private final NotificationService notificationService;
+    private final Clock clock;
+    private final List<Integer> offsetDays;
+    private final LocalTime sendTime;
+    private final int horizonDays;
+    private final int batchSize;
+
+    private final TimingWheel<Long> wheel;
+    // Reminder ids currently in the wheel, so reloads do not schedule a row twice
+    private final Set<Long> scheduled = new HashSet<>();
+
+    public CalendarReminderScheduler(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            CalendarEventRepository calendarEventRepository, NotificationService notificationService,
+            @Value("${app.calendar.reminders.offset-days:7,1}") List<Integer> offsetDays,
+            @Value("${app.calendar.reminders.send-time:08:00}") String sendTime,
+            @Value("${app.calendar.reminders.horizon-days:14}") int horizonDays,
+            @Value("${app.calendar.reminders.batch-size:50}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.calendarEventRepository = calendarEventRepository;
+        this.notificationService = notificationService;
+        this.clock = Clock.systemDefaultZone();
+        this.offsetDays = List.copyOf(new TreeSet<>(offsetDays));
+        this.sendTime = LocalTime.parse(sendTime);
+        this.horizonDays = Math.max(1, horizonDays);
+        this.batchSize = Math.max(1, batchSize);
+        this.wheel = new TimingWheel<>(60_000L, clock.millis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int planned = planUpcoming();
+        int loaded = loadPending();
+        log.info("Calendar reminders ready: {} planned, {} pending in the wheel", planned, loaded);
+    }
+
+    /** Rolls the planning horizon forward; occurrences of open-ended series enter the due index here. */
+    @Scheduled(cron = "${app.calendar.reminders.plan-cron:0 5 0 * * *}")
+    public void rollHorizon() {
+        planUpcoming();
+        loadPending();
+    }
+
+    @Scheduled(fixedDelayString = "${app.calendar.reminders.tick-ms:60000}")
+    public void tick() {
+        List<Long> due;
+        synchronized (this) {
+            due = wheel.advanceTo(clock.millis());
+            due.forEach(scheduled::remove);
+        }
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            try {
+                fire(batch);
+            } catch (RuntimeException ex) {
+                // The batch rolled back and its rows are still unfired; retry it on the next tick
+                log.error("Failed to send {} calendar reminders", batch.size(), ex);
+                synchronized (this) {
+                    for (Long id : batch) {
+                        if (scheduled.add(id)) {
+                            wheel.schedule(clock.millis(), id);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCalendarChanged(CalendarChangedEvent event) {
+        if (event.eventId() == null) {
+            return;
+        }
+        if (event.removed()) {
+            // Wheel entries of the deleted rows are skipped when they fail to claim
+            jdbcTemplate.update(DELETE_PENDING_FOR_EVENT, event.eventId());
+            return;
+        }
+        calendarEventRepository.findById(event.eventId()).ifPresent(calendar -> {
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<Object[]> rows = new ArrayList<>();
+            plan(calendar, now, horizonEnd(now), rows);
+            insert(rows);
+            loadPending();
+        });
+    }
+
+    private int planUpcoming() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime horizonEnd = horizonEnd(now);
+        LocalDate today = now.toLocalDate();
+        LocalDate lastOccurrence = horizonEnd.toLocalDate().plusDays(maxOffset());
+        List<Object[]> rows = new ArrayList<>();
+        for (Calendar calendar : calendarEventRepository.findOverlapping(today, lastOccurrence)) {
+            plan(calendar, now, horizonEnd, rows);
+        }
+        return insert(rows);
+    }
+
+    // Reminders due in [now, horizonEnd) for occurrences that have not started yet
+    private void plan(Calendar calendar, LocalDateTime now, LocalDateTime horizonEnd, List<Object[]> rows) {
+        if (calendar.getStartDate() == null) {
+            return;
+        }
+        LocalDate today = now.toLocalDate();
+        LocalDate lastOccurrence = horizonEnd.toLocalDate().plusDays(maxOffset());
+        for (CalendarOccurrence occurrence : CalendarSeries.occurrences(calendar, today, lastOccurrence)) {
+            if (occurrence.startDate().isBefore(today)) {
+                continue;
+            }
+            for (int offset : offsetDays) {
+                LocalDateTime dueAt = occurrence.startDate().minusDays(offset).atTime(sendTime);
+                if (!dueAt.isBefore(now) && dueAt.isBefore(horizonEnd)) {
+                    rows.add(new Object[] { calendar.getId(), occurrence.startDate(), offset, Timestamp.valueOf(dueAt) });
+                }
+            }
+        }
+    }
+
+    private int insert(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int inserted = 0;
+        for (int[] counts : jdbcTemplate.batchUpdate(INSERT_REMINDER, rows, 500,
+                (ps, row) -> {
+                    ps.setLong(1, (Long) row[0]);
+                    ps.setObject(2, row[1]);
+                    ps.setInt(3, (Integer) row[2]);
+                    ps.setTimestamp(4, (Timestamp) row[3]);
+                })) {
+            for (int count : counts) {
+                // Batched statements may only report SUCCESS_NO_INFO
+                inserted += count > 0 ? count : 0;
+            }
+        }
+        return inserted;
+    }
+
+    // Unfired rows due before the horizon, including ones missed while the server was down
+    private int loadPending() {
+        Timestamp horizonEnd = Timestamp.valueOf(horizonEnd(LocalDateTime.now(clock)));
+        List<long[]> rows = jdbcTemplate.query(SELECT_PENDING,
+                (rs, i) -> new long[] { rs.getLong(1), rs.getTimestamp(2).getTime() }, horizonEnd);
+        int added = 0;
+        synchronized (this) {
+            for (long[] row : rows) {
+                if (scheduled.add(row[0])) {
+                    wheel.schedule(row[1], row[0]);
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    private void fire(List<Long> ids) {
+        LocalDate today = LocalDate.now(clock);
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Claimed> claimed = jdbcTemplate.query(String.format(CLAIM_PENDING, placeholders),
+                    (rs, i) -> new Claimed(rs.getLong(1), rs.getLong(2), rs.getDate(3).toLocalDate()), ids.toArray());
+            if (claimed.isEmpty()) {
+                return;
+            }
+            Map<Long, Calendar> events = new HashMap<>();
+            for (Calendar calendar : calendarEventRepository.findAllById(claimed.stream().map(Claimed::eventId).distinct().toList())) {
+                events.put(calendar.getId(), calendar);
+            }
+            List<CalendarOccurrence> upcoming = new ArrayList<>(claimed.size());
+            for (Claimed reminder : claimed) {
+                Calendar calendar = events.get(reminder.eventId());
+                // Occurrences that already started (e.g. after a long outage) are checkpointed without sending
+                if (calendar == null || reminder.occurrenceDate().isBefore(today)) {
+                    continue;
+                }
+                long duration = CalendarSeries.durationDays(calendar);
+                upcoming.add(new CalendarOccurrence(calendar.getId(), calendar.getTitle(), reminder.occurrenceDate(),
+                        reminder.occurrenceDate().plusDays(duration), calendar.getType(), calendar.getDescription(),
+                        CalendarSeries.isRecurring(calendar), calendar.getRecurrenceRule()));
+            }
+            notificationService.notifyCalendarReminders(upcoming, today);
+            List<Object> args = new ArrayList<>(claimed.size() + 1);
+            args.add(Timestamp.valueOf(LocalDateTime.now(clock)));
+            claimed.forEach(reminder -> args.add(reminder.id()));
+            jdbcTemplate.update(String.format(MARK_FIRED, String.join(",", Collections.nCopies(claimed.size(), "?"))), args.toArray());
+            log.debug("Sent {} calendar reminders", upcoming.size());
+        });
+    }
+
+    private LocalDateTime horizonEnd(LocalDateTime now) {
+        return now.plusDays(horizonDays);
+    }
+
+    private int maxOffset() {
+        return offsetDays.isEmpty() ? 0 : offsetDays.get(offsetDays.size() - 1);
+    }
+}
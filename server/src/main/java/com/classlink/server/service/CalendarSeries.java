@@ -0,0 +1,129 @@
+package com.classlink.server.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.classlink.server.dto.CalendarOccurrence;
+import com.classlink.server.model.Calendar;
+
+/**
+ * Recurrence helpers for {@link Calendar} rows: validation and normalisation on write, and expansion of
+ * a row into the occurrences that fall inside a date window on read.
+ */
+public final class CalendarSeries {
+
+    private static final int MAX_EXCEPTIONS = 150;
+
+    private CalendarSeries() {
+    }
+
+    public static boolean isRecurring(Calendar event) {
+        return event.getRecurrenceRule() != null && !event.getRecurrenceRule().isBlank();
+    }
+
+    /**
+     * Rewrites the rule and exception list in canonical form and derives {@code recurrenceUntil}.
+     *
+     * @throws IllegalArgumentException when the rule or an exception date is invalid
+     */
+    public static void normalize(Calendar event) {
+        if (!isRecurring(event)) {
+            event.setRecurrenceRule(null);
+            event.setRecurrenceExceptions(null);
+            event.setRecurrenceUntil(null);
+            return;
+        }
+        RecurrenceRule rule = RecurrenceRule.parse(event.getRecurrenceRule());
+        Set<LocalDate> exceptions = parseExceptions(event.getRecurrenceExceptions());
+        event.setRecurrenceRule(rule.toString());
+        event.setRecurrenceExceptions(exceptions.isEmpty() ? null : joinDates(exceptions));
+        LocalDate lastStart = rule.lastStart(event.getStartDate(), exceptions);
+        event.setRecurrenceUntil(lastStart == null ? null : lastStart.plusDays(durationDays(event)));
+    }
+
+    public static Set<LocalDate> exceptions(Calendar event) {
+        try {
+            return parseExceptions(event.getRecurrenceExceptions());
+        } catch (IllegalArgumentException ex) {
+            return Set.of();
+        }
+    }
+
+    /** Last day covered by the event or series; {@link LocalDate#MAX} for open-ended series. */
+    public static LocalDate lastDay(Calendar event) {
+        if (isRecurring(event)) {
+            return event.getRecurrenceUntil() != null ? event.getRecurrenceUntil() : LocalDate.MAX;
+        }
+        return event.getEndDate() != null ? event.getEndDate() : event.getStartDate();
+    }
+
+    /** Occurrences of {@code event} overlapping {@code [from, to]}. */
+    public static List<CalendarOccurrence> occurrences(Calendar event, LocalDate from, LocalDate to) {
+        long duration = durationDays(event);
+        if (!isRecurring(event)) {
+            LocalDate end = event.getStartDate().plusDays(duration);
+            if (event.getStartDate().isAfter(to) || end.isBefore(from)) {
+                return List.of();
+            }
+            return List.of(toOccurrence(event, event.getStartDate(), end, false));
+        }
+        RecurrenceRule rule;
+        try {
+            rule = RecurrenceRule.parse(event.getRecurrenceRule());
+        } catch (IllegalArgumentException ex) {
+            // A rule that no longer parses degrades to its first occurrence
+            return event.getStartDate().isAfter(to) || event.getStartDate().plusDays(duration).isBefore(from)
+                    ? List.of() : List.of(toOccurrence(event, event.getStartDate(), event.getStartDate().plusDays(duration), false));
+        }
+        List<CalendarOccurrence> result = new ArrayList<>();
+        for (LocalDate start : rule.startsBetween(event.getStartDate(), duration, from, to, exceptions(event))) {
+            result.add(toOccurrence(event, start, start.plusDays(duration), true));
+        }
+        return result;
+    }
+
+    public static long durationDays(Calendar event) {
+        if (event.getEndDate() == null || event.getEndDate().isBefore(event.getStartDate())) {
+            return 0;
+        }
+        return ChronoUnit.DAYS.between(event.getStartDate(), event.getEndDate());
+    }
+
+    private static CalendarOccurrence toOccurrence(Calendar event, LocalDate start, LocalDate end, boolean recurring) {
+        return new CalendarOccurrence(event.getId(), event.getTitle(), start, end, event.getType(),
+                event.getDescription(), recurring, recurring ? event.getRecurrenceRule() : null);
+    }
+
+    private static Set<LocalDate> parseExceptions(String text) {
+        Set<LocalDate> dates = new TreeSet<>();
+        if (text == null || text.isBlank()) {
+            return dates;
+        }
+        for (String part : text.split(",")) {
+            if (part.isBlank()) continue;
+            try {
+                dates.add(LocalDate.parse(part.trim()));
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid exception date: " + part.trim());
+            }
+        }
+        if (dates.size() > MAX_EXCEPTIONS) {
+            throw new IllegalArgumentException("At most " + MAX_EXCEPTIONS + " exception dates are supported");
+        }
+        return dates;
+    }
+
+    private static String joinDates(Set<LocalDate> dates) {
+        StringBuilder sb = new StringBuilder();
+        for (LocalDate date : dates) {
+            if (!sb.isEmpty()) sb.append(',');
+            sb.append(date);
+        }
+        return sb.toString();
+    }
+}
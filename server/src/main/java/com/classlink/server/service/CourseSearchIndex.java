@@ -0,0 +1,318 @@
+package com.classlink.server.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.classlink.server.event.CurriculumChangedEvent;
+
+/**
+ * In-process course search. Subject codes and their equivalents live in a prefix trie keyed by the
+ * normalised code ("IT 111" and "it111" are the same key); descriptions are tokenised into a sorted
+ * inverted index so the last word of a query can also match as a prefix. The index is built once at
+ * startup and then patched per program whenever that program's curriculum changes.
+ */
+@Service
+public class CourseSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseSearchIndex.class);
+
+    private static final String SELECT_ALL =
+            "SELECT id, program_id, curriculum_version_id, subject_code, equiv_subject_code, description, units, year, semester, term_title FROM course";
+    private static final String SELECT_PROGRAM = SELECT_ALL + " WHERE program_id = ?";
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "for", "in", "of", "on", "the", "to", "with");
+
+    private static final int EXACT_CODE = 100;
+    private static final int EXACT_EQUIV = 80;
+    private static final int PREFIX_CODE = 60;
+    private static final int PREFIX_EQUIV = 40;
+    private static final int ALL_TERMS = 20;
+    private static final int EXACT_TERM = 10;
+    private static final int PREFIX_TERM = 5;
+
+    public record Hit(Long id, String subjectCode, String description, Integer units, Integer year, String semester,
+            Long programId, Long curriculumId, int score) {
+    }
+
+    public record SearchPage(String query, int page, int size, int total, List<Hit> results) {
+    }
+
+    private record Doc(Long id, Long programId, Long curriculumId, String subjectCode, String equivSubjectCode,
+            String description, Integer units, Integer year, String semester) {
+    }
+
+    private static final class TrieNode {
+        final Map<Character, TrieNode> children = new HashMap<>(4);
+        final Set<Long> codeDocs = new HashSet<>(2);
+        final Set<Long> equivDocs = new HashSet<>(2);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final Map<Long, Set<Long>> docsByProgram = new HashMap<>();
+    private final TrieNode codeTrie = new TrieNode();
+    private final TreeMap<String, Set<Long>> tokens = new TreeMap<>();
+    // Bumped under the write lock for every curriculum change; the last stamp per program decides which reload applies
+    private final Map<Long, Long> programGenerations = new HashMap<>();
+    private long generation;
+    private volatile boolean built;
+
+    public CourseSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Loads every course; runs once, whether from startup or from the first search that gets there before it.
+     * Programs that changed while the snapshot was loading are reloaded afterwards.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        if (built) {
+            return;
+        }
+        long startGeneration;
+        lock.readLock().lock();
+        try {
+            startGeneration = generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Doc> all = jdbcTemplate.query(SELECT_ALL, (rs, i) -> toDoc(rs));
+        Map<Long, Long> changedSince = new HashMap<>();
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            docsByProgram.clear();
+            codeTrie.children.clear();
+            tokens.clear();
+            all.forEach(this::add);
+            built = true;
+            programGenerations.forEach((programId, stamp) -> {
+                if (stamp > startGeneration) changedSince.put(programId, stamp);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changedSince.forEach(this::reload);
+        log.info("Course search index built with {} courses", all.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        if (event.programId() == null) {
+            return;
+        }
+        long stamp;
+        lock.writeLock().lock();
+        try {
+            stamp = ++generation;
+            programGenerations.put(event.programId(), stamp);
+            if (!built) {
+                return; // the first build reads it, or reloads it if its snapshot is older
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        reload(event.programId(), stamp);
+    }
+
+    // Replaces one program's courses, unless a later change of that program has already been recorded
+    private void reload(Long programId, long stamp) {
+        List<Doc> fresh = jdbcTemplate.query(SELECT_PROGRAM, (rs, i) -> toDoc(rs), programId);
+        lock.writeLock().lock();
+        try {
+            if (programGenerations.getOrDefault(programId, 0L) != stamp) {
+                return;
+            }
+            Set<Long> previous = docsByProgram.remove(programId);
+            if (previous != null) {
+                for (Long id : previous) remove(docs.remove(id));
+            }
+            fresh.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchPage search(String query, int page, int size) {
+        if (!built) {
+            build();
+        }
+        String q = query == null ? "" : query.trim();
+        if (q.isEmpty()) {
+            return new SearchPage(q, page, size, 0, List.of());
+        }
+        String code = PrerequisiteGraph.normalizeCode(q);
+        List<String> terms = tokenize(q);
+
+        Map<Long, Integer> scores = new HashMap<>();
+        List<Hit> hits;
+        lock.readLock().lock();
+        try {
+            if (code != null) {
+                TrieNode node = find(code);
+                if (node != null) {
+                    scoreCodes(node, 0, scores);
+                }
+            }
+            if (!terms.isEmpty()) {
+                scoreTerms(terms, scores);
+            }
+            hits = new ArrayList<>(scores.size());
+            for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                Doc doc = docs.get(entry.getKey());
+                if (doc != null) {
+                    hits.add(new Hit(doc.id(), doc.subjectCode(), doc.description(), doc.units(), doc.year(),
+                            doc.semester(), doc.programId(), doc.curriculumId(), entry.getValue()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingInt(Hit::score).reversed()
+                .thenComparing(Hit::subjectCode, Comparator.nullsLast(String::compareTo))
+                .thenComparing(Hit::id));
+        // long product: a huge page number must land past the end, not wrap to a negative offset
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        return new SearchPage(q, page, size, hits.size(), List.copyOf(hits.subList(from, to)));
+    }
+
+    // Walks the subtree under the query prefix; shorter completions of the prefix rank slightly higher
+    private void scoreCodes(TrieNode node, int depth, Map<Long, Integer> scores) {
+        boolean exact = depth == 0;
+        int closeness = Math.max(0, 10 - depth);
+        for (Long id : node.codeDocs) {
+            scores.merge(id, exact ? EXACT_CODE : PREFIX_CODE + closeness, Math::max);
+        }
+        for (Long id : node.equivDocs) {
+            scores.merge(id, exact ? EXACT_EQUIV : PREFIX_EQUIV + closeness, Math::max);
+        }
+        for (TrieNode child : node.children.values()) {
+            scoreCodes(child, depth + 1, scores);
+        }
+    }
+
+    private void scoreTerms(List<String> terms, Map<Long, Integer> scores) {
+        Map<Long, Integer> termScores = new HashMap<>();
+        Map<Long, Integer> matchedTerms = new HashMap<>();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean last = i == terms.size() - 1;
+            Set<Long> matched = new HashSet<>();
+            Set<Long> exact = tokens.get(term);
+            if (exact != null) {
+                for (Long id : exact) {
+                    termScores.merge(id, EXACT_TERM, Integer::sum);
+                    matched.add(id);
+                }
+            }
+            if (last) {
+                // The word being typed may be incomplete
+                for (Set<Long> ids : tokens.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                    for (Long id : ids) {
+                        if (matched.add(id)) termScores.merge(id, PREFIX_TERM, Integer::sum);
+                    }
+                }
+            }
+            for (Long id : matched) matchedTerms.merge(id, 1, Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : termScores.entrySet()) {
+            int score = entry.getValue();
+            if (matchedTerms.getOrDefault(entry.getKey(), 0) == terms.size()) {
+                score += ALL_TERMS;
+            }
+            scores.merge(entry.getKey(), score, Integer::sum);
+        }
+    }
+
+    private void add(Doc doc) {
+        docs.put(doc.id(), doc);
+        if (doc.programId() != null) {
+            docsByProgram.computeIfAbsent(doc.programId(), k -> new HashSet<>()).add(doc.id());
+        }
+        String code = PrerequisiteGraph.normalizeCode(doc.subjectCode());
+        if (code != null) insert(code).codeDocs.add(doc.id());
+        for (String equiv : PrerequisiteGraph.parseCodes(doc.equivSubjectCode())) {
+            insert(equiv).equivDocs.add(doc.id());
+        }
+        for (String token : tokenize(doc.description())) {
+            tokens.computeIfAbsent(token, k -> new HashSet<>()).add(doc.id());
+        }
+    }
+
+    private void remove(Doc doc) {
+        if (doc == null) {
+            return;
+        }
+        String code = PrerequisiteGraph.normalizeCode(doc.subjectCode());
+        TrieNode node = code == null ? null : find(code);
+        if (node != null) node.codeDocs.remove(doc.id());
+        for (String equiv : PrerequisiteGraph.parseCodes(doc.equivSubjectCode())) {
+            TrieNode equivNode = find(equiv);
+            if (equivNode != null) equivNode.equivDocs.remove(doc.id());
+        }
+        for (String token : tokenize(doc.description())) {
+            Set<Long> ids = tokens.get(token);
+            if (ids != null && ids.remove(doc.id()) && ids.isEmpty()) {
+                tokens.remove(token);
+            }
+        }
+    }
+
+    private TrieNode insert(String key) {
+        TrieNode node = codeTrie;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new TrieNode());
+        }
+        return node;
+    }
+
+    private TrieNode find(String key) {
+        TrieNode node = codeTrie;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Collection<String> result = new LinkedHashSet<>();
+        for (String raw : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (raw.length() >= 2 && !STOP_WORDS.contains(raw)) {
+                result.add(raw);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static Doc toDoc(java.sql.ResultSet rs) throws java.sql.SQLException {
+        String semester = CurriculumLabels.resolveTermLabel(rs.getString("semester"), rs.getString("term_title"));
+        return new Doc(rs.getLong("id"), rs.getObject("program_id", Long.class), rs.getObject("curriculum_version_id", Long.class),
+                rs.getString("subject_code"), rs.getString("equiv_subject_code"), rs.getString("description"),
+                rs.getObject("units", Integer.class), rs.getObject("year", Integer.class), semester);
+    }
+}
@@ -0,0 +1,128 @@
+package com.classlink.server.service;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.classlink.server.model.Program;
+import com.classlink.server.repository.ProgramRepository;
+
+/**
+ * Clones a program together with a fresh curriculum version and a copy of every course, using
+ * set-based {@code INSERT ... SELECT} statements so the cost is a fixed number of statements no matter
+ * how large the source curriculum is. All course fields are copied as stored.
+ *
+ * <p>When the client sends a clone key, the first request carrying it records the source and the resulting
+ * program, and any retry with the same key returns that program instead of cloning again. A key belongs
+ * to the source it was first used with; reusing it for another source is a client error.</p>
+ */
+@Service
+public class CurriculumCloneService {
+
+    private static final Logger log = LoggerFactory.getLogger(CurriculumCloneService.class);
+    public static final int MAX_CLONE_KEY_LENGTH = 100;
+
+    private static final String FIND_BY_KEY =
+            "SELECT source_program_id, program_id FROM curriculum_clone_request WHERE clone_key = ?";
+    private static final String RESERVE_KEY =
+            "INSERT INTO curriculum_clone_request (clone_key, source_program_id) VALUES (?, ?)";
+    private static final String COMPLETE_KEY =
+            "UPDATE curriculum_clone_request SET program_id = ? WHERE clone_key = ?";
+    private static final String COPY_PROGRAM =
+            "INSERT INTO program (name, name_key, duration_in_years, department_id) "
+            + "SELECT ?, ?, duration_in_years, department_id FROM program WHERE id = ?";
+    private static final String COPY_VERSION =
+            "INSERT INTO curriculum (program_id, version_name, effectivity_year, duration_in_years) "
+            + "SELECT ?, ?, ?, duration_in_years FROM program WHERE id = ?";
+    private static final String COPY_COURSES =
+            "INSERT INTO course (subject_code, description, equiv_subject_code, prerequisite, semester, term_title, units, year, year_order, term_order, program_id, curriculum_version_id) "
+            + "SELECT subject_code, description, equiv_subject_code, prerequisite, semester, term_title, units, year, year_order, term_order, ?, ? "
+            + "FROM course WHERE program_id = ? ORDER BY id";
+
+    /** A recorded clone key: the program it cloned and, once that clone committed, the copy. */
+    public record CloneRequest(Long sourceProgramId, Long programId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProgramRepository programRepository;
+
+    public CurriculumCloneService(JdbcTemplate jdbcTemplate, ProgramRepository programRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.programRepository = programRepository;
+    }
+
+    /** Earlier request recorded under {@code cloneKey}, if any. */
+    public Optional<CloneRequest> findClone(String cloneKey) {
+        if (cloneKey == null) {
+            return Optional.empty();
+        }
+        List<CloneRequest> requests = jdbcTemplate.query(FIND_BY_KEY,
+                (rs, rowNum) -> new CloneRequest(rs.getLong("source_program_id"), rs.getObject("program_id", Long.class)),
+                cloneKey);
+        return requests.isEmpty() ? Optional.empty() : Optional.of(requests.get(0));
+    }
+
+    /**
+     * Clones {@code source}. With a clone key the key row is reserved first, so a concurrent request with
+     * the same key blocks on the unique index and then fails with a duplicate-key error once this
+     * transaction commits; callers resolve that by reading {@link #findClone(String)}. A duplicate-key error
+     * with no key row behind it means a concurrent clone took the same copy name, and calling again picks a new one.
+     *
+     * @return id of the new program
+     */
+    @Transactional
+    public Long cloneProgram(Program source, String cloneKey) {
+        if (cloneKey != null) {
+            jdbcTemplate.update(RESERVE_KEY, cloneKey, source.getId());
+        }
+
+        String baseName = source.getName();
+        String name = uniqueCopyName(baseName == null ? "Cloned Program" : baseName + " (Copy)");
+        Long programId = insertReturningKey(COPY_PROGRAM, name, Program.normalizeName(name), source.getId());
+        Long versionId = insertReturningKey(COPY_VERSION, programId,
+                (baseName == null ? "Cloned" : baseName) + " - Clone", LocalDate.now().getYear(), source.getId());
+        int courses = jdbcTemplate.update(COPY_COURSES, programId, versionId, source.getId());
+
+        if (cloneKey != null) {
+            jdbcTemplate.update(COMPLETE_KEY, programId, cloneKey);
+        }
+        log.debug("Cloned program {} into {} ({} courses)", source.getId(), programId, courses);
+        return programId;
+    }
+
+    private Long insertReturningKey(String sql, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, keyHolder);
+        Number key = keyHolder.getKey();
+        if (key == null) {
+            throw new IllegalStateException("No generated key returned for clone insert");
+        }
+        return key.longValue();
+    }
+
+    private String uniqueCopyName(String candidate) {
+        String name = candidate;
+        for (int copy = 2; programRepository.findByNameKey(Program.normalizeName(name)).isPresent(); copy++) {
+            name = candidate.endsWith(" (Copy)")
+                    ? candidate.substring(0, candidate.length() - 1) + " " + copy + ")"
+                    : candidate + " " + copy;
+        }
+        return name;
+    }
+}
@@ -0,0 +1,180 @@
+package com.classlink.server.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.classlink.server.dto.CurriculumItem;
+import com.classlink.server.event.CurriculumChangedEvent;
+
+/**
+ * Compares the course lists of two curriculum versions by subject code. Each version is loaded with a
+ * single query, ordered by normalised subject code and walked with a sorted merge, so a diff is linear in
+ * the size of the two lists. Results are cached per (from, to) pair in a bounded LRU map and dropped when
+ * either program's curriculum changes.
+ */
+@Service
+public class CurriculumDiffService {
+
+    private static final String SELECT_VERSION =
+            "SELECT curriculum_id, program_id, version_name FROM curriculum WHERE curriculum_id = ?";
+    private static final String SELECT_COURSES =
+            "SELECT subject_code, description, equiv_subject_code, prerequisite, semester, term_title, units, year "
+            + "FROM course WHERE curriculum_version_id = ? ORDER BY subject_code, id";
+
+    public record VersionRef(Long curriculumId, Long programId, String versionName) {
+    }
+
+    public record FieldChange(Object from, Object to) {
+    }
+
+    public record ModifiedCourse(String subjectCode, Map<String, FieldChange> changes) {
+    }
+
+    public record CurriculumDiff(VersionRef from, VersionRef to, List<CurriculumItem> added,
+            List<CurriculumItem> removed, List<ModifiedCourse> modified, int unchanged) {
+    }
+
+    private record PairKey(Long from, Long to) {
+    }
+
+    private record KeyedItem(String key, CurriculumItem item) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxEntries;
+    private final LinkedHashMap<PairKey, CurriculumDiff> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+
+    public CurriculumDiffService(JdbcTemplate jdbcTemplate,
+            @Value("${app.curriculum.diff-cache.max-entries:256}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxEntries = maxEntries;
+    }
+
+    public Optional<CurriculumDiff> diff(Long fromId, Long toId) {
+        PairKey key = new PairKey(fromId, toId);
+        long expectedGeneration;
+        synchronized (this) {
+            CurriculumDiff cached = cache.get(key);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            expectedGeneration = generation;
+        }
+        Optional<VersionRef> from = findVersion(fromId);
+        Optional<VersionRef> to = findVersion(toId);
+        if (from.isEmpty() || to.isEmpty()) {
+            return Optional.empty();
+        }
+        CurriculumDiff diff = compare(from.get(), to.get(), loadSorted(fromId), loadSorted(toId));
+        synchronized (this) {
+            // A curriculum write while we were reading may have made this result stale
+            if (generation == expectedGeneration) {
+                cache.put(key, diff);
+                if (cache.size() > maxEntries) {
+                    Iterator<PairKey> eldest = cache.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return Optional.of(diff);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        synchronized (this) {
+            generation++;
+            cache.values().removeIf(diff -> Objects.equals(diff.from().programId(), event.programId())
+                    || Objects.equals(diff.to().programId(), event.programId()));
+        }
+    }
+
+    private CurriculumDiff compare(VersionRef fromRef, VersionRef toRef, List<KeyedItem> from, List<KeyedItem> to) {
+        List<CurriculumItem> added = new ArrayList<>();
+        List<CurriculumItem> removed = new ArrayList<>();
+        List<ModifiedCourse> modified = new ArrayList<>();
+        int unchanged = 0;
+        int i = 0;
+        int j = 0;
+        while (i < from.size() && j < to.size()) {
+            KeyedItem a = from.get(i);
+            KeyedItem b = to.get(j);
+            int cmp = a.key().compareTo(b.key());
+            if (cmp < 0) {
+                removed.add(a.item());
+                i++;
+            } else if (cmp > 0) {
+                added.add(b.item());
+                j++;
+            } else {
+                Map<String, FieldChange> changes = changes(a.item(), b.item());
+                if (changes.isEmpty()) {
+                    unchanged++;
+                } else {
+                    modified.add(new ModifiedCourse(b.item().subjectCode(), changes));
+                }
+                i++;
+                j++;
+            }
+        }
+        while (i < from.size()) removed.add(from.get(i++).item());
+        while (j < to.size()) added.add(to.get(j++).item());
+        return new CurriculumDiff(fromRef, toRef, List.copyOf(added), List.copyOf(removed), List.copyOf(modified), unchanged);
+    }
+
+    private static Map<String, FieldChange> changes(CurriculumItem a, CurriculumItem b) {
+        Map<String, FieldChange> changes = new LinkedHashMap<>();
+        compareField(changes, "description", a.description(), b.description());
+        compareField(changes, "units", a.units(), b.units());
+        compareField(changes, "prerequisite", a.prerequisite(), b.prerequisite());
+        compareField(changes, "equivSubjectCode", a.equivSubjectCode(), b.equivSubjectCode());
+        compareField(changes, "year", a.year(), b.year());
+        compareField(changes, "semester", CurriculumLabels.resolveTermLabel(a.semester(), a.termTitle()),
+                CurriculumLabels.resolveTermLabel(b.semester(), b.termTitle()));
+        return changes;
+    }
+
+    private static void compareField(Map<String, FieldChange> changes, String field, Object from, Object to) {
+        Object left = from instanceof String s ? blankToNull(s) : from;
+        Object right = to instanceof String s ? blankToNull(s) : to;
+        if (!Objects.equals(left, right)) {
+            changes.put(field, new FieldChange(left, right));
+        }
+    }
+
+    private static String blankToNull(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private Optional<VersionRef> findVersion(Long curriculumId) {
+        List<VersionRef> refs = jdbcTemplate.query(SELECT_VERSION, (rs, n) -> new VersionRef(
+                rs.getLong("curriculum_id"), rs.getObject("program_id", Long.class), rs.getString("version_name")), curriculumId);
+        return refs.stream().findFirst();
+    }
+
+    private List<KeyedItem> loadSorted(Long curriculumId) {
+        List<KeyedItem> items = jdbcTemplate.query(SELECT_COURSES, (rs, n) -> {
+            CurriculumItem item = new CurriculumItem(rs.getString("subject_code"), rs.getString("description"),
+                    rs.getString("equiv_subject_code"), rs.getString("prerequisite"), rs.getString("semester"),
+                    rs.getString("term_title"), rs.getObject("units", Integer.class), rs.getObject("year", Integer.class));
+            String code = PrerequisiteGraph.normalizeCode(item.subjectCode());
+            return new KeyedItem(code == null ? "" : code, item);
+        }, curriculumId);
+        // The database order follows its collation; re-sorting by the normalised key is a near-linear pass over sorted input
+        items.sort(Comparator.comparing(KeyedItem::key));
+        return items;
+    }
+}
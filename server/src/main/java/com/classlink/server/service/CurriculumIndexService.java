@@ -0,0 +1,71 @@
+package com.classlink.server.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.classlink.server.dto.CurriculumSummaryDto;
+import com.classlink.server.event.CurriculumChangedEvent;
+import com.classlink.server.repository.ProgramRepository;
+
+/**
+ * Serves the curriculum index (one row per program with its course count) from memory.
+ * The cached list is dropped whenever a curriculum is created, updated, cloned or deleted.
+ */
+@Service
+public class CurriculumIndexService {
+
+    private final ProgramRepository programRepository;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile List<Map<String, Object>> cachedIndex;
+
+    public CurriculumIndexService(ProgramRepository programRepository) {
+        this.programRepository = programRepository;
+    }
+
+    public List<Map<String, Object>> getIndex() {
+        List<Map<String, Object>> index = cachedIndex;
+        if (index != null) {
+            return index;
+        }
+        long expectedGeneration = generation.get();
+        index = programRepository.findCurriculumSummaries().stream()
+                .map(this::toEntry)
+                .toList();
+        // Only publish the result if no write invalidated the cache while we were reading
+        synchronized (this) {
+            if (generation.get() == expectedGeneration) {
+                cachedIndex = index;
+            }
+        }
+        return index;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        synchronized (this) {
+            generation.incrementAndGet();
+            cachedIndex = null;
+        }
+    }
+
+    private Map<String, Object> toEntry(CurriculumSummaryDto summary) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("programId", summary.getProgramId());
+        entry.put("programName", summary.getProgramName());
+        entry.put("durationInYears", summary.getDurationInYears());
+        if (summary.getDepartmentId() != null) {
+            Map<String, Object> department = new LinkedHashMap<>();
+            department.put("id", summary.getDepartmentId());
+            department.put("name", summary.getDepartmentName());
+            entry.put("department", department);
+        }
+        entry.put("itemsCount", summary.getItemsCount() == null ? 0 : summary.getItemsCount().intValue());
+        return Collections.unmodifiableMap(entry);
+    }
+}
@@ -0,0 +1,93 @@
+package com.classlink.server.service;
+
+import com.classlink.server.model.Course;
+
+/**
+ * Year and term label parsing shared by curriculum writes, imports and read models.
+ */
+public final class CurriculumLabels {
+
+    public static final String[] YEAR_LABELS = new String[]{
+            "First Year",
+            "Second Year",
+            "Third Year",
+            "Fourth Year",
+            "Fifth Year",
+            "Sixth Year"
+    };
+
+    private static final String[] TERM_PREFIXES = new String[]{"first", "second", "third", "fourth", "fifth", "sixth"};
+
+    private CurriculumLabels() {
+    }
+
+    public static Integer parseYearLabel(Object labelObj) {
+        if (labelObj == null) {
+            return null;
+        }
+        String raw = String.valueOf(labelObj).trim();
+        if (raw.isEmpty()) {
+            return null;
+        }
+        String normalized = raw.toLowerCase();
+        for (int i = 0; i < YEAR_LABELS.length; i++) {
+            String candidate = YEAR_LABELS[i].toLowerCase();
+            if (candidate.equals(normalized) || normalized.contains(candidate)) {
+                return i + 1;
+            }
+        }
+        if (normalized.endsWith("year")) {
+            normalized = normalized.substring(0, normalized.length() - 4).trim();
+        }
+        try {
+            return Integer.valueOf(normalized.replaceAll("[^0-9]", ""));
+        } catch (Exception ignore) {
+            return null;
+        }
+    }
+
+    public static String toYearLabel(Integer year) {
+        if (year == null || year <= 0) {
+            return null;
+        }
+        if (year <= YEAR_LABELS.length) {
+            return YEAR_LABELS[year - 1];
+        }
+        return year + "th Year";
+    }
+
+    public static int yearOrder(Integer year) {
+        return year != null && year > 0 ? year : Integer.MAX_VALUE;
+    }
+
+    public static int termOrder(String term) {
+        if (term == null) {
+            return Integer.MAX_VALUE;
+        }
+        String normalized = term.trim().toLowerCase();
+        if (normalized.isEmpty()) {
+            return Integer.MAX_VALUE;
+        }
+        for (int i = 0; i < TERM_PREFIXES.length; i++) {
+            if (normalized.startsWith(TERM_PREFIXES[i])) {
+                return i + 1;
+            }
+        }
+        try {
+            return Integer.parseInt(normalized.replaceAll("[^0-9]", ""));
+        } catch (Exception ignore) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    public static String resolveTermLabel(Course course) {
+        return resolveTermLabel(course.getSemester(), course.getTermTitle());
+    }
+
+    public static String resolveTermLabel(String semester, String termTitle) {
+        if (semester != null && !semester.isBlank()) {
+            return semester;
+        }
+        return termTitle == null || termTitle.isBlank() ? null : termTitle;
+    }
+}
@@ -0,0 +1,164 @@
+package com.classlink.server.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.classlink.server.dto.CurriculumItem;
+
+/**
+ * Replaces the course list of a program by diffing the submitted items against the stored rows.
+ * Items are matched to existing courses by subject code, year and term; matched rows are updated in
+ * place only when a field changed, unmatched items are inserted and leftover rows are deleted. Each
+ * kind of change is sent as a single JDBC batch, so editing one course of a large curriculum costs a
+ * handful of statements and every untouched course keeps its id.
+ */
+@Service
+public class CurriculumMergeService {
+
+    private static final Logger log = LoggerFactory.getLogger(CurriculumMergeService.class);
+    private static final int DELETE_CHUNK_SIZE = 500;
+
+    private static final String SELECT_EXISTING =
+            "SELECT id, subject_code, description, equiv_subject_code, prerequisite, semester, term_title, units, year, curriculum_version_id "
+            + "FROM course WHERE program_id = ?";
+    private static final String INSERT_COURSE =
+            "INSERT INTO course (subject_code, description, equiv_subject_code, prerequisite, semester, term_title, units, year, year_order, term_order, program_id, curriculum_version_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_COURSE =
+            "UPDATE course SET subject_code = ?, description = ?, equiv_subject_code = ?, prerequisite = ?, semester = ?, term_title = ?, units = ?, year = ?, year_order = ?, term_order = ?, curriculum_version_id = ? "
+            + "WHERE id = ?";
+    private static final String DELETE_COURSES = "DELETE FROM course WHERE id IN (:ids)";
+
+    public record MergeResult(int inserted, int updated, int deleted, int unchanged) {
+    }
+
+    private record StoredCourse(Long id, CurriculumItem item, Long curriculumId) {
+    }
+
+    private record MatchKey(String subjectCode, int yearOrder, int termOrder) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public CurriculumMergeService(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    @Transactional
+    public MergeResult replaceCourses(Long programId, Long curriculumId, List<CurriculumItem> items) {
+        Map<MatchKey, Deque<StoredCourse>> existingByKey = new HashMap<>();
+        jdbcTemplate.query(SELECT_EXISTING, rs -> {
+            CurriculumItem stored = new CurriculumItem(
+                    rs.getString("subject_code"),
+                    rs.getString("description"),
+                    rs.getString("equiv_subject_code"),
+                    rs.getString("prerequisite"),
+                    rs.getString("semester"),
+                    rs.getString("term_title"),
+                    rs.getObject("units", Integer.class),
+                    rs.getObject("year", Integer.class));
+            StoredCourse course = new StoredCourse(rs.getLong("id"), stored, rs.getObject("curriculum_version_id", Long.class));
+            existingByKey.computeIfAbsent(keyOf(stored), k -> new ArrayDeque<>()).add(course);
+        }, programId);
+
+        List<CurriculumItem> inserts = new ArrayList<>();
+        List<StoredCourse> updates = new ArrayList<>();
+        int unchanged = 0;
+        for (CurriculumItem item : items) {
+            Deque<StoredCourse> candidates = existingByKey.get(keyOf(item));
+            StoredCourse match = candidates == null ? null : candidates.poll();
+            if (match == null) {
+                inserts.add(item);
+            } else if (!match.item().equals(item) || !Objects.equals(match.curriculumId(), curriculumId)) {
+                updates.add(new StoredCourse(match.id(), item, curriculumId));
+            } else {
+                unchanged++;
+            }
+        }
+        List<Long> deletes = new ArrayList<>();
+        existingByKey.values().forEach(leftover -> leftover.forEach(course -> deletes.add(course.id())));
+
+        if (!deletes.isEmpty()) {
+            for (int from = 0; from < deletes.size(); from += DELETE_CHUNK_SIZE) {
+                List<Long> chunk = deletes.subList(from, Math.min(from + DELETE_CHUNK_SIZE, deletes.size()));
+                namedJdbcTemplate.update(DELETE_COURSES, new MapSqlParameterSource("ids", chunk));
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_COURSE, updates, updates.size(), (ps, course) -> {
+                CurriculumItem it = course.item();
+                ps.setString(1, it.subjectCode());
+                ps.setString(2, it.description());
+                ps.setString(3, it.equivSubjectCode());
+                ps.setString(4, it.prerequisite());
+                ps.setString(5, it.semester());
+                ps.setString(6, it.termTitle());
+                ps.setObject(7, it.units());
+                ps.setObject(8, it.year());
+                ps.setInt(9, CurriculumLabels.yearOrder(it.year()));
+                ps.setInt(10, termOrderOf(it));
+                ps.setObject(11, course.curriculumId());
+                ps.setLong(12, course.id());
+            });
+        }
+        appendCourses(programId, curriculumId, inserts);
+
+        MergeResult result = new MergeResult(inserts.size(), updates.size(), deletes.size(), unchanged);
+        log.debug("Merged curriculum for program {}: {}", programId, result);
+        return result;
+    }
+
+    /** Inserts {@code items} as new courses of the program in a single JDBC batch. */
+    @Transactional
+    public int appendCourses(Long programId, Long curriculumId, List<CurriculumItem> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_COURSE, items, items.size(), (ps, it) -> {
+            ps.setString(1, it.subjectCode());
+            ps.setString(2, it.description());
+            ps.setString(3, it.equivSubjectCode());
+            ps.setString(4, it.prerequisite());
+            ps.setString(5, it.semester());
+            ps.setString(6, it.termTitle());
+            ps.setObject(7, it.units());
+            ps.setObject(8, it.year());
+            ps.setInt(9, CurriculumLabels.yearOrder(it.year()));
+            ps.setInt(10, termOrderOf(it));
+            ps.setObject(11, programId);
+            ps.setObject(12, curriculumId);
+        });
+        return items.size();
+    }
+
+    /** Key under which a course is matched against stored rows: subject code, year and term. */
+    public static String matchKey(CurriculumItem item) {
+        MatchKey key = keyOf(item);
+        return key.subjectCode() + "|" + key.yearOrder() + "|" + key.termOrder();
+    }
+
+    private static MatchKey keyOf(CurriculumItem item) {
+        String code = item.subjectCode() == null ? "" : item.subjectCode().trim().toUpperCase(Locale.ROOT);
+        return new MatchKey(code, CurriculumLabels.yearOrder(item.year()), termOrderOf(item));
+    }
+
+    private static int termOrderOf(CurriculumItem item) {
+        return CurriculumLabels.termOrder(CurriculumLabels.resolveTermLabel(item.semester(), item.termTitle()));
+    }
+}
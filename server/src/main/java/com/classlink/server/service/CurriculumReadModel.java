@@ -0,0 +1,182 @@
+package com.classlink.server.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.classlink.server.event.CurriculumChangedEvent;
+import com.classlink.server.model.Course;
+import com.classlink.server.model.Curriculum;
+import com.classlink.server.model.Program;
+import com.classlink.server.repository.CourseRepository;
+import com.classlink.server.repository.CurriculumRepository;
+import com.classlink.server.repository.ProgramRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Precomputed curriculum responses, one per program: the sorted course list is turned into the
+ * response document and encoded to JSON once, then served as bytes with a strong ETag until a
+ * curriculum write for that program evicts it. Entries are kept in LRU order and the least recently
+ * read ones are dropped once the encoded documents exceed {@code app.curriculum.read-model.max-bytes}.
+ */
+@Service
+public class CurriculumReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(CurriculumReadModel.class);
+
+    public record Snapshot(Long programId, String programNameKey, byte[] json, String etag) {
+    }
+
+    private final ProgramRepository programRepository;
+    private final CourseRepository courseRepository;
+    private final CurriculumRepository curriculumRepository;
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+
+    private final LinkedHashMap<Long, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long generation;
+
+    public CurriculumReadModel(ProgramRepository programRepository, CourseRepository courseRepository,
+            CurriculumRepository curriculumRepository, ObjectMapper objectMapper,
+            @Value("${app.curriculum.read-model.max-bytes:16777216}") long maxBytes) {
+        this.programRepository = programRepository;
+        this.courseRepository = courseRepository;
+        this.curriculumRepository = curriculumRepository;
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+    }
+
+    public Optional<Snapshot> get(Long programId) {
+        if (programId == null) {
+            return Optional.empty();
+        }
+        long expectedGeneration;
+        synchronized (this) {
+            Snapshot cached = snapshots.get(programId);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            expectedGeneration = generation;
+        }
+        Optional<Snapshot> built = programRepository.findById(programId).map(this::build);
+        built.ifPresent(snapshot -> store(snapshot, expectedGeneration));
+        return built;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        synchronized (this) {
+            generation++;
+            Snapshot removed = snapshots.remove(event.programId());
+            if (removed != null) {
+                cachedBytes -= removed.json().length;
+            }
+        }
+    }
+
+    private synchronized void store(Snapshot snapshot, long expectedGeneration) {
+        // A write that landed while we were building may have made this snapshot stale
+        if (generation != expectedGeneration || snapshot.json().length > maxBytes) {
+            return;
+        }
+        Snapshot previous = snapshots.put(snapshot.programId(), snapshot);
+        cachedBytes += snapshot.json().length - (previous == null ? 0 : previous.json().length);
+        Iterator<Snapshot> eldest = snapshots.values().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().json().length;
+            eldest.remove();
+        }
+    }
+
+    private Snapshot build(Program program) {
+        // Rows arrive in curriculum order from the (program_id, year_order, term_order, id) index
+        List<Course> courses = courseRepository.findAllByProgram_IdOrderByYearOrderAscTermOrderAscIdAsc(program.getId());
+        List<Map<String, Object>> items = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            items.add(courseToDto(course, CurriculumLabels.resolveTermLabel(course)));
+        }
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("program", mapOf("id", program.getId(), "name", program.getName(), "durationInYears", program.getDurationInYears()));
+        out.put("department", program.getDepartment() == null ? null
+                : mapOf("id", program.getDepartment().getId(), "name", program.getDepartment().getName()));
+        out.put("programId", program.getId());
+        out.put("programName", program.getName());
+        out.put("programCode", program.getName());
+        out.put("durationInYears", program.getDurationInYears());
+        if (program.getDepartment() != null) {
+            out.put("departmentId", program.getDepartment().getId());
+        }
+        List<Curriculum> versions = curriculumRepository.findAllByProgram_Id(program.getId());
+        Curriculum version = versions.isEmpty() ? null : versions.get(0);
+        if (version != null) {
+            out.put("curriculumId", version.getId());
+            if (version.getVersionName() != null) out.put("curriculumVersionName", version.getVersionName());
+            if (version.getEffectivityYear() != null) out.put("effectivityYear", version.getEffectivityYear());
+            if (version.getDurationInYears() != null && out.get("durationInYears") == null) {
+                out.put("durationInYears", version.getDurationInYears());
+            }
+        }
+        out.put("items", items);
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(out);
+            return new Snapshot(program.getId(), program.getNameKey(), json, strongEtag(json));
+        } catch (JsonProcessingException ex) {
+            log.error("Failed to encode curriculum for program {}", program.getId(), ex);
+            throw new IllegalStateException("Could not encode curriculum", ex);
+        }
+    }
+
+    private Map<String, Object> courseToDto(Course course, String semester) {
+        Map<String, Object> dto = new LinkedHashMap<>();
+        dto.put("id", course.getId());
+        dto.put("subjectCode", course.getSubjectCode());
+        dto.put("description", course.getDescription());
+        dto.put("equivSubjectCode", course.getEquivSubjectCode());
+        dto.put("prerequisite", course.getPrerequisite());
+        dto.put("semester", semester);
+        dto.put("termTitle", course.getTermTitle());
+        dto.put("units", course.getUnits());
+        dto.put("year", course.getYear());
+        String yearLabel = CurriculumLabels.toYearLabel(course.getYear());
+        dto.put("yearLabel", yearLabel != null ? yearLabel : "Unknown Year");
+        return dto;
+    }
+
+    private Map<String, Object> mapOf(String k1, Object v1, String k2, Object v2) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put(k1, v1);
+        map.put(k2, v2);
+        return map;
+    }
+
+    private Map<String, Object> mapOf(String k1, Object v1, String k2, Object v2, String k3, Object v3) {
+        Map<String, Object> map = mapOf(k1, v1, k2, v2);
+        map.put(k3, v3);
+        return map;
+    }
+
+    private String strongEtag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
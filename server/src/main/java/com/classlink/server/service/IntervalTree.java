@@ -0,0 +1,78 @@
+package com.classlink.server.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Immutable augmented interval tree over closed {@code [start, end]} intervals. Items are kept sorted by
+ * start in an array that doubles as an implicit balanced search tree; each subtree records its largest
+ * end so whole subtrees that finish before the query window are skipped. Overlap queries cost
+ * O(log n + k) and report items in start order.
+ */
+public final class IntervalTree<K extends Comparable<? super K>, T> {
+
+    private final List<T> items;
+    private final List<K> starts;
+    private final List<K> ends;
+    private final List<K> maxEnds;
+
+    public IntervalTree(List<T> source, Function<T, K> startOf, Function<T, K> endOf) {
+        List<T> sorted = new ArrayList<>(source);
+        sorted.sort(Comparator.comparing(startOf));
+        this.items = sorted;
+        this.starts = new ArrayList<>(sorted.size());
+        this.ends = new ArrayList<>(sorted.size());
+        for (T item : sorted) {
+            starts.add(startOf.apply(item));
+            ends.add(endOf.apply(item));
+        }
+        this.maxEnds = new ArrayList<>(ends);
+        computeMaxEnd(0, sorted.size() - 1);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /** Items whose interval overlaps {@code [from, to]}, in start order. */
+    public List<T> overlapping(K from, K to) {
+        List<T> result = new ArrayList<>();
+        visit(0, items.size() - 1, from, to, result::add);
+        return result;
+    }
+
+    private K computeMaxEnd(int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        K max = ends.get(mid);
+        K left = computeMaxEnd(lo, mid - 1);
+        K right = computeMaxEnd(mid + 1, hi);
+        if (left != null && left.compareTo(max) > 0) max = left;
+        if (right != null && right.compareTo(max) > 0) max = right;
+        maxEnds.set(mid, max);
+        return max;
+    }
+
+    private void visit(int lo, int hi, K from, K to, Consumer<T> sink) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds.get(mid).compareTo(from) < 0) {
+            return; // everything in this subtree ends before the window
+        }
+        visit(lo, mid - 1, from, to, sink);
+        if (starts.get(mid).compareTo(to) > 0) {
+            return; // this node and its right subtree start after the window
+        }
+        if (ends.get(mid).compareTo(from) >= 0) {
+            sink.accept(items.get(mid));
+        }
+        visit(mid + 1, hi, from, to, sink);
+    }
+}
@@ -0,0 +1,91 @@
+package com.classlink.server.service;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.classlink.server.event.CalendarChangedEvent;
+import com.classlink.server.model.NotificationType;
+
+/**
+ * Deletes the per-student {@code CALENDAR_EVENT} notifications of a deleted calendar event off the request
+ * thread. Rows are walked in id order over the {@code (type, related_entity_id)} index and removed in
+ * bounded batches by primary key, so a large fan-out never holds long locks on the notifications table.
+ */
+@Service
+public class NotificationCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationCleanupService.class);
+    private static final String SELECT_BATCH =
+            "SELECT id FROM notifications WHERE type = ? AND related_entity_id = ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String DELETE_BATCH = "DELETE FROM notifications WHERE id IN (%s)";
+    private static final String SELECT_ORPHANED_EVENTS =
+            "SELECT DISTINCT n.related_entity_id FROM notifications n LEFT JOIN calendar c ON c.id = n.related_entity_id "
+            + "WHERE n.type = ? AND n.related_entity_id IS NOT NULL AND c.id IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public NotificationCleanupService(JdbcTemplate jdbcTemplate,
+            @Value("${app.notifications.cleanup-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCalendarChanged(CalendarChangedEvent event) {
+        if (event.removed() && event.eventId() != null) {
+            purgeCalendarNotifications(event.eventId());
+        }
+    }
+
+    // Notifications left behind by events deleted before this cleanup existed
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void purgeOrphans() {
+        List<Long> eventIds = jdbcTemplate.queryForList(SELECT_ORPHANED_EVENTS, Long.class,
+                NotificationType.CALENDAR_EVENT.name());
+        for (Long eventId : eventIds) {
+            purgeCalendarNotifications(eventId);
+        }
+    }
+
+    /** @return number of notifications removed */
+    public int purgeCalendarNotifications(Long eventId) {
+        int total = 0;
+        long lastId = 0;
+        try {
+            while (true) {
+                List<Long> ids = jdbcTemplate.queryForList(SELECT_BATCH, Long.class,
+                        NotificationType.CALENDAR_EVENT.name(), eventId, lastId, batchSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                total += jdbcTemplate.update(String.format(DELETE_BATCH, String.join(",", Collections.nCopies(ids.size(), "?"))),
+                        ids.toArray());
+                lastId = ids.get(ids.size() - 1);
+                if (ids.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // Whatever is left is picked up by the orphan sweep on the next startup
+            log.error("Failed to remove notifications of calendar event {} after {} rows", eventId, total, ex);
+            return total;
+        }
+        if (total > 0) {
+            log.debug("Removed {} notifications of calendar event {}", total, eventId);
+        }
+        return total;
+    }
+}
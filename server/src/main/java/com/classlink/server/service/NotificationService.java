@@ -1,6 +1,8 @@
 package com.classlink.server.service;
 
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -10,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.classlink.server.dto.CalendarOccurrence;
 import com.classlink.server.dto.NotificationDto;
 import com.classlink.server.model.Calendar;
 import com.classlink.server.model.Notification;
@@ -55,27 +58,38 @@ public class NotificationService {
         if (event == null || event.getTitle() == null) {
             return;
         }
-        List<Student> candidates = studentRepository.findAll();
-        if (candidates.isEmpty()) {
+        List<Student> recipients = activeStudents();
+        if (recipients.isEmpty()) {
             return;
         }
         List<Notification> batch = new ArrayList<>();
-        for (Student student : candidates) {
-            if (student.getStatus() == StudentStatus.INACTIVE) {
-                continue;
-            }
-            Notification notification = new Notification();
-            notification.setStudent(student);
-            notification.setType(NotificationType.CALENDAR_EVENT);
-            notification.setTitle(event.getTitle());
-            notification.setRelatedEntityId(event.getId());
-            notification.setRead(false);
-            notification.setMessage(buildCalendarMessage(event));
-            batch.add(notification);
+        for (Student student : recipients) {
+            batch.add(calendarNotification(student, event.getId(), event.getTitle(), buildCalendarMessage(event)));
         }
-        if (!batch.isEmpty()) {
-            notificationRepository.saveAll(batch);
+        notificationRepository.saveAll(batch);
+    }
+
+    /**
+     * Fans a batch of upcoming occurrences out to every active student. Students are loaded once for the
+     * whole batch.
+     */
+    public void notifyCalendarReminders(List<CalendarOccurrence> upcoming, LocalDate today) {
+        if (upcoming == null || upcoming.isEmpty()) {
+            return;
+        }
+        List<Student> recipients = activeStudents();
+        if (recipients.isEmpty()) {
+            return;
         }
+        List<Notification> batch = new ArrayList<>(recipients.size() * upcoming.size());
+        for (CalendarOccurrence occurrence : upcoming) {
+            String title = "Reminder: " + occurrence.title();
+            String message = buildReminderMessage(occurrence, today);
+            for (Student student : recipients) {
+                batch.add(calendarNotification(student, occurrence.id(), title, message));
+            }
+        }
+        notificationRepository.saveAll(batch);
     }
 
     public List<NotificationDto> getNotificationsForStudent(Long studentId) {
@@ -149,12 +163,55 @@ public class NotificationService {
             range = start + " - " + DATE_FORMAT.format(event.getEndDate());
         }
         StringBuilder builder = new StringBuilder("Scheduled for ").append(range);
+        if (CalendarSeries.isRecurring(event)) {
+            try {
+                builder.append(" (").append(RecurrenceRule.parse(event.getRecurrenceRule()).describe().toLowerCase()).append(")");
+            } catch (IllegalArgumentException ignore) {
+                // rules are validated on save; an unreadable one just loses the suffix
+            }
+        }
         if (event.getDescription() != null && !event.getDescription().isBlank()) {
             builder.append(" — ").append(event.getDescription().trim());
         }
         return builder.toString();
     }
 
+    private List<Student> activeStudents() {
+        List<Student> recipients = new ArrayList<>();
+        for (Student student : studentRepository.findAll()) {
+            if (student.getStatus() != StudentStatus.INACTIVE) {
+                recipients.add(student);
+            }
+        }
+        return recipients;
+    }
+
+    private Notification calendarNotification(Student student, Long eventId, String title, String message) {
+        Notification notification = new Notification();
+        notification.setStudent(student);
+        notification.setType(NotificationType.CALENDAR_EVENT);
+        notification.setTitle(title);
+        notification.setRelatedEntityId(eventId);
+        notification.setRead(false);
+        notification.setMessage(message);
+        return notification;
+    }
+
+    private String buildReminderMessage(CalendarOccurrence occurrence, LocalDate today) {
+        long days = ChronoUnit.DAYS.between(today, occurrence.startDate());
+        String when = days <= 0 ? "today" : days == 1 ? "tomorrow" : "in " + days + " days";
+        StringBuilder builder = new StringBuilder("Starts ").append(when)
+            .append(" (").append(DATE_FORMAT.format(occurrence.startDate()));
+        if (occurrence.endDate() != null && occurrence.endDate().isAfter(occurrence.startDate())) {
+            builder.append(" - ").append(DATE_FORMAT.format(occurrence.endDate()));
+        }
+        builder.append(")");
+        if (occurrence.description() != null && !occurrence.description().isBlank()) {
+            builder.append(" — ").append(occurrence.description().trim());
+        }
+        return builder.toString();
+    }
+
     private String capitalize(String value) {
         if (value == null || value.isBlank()) {
             return "";
@@ -0,0 +1,308 @@
+package com.classlink.server.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.classlink.server.dto.CurriculumItem;
+
+/**
+ * Immutable prerequisite DAG of one curriculum version. Nodes are the curriculum's courses, addressed by
+ * their subject code or any of their {@code equivSubjectCode} aliases; an edge runs from a prerequisite to
+ * the course that requires it. The free-text prerequisite column is read for code-like tokens only, so
+ * entries such as "None" or "3rd Year Standing" add no edges. A token that names no course is only
+ * reported as an unknown reference when its letters match a subject prefix used in the curriculum;
+ * otherwise it is prose ("at least 72 units") and ignored.
+ *
+ * <p>Direct prerequisites and the transitive set of courses each node unlocks are precomputed as
+ * bitsets in topological order, which keeps unlock and eligibility queries to a few word operations.</p>
+ */
+public final class PrerequisiteGraph {
+
+    // Subject-code shaped tokens: "IT 111", "CS101", "MATH-2A", "PE 1"
+    private static final Pattern CODE_TOKEN = Pattern.compile("\\b([A-Za-z]{2,8})\\s*-?\\s*(\\d{1,4}[A-Za-z]?)\\b");
+
+    private final String[] codes;
+    private final Map<String, Integer> indexByCode;
+    private final BitSet[] prerequisites;
+    private final BitSet[] unlocks;
+    private final int[] topologicalOrder;
+    private final List<String> unknownReferences;
+    private final List<String> cycles;
+
+    private PrerequisiteGraph(String[] codes, Map<String, Integer> indexByCode, BitSet[] prerequisites,
+            BitSet[] unlocks, int[] topologicalOrder, List<String> unknownReferences, List<String> cycles) {
+        this.codes = codes;
+        this.indexByCode = indexByCode;
+        this.prerequisites = prerequisites;
+        this.unlocks = unlocks;
+        this.topologicalOrder = topologicalOrder;
+        this.unknownReferences = unknownReferences;
+        this.cycles = cycles;
+    }
+
+    public record Eligibility(String code, boolean eligible, List<String> missing) {
+    }
+
+    /** Normalised lookup key for a subject code: upper-case letters and digits only. */
+    public static String normalizeCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(code.length());
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toUpperCase(c));
+            }
+        }
+        return sb.isEmpty() ? null : sb.toString();
+    }
+
+    /**
+     * Code-shaped tokens of a free-text prerequisite, normalised, in order of appearance. These are
+     * candidates only: {@link #build} decides which of them name courses of the curriculum.
+     */
+    public static Set<String> parseCodes(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> found = new LinkedHashSet<>();
+        Matcher m = CODE_TOKEN.matcher(text);
+        while (m.find()) {
+            found.add((m.group(1) + m.group(2)).toUpperCase(Locale.ROOT));
+        }
+        return found;
+    }
+
+    public static PrerequisiteGraph build(List<CurriculumItem> items) {
+        List<String> unknownReferences = new ArrayList<>();
+        List<String> cycles = new ArrayList<>();
+        List<String> codeList = new ArrayList<>();
+        List<CurriculumItem> nodes = new ArrayList<>();
+        Map<String, Integer> indexByCode = new HashMap<>();
+        for (CurriculumItem item : items) {
+            String code = normalizeCode(item.subjectCode());
+            if (code == null || indexByCode.containsKey(code)) {
+                continue; // unnamed rows cannot be referenced; repeated codes share the first node
+            }
+            indexByCode.put(code, nodes.size());
+            codeList.add(item.subjectCode().trim());
+            nodes.add(item);
+        }
+        int n = nodes.size();
+        for (int i = 0; i < n; i++) {
+            for (String alias : parseCodes(nodes.get(i).equivSubjectCode())) {
+                indexByCode.putIfAbsent(alias, i);
+            }
+        }
+        Set<String> subjectPrefixes = new HashSet<>();
+        for (String code : indexByCode.keySet()) {
+            subjectPrefixes.add(letterPrefix(code));
+        }
+
+        BitSet[] prerequisites = new BitSet[n];
+        List<List<Integer>> dependents = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            prerequisites[i] = new BitSet(n);
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            for (String ref : parseCodes(nodes.get(i).prerequisite())) {
+                Integer from = indexByCode.get(ref);
+                if (from == null) {
+                    if (subjectPrefixes.contains(letterPrefix(ref))) {
+                        unknownReferences.add(codeList.get(i) + " requires unknown course " + ref);
+                    }
+                } else if (!prerequisites[i].get(from)) {
+                    prerequisites[i].set(from);
+                    dependents.get(from).add(i);
+                }
+            }
+        }
+
+        // Kahn's algorithm; anything left unvisited sits on or behind a cycle
+        int[] inDegree = new int[n];
+        for (int i = 0; i < n; i++) {
+            inDegree[i] = prerequisites[i].cardinality();
+        }
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            if (inDegree[i] == 0) ready.add(i);
+        }
+        int[] order = new int[n];
+        int visited = 0;
+        while (!ready.isEmpty()) {
+            int node = ready.poll();
+            order[visited++] = node;
+            for (int next : dependents.get(node)) {
+                if (--inDegree[next] == 0) ready.add(next);
+            }
+        }
+        BitSet[] unlocks = new BitSet[n];
+        if (visited < n) {
+            List<String> cyclic = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if (inDegree[i] > 0) cyclic.add(codeList.get(i));
+            }
+            cycles.add("Prerequisite cycle involving " + String.join(", ", cyclic));
+            for (int i = 0; i < n; i++) {
+                unlocks[i] = reachable(i, dependents, n);
+            }
+            order = java.util.Arrays.copyOf(order, visited);
+        } else {
+            // Reverse topological sweep: a node unlocks its dependents and everything they unlock
+            for (int k = n - 1; k >= 0; k--) {
+                int node = order[k];
+                BitSet closure = new BitSet(n);
+                for (int next : dependents.get(node)) {
+                    closure.set(next);
+                    closure.or(unlocks[next]);
+                }
+                unlocks[node] = closure;
+            }
+        }
+        return new PrerequisiteGraph(codeList.toArray(new String[0]), Map.copyOf(indexByCode), prerequisites,
+                unlocks, order, List.copyOf(unknownReferences), List.copyOf(cycles));
+    }
+
+    // Leading letters of a normalised code: "PE" for PE1, "MATH" for MATH2A
+    private static String letterPrefix(String code) {
+        int end = 0;
+        while (end < code.length() && Character.isLetter(code.charAt(end))) end++;
+        return code.substring(0, end);
+    }
+
+    private static BitSet reachable(int start, List<List<Integer>> dependents, int n) {
+        BitSet seen = new BitSet(n);
+        Deque<Integer> stack = new ArrayDeque<>(dependents.get(start));
+        while (!stack.isEmpty()) {
+            int node = stack.pop();
+            if (!seen.get(node)) {
+                seen.set(node);
+                stack.addAll(dependents.get(node));
+            }
+        }
+        return seen;
+    }
+
+    /** Dangling references and cycles found while building; empty for a valid curriculum. */
+    public List<String> problems() {
+        if (cycles.isEmpty()) return unknownReferences;
+        List<String> all = new ArrayList<>(unknownReferences);
+        all.addAll(cycles);
+        return all;
+    }
+
+    /** Prerequisites naming a course that is not in the curriculum; such edges are left out of the graph. */
+    public List<String> unknownReferences() {
+        return unknownReferences;
+    }
+
+    /** Courses that can never be taken because their prerequisites loop back on them. */
+    public List<String> cycles() {
+        return cycles;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public boolean contains(String code) {
+        return indexOf(code) >= 0;
+    }
+
+    /** Subject codes in an order where every course follows its prerequisites. */
+    public List<String> topologicalOrder() {
+        List<String> result = new ArrayList<>(topologicalOrder.length);
+        for (int node : topologicalOrder) {
+            result.add(codes[node]);
+        }
+        return result;
+    }
+
+    public Optional<List<String>> directPrerequisites(String code) {
+        int node = indexOf(code);
+        return node < 0 ? Optional.empty() : Optional.of(toCodes(prerequisites[node]));
+    }
+
+    /** Courses that list {@code code} as a prerequisite. */
+    public Optional<List<String>> directUnlocks(String code) {
+        int node = indexOf(code);
+        if (node < 0) {
+            return Optional.empty();
+        }
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < codes.length; i++) {
+            if (prerequisites[i].get(node)) result.add(codes[i]);
+        }
+        return Optional.of(result);
+    }
+
+    /** Every course that transitively depends on {@code code}. */
+    public Optional<List<String>> allUnlocks(String code) {
+        int node = indexOf(code);
+        return node < 0 ? Optional.empty() : Optional.of(toCodes(unlocks[node]));
+    }
+
+    public Optional<Eligibility> eligibility(String code, Collection<String> completedCodes) {
+        int node = indexOf(code);
+        if (node < 0) {
+            return Optional.empty();
+        }
+        BitSet missing = (BitSet) prerequisites[node].clone();
+        missing.andNot(toBits(completedCodes));
+        return Optional.of(new Eligibility(codes[node], missing.isEmpty(), toCodes(missing)));
+    }
+
+    /** Bitset of the curriculum courses named in {@code completedCodes} (aliases included). */
+    public BitSet toBits(Collection<String> completedCodes) {
+        BitSet bits = new BitSet(codes.length);
+        if (completedCodes != null) {
+            for (String completed : completedCodes) {
+                int node = indexOf(completed);
+                if (node >= 0) bits.set(node);
+            }
+        }
+        return bits;
+    }
+
+    public String codeAt(int node) {
+        return codes[node];
+    }
+
+    public int indexOf(String code) {
+        String key = normalizeCode(code);
+        Integer node = key == null ? null : indexByCode.get(key);
+        return node == null ? -1 : node;
+    }
+
+    public BitSet prerequisitesOf(int node) {
+        return (BitSet) prerequisites[node].clone();
+    }
+
+    public BitSet unlocksOf(int node) {
+        return (BitSet) unlocks[node].clone();
+    }
+
+    private List<String> toCodes(BitSet bits) {
+        List<String> result = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            result.add(codes[i]);
+        }
+        return result;
+    }
+}
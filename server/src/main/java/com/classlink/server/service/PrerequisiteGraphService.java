@@ -0,0 +1,83 @@
+package com.classlink.server.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.classlink.server.dto.CurriculumItem;
+import com.classlink.server.event.CurriculumChangedEvent;
+
+/**
+ * Builds and caches one {@link PrerequisiteGraph} per curriculum version. Graphs are dropped when a
+ * curriculum write is published for the owning program.
+ */
+@Service
+public class PrerequisiteGraphService {
+
+    private static final String SELECT_NODES =
+            "SELECT subject_code, equiv_subject_code, prerequisite FROM course WHERE curriculum_version_id = ? ORDER BY id";
+    private static final String SELECT_PROGRAM = "SELECT program_id FROM curriculum WHERE curriculum_id = ?";
+
+    private record CachedGraph(Long programId, PrerequisiteGraph graph) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, CachedGraph> graphs = new ConcurrentHashMap<>();
+    private long generation;
+
+    public PrerequisiteGraphService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Graph of {@code items} before they are saved, to check for cycles and unknown references. */
+    public PrerequisiteGraph validate(List<CurriculumItem> items) {
+        return PrerequisiteGraph.build(items);
+    }
+
+    public Optional<PrerequisiteGraph> forCurriculum(Long curriculumId) {
+        if (curriculumId == null) {
+            return Optional.empty();
+        }
+        CachedGraph cached = graphs.get(curriculumId);
+        if (cached != null) {
+            return Optional.of(cached.graph());
+        }
+        long expectedGeneration;
+        synchronized (this) {
+            expectedGeneration = generation;
+        }
+        List<Long> owner = jdbcTemplate.queryForList(SELECT_PROGRAM, Long.class, curriculumId);
+        if (owner.isEmpty()) {
+            return Optional.empty();
+        }
+        PrerequisiteGraph graph = load(curriculumId);
+        synchronized (this) {
+            // Skip caching if a write landed while we were reading
+            if (generation == expectedGeneration) {
+                graphs.put(curriculumId, new CachedGraph(owner.get(0), graph));
+            }
+        }
+        return Optional.of(graph);
+    }
+
+    /** Builds the graph from the current rows without touching the cache (e.g. inside a write transaction). */
+    public PrerequisiteGraph load(Long curriculumId) {
+        List<CurriculumItem> nodes = jdbcTemplate.query(SELECT_NODES, (rs, i) -> new CurriculumItem(
+                rs.getString("subject_code"), null, rs.getString("equiv_subject_code"), rs.getString("prerequisite"),
+                null, null, null, null), curriculumId);
+        return PrerequisiteGraph.build(nodes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        synchronized (this) {
+            generation++;
+            graphs.values().removeIf(cached -> cached.programId() == null || cached.programId().equals(event.programId()));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.classlink.server.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.classlink.server.event.CurriculumChangedEvent;
+import com.classlink.server.model.Program;
+import com.classlink.server.repository.ProgramRepository;
+
+/**
+ * In-memory map from normalized program name to program id, warmed at startup and kept current by
+ * {@link CurriculumChangedEvent}. Misses fall through to the indexed {@code name_key} column.
+ */
+@Service
+public class ProgramDirectory {
+
+    private final ProgramRepository programRepository;
+    private final Map<String, Long> idsByNameKey = new ConcurrentHashMap<>();
+
+    public ProgramDirectory(ProgramRepository programRepository) {
+        this.programRepository = programRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        for (ProgramRepository.ProgramKey key : programRepository.findAllNameKeys()) {
+            idsByNameKey.put(key.getNameKey(), key.getId());
+        }
+    }
+
+    public Optional<Long> resolveId(String name) {
+        String nameKey = Program.normalizeName(name);
+        if (nameKey == null) {
+            return Optional.empty();
+        }
+        Long cached = idsByNameKey.get(nameKey);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Long> resolved = programRepository.findByNameKey(nameKey).map(Program::getId);
+        resolved.ifPresent(id -> idsByNameKey.put(nameKey, id));
+        return resolved;
+    }
+
+    /** Drops a mapping that turned out to point at a missing or renamed program. */
+    public void evict(String name) {
+        String nameKey = Program.normalizeName(name);
+        if (nameKey != null) {
+            idsByNameKey.remove(nameKey);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        if (event.programId() == null) {
+            return;
+        }
+        idsByNameKey.values().removeIf(event.programId()::equals);
+        programRepository.findById(event.programId())
+                .filter(program -> program.getNameKey() != null)
+                .ifPresent(program -> idsByNameKey.put(program.getNameKey(), program.getId()));
+    }
+}
@@ -0,0 +1,246 @@
+package com.classlink.server.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * The subset of RFC 5545 RRULE used by academic calendar events: {@code FREQ} (DAILY, WEEKLY, MONTHLY,
+ * YEARLY), {@code INTERVAL}, {@code COUNT} or {@code UNTIL} (a date), {@code BYDAY} for weekly rules and
+ * {@code BYMONTHDAY} for monthly rules. Occurrences are all-day and are generated lazily for a window, so
+ * an unbounded rule costs nothing until someone looks at a range.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    public static final int MAX_COUNT = 1000;
+    private static final int MAX_STEPS = 100_000;
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String[] DAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDate until;
+    private final Set<DayOfWeek> byDay;
+    private final Integer byMonthDay;
+
+    private RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDate until, Set<DayOfWeek> byDay,
+            Integer byMonthDay) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+        this.byMonthDay = byMonthDay;
+    }
+
+    /** Parses a rule such as {@code FREQ=WEEKLY;BYDAY=MO,WE;UNTIL=20261231}; an optional "RRULE:" prefix is accepted. */
+    public static RecurrenceRule parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is empty");
+        }
+        String rule = text.trim();
+        if (rule.regionMatches(true, 0, "RRULE:", 0, 6)) {
+            rule = rule.substring(6);
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDate until = null;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        Integer byMonthDay = null;
+        for (String part : rule.split(";")) {
+            if (part.isBlank()) continue;
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Malformed recurrence part: " + part);
+            }
+            String name = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String value = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+            try {
+                switch (name) {
+                    case "FREQ" -> frequency = Frequency.valueOf(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    case "UNTIL" -> until = LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, UNTIL_FORMAT);
+                    case "BYDAY" -> {
+                        for (String day : value.split(",")) byDay.add(dayOf(day.trim()));
+                    }
+                    case "BYMONTHDAY" -> byMonthDay = Integer.parseInt(value);
+                    case "WKST" -> { } // weeks always start on Monday here
+                    default -> throw new IllegalArgumentException("Unsupported recurrence part: " + name);
+                }
+            } catch (NumberFormatException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule needs FREQ");
+        }
+        if (interval < 1 || interval > 1000) {
+            throw new IllegalArgumentException("INTERVAL must be between 1 and 1000");
+        }
+        if (count != null && (count < 1 || count > MAX_COUNT)) {
+            throw new IllegalArgumentException("COUNT must be between 1 and " + MAX_COUNT);
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL cannot both be set");
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported for weekly rules");
+        }
+        if (byMonthDay != null && (frequency != Frequency.MONTHLY || byMonthDay < 1 || byMonthDay > 31)) {
+            throw new IllegalArgumentException("BYMONTHDAY must be 1-31 on a monthly rule");
+        }
+        return new RecurrenceRule(frequency, interval, count, until, byDay.isEmpty() ? Set.of() : byDay, byMonthDay);
+    }
+
+    private static DayOfWeek dayOf(String code) {
+        for (int i = 0; i < DAY_CODES.length; i++) {
+            if (DAY_CODES[i].equals(code)) return DayOfWeek.of(i + 1);
+        }
+        throw new IllegalArgumentException("Unknown BYDAY value: " + code);
+    }
+
+    public Frequency frequency() {
+        return frequency;
+    }
+
+    /** Canonical form, as stored and emitted in iCalendar feeds. */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(";");
+        joiner.add("FREQ=" + frequency);
+        if (interval != 1) joiner.add("INTERVAL=" + interval);
+        if (!byDay.isEmpty()) {
+            StringJoiner days = new StringJoiner(",");
+            for (DayOfWeek day : EnumSet.copyOf(byDay)) days.add(DAY_CODES[day.getValue() - 1]);
+            joiner.add("BYDAY=" + days);
+        }
+        if (byMonthDay != null) joiner.add("BYMONTHDAY=" + byMonthDay);
+        if (count != null) joiner.add("COUNT=" + count);
+        if (until != null) joiner.add("UNTIL=" + UNTIL_FORMAT.format(until));
+        return joiner.toString();
+    }
+
+    /** Short human description for notifications, e.g. "Repeats every 2 weeks". */
+    public String describe() {
+        String unit = switch (frequency) {
+            case DAILY -> "day";
+            case WEEKLY -> "week";
+            case MONTHLY -> "month";
+            case YEARLY -> "year";
+        };
+        String text = interval == 1 ? "Repeats every " + unit : "Repeats every " + interval + " " + unit + "s";
+        if (count != null) text += ", " + count + " times";
+        return text;
+    }
+
+    /**
+     * Start date of the last occurrence, or {@code null} when the rule never ends. Used to store how far a
+     * series reaches so range queries can find it.
+     */
+    public LocalDate lastStart(LocalDate dtStart, Set<LocalDate> exceptions) {
+        if (count == null && until == null) {
+            return null;
+        }
+        List<LocalDate> all = startsBetween(dtStart, 0, dtStart, until != null ? until : LocalDate.MAX, exceptions);
+        return all.isEmpty() ? dtStart : all.get(all.size() - 1);
+    }
+
+    /**
+     * Start dates of the occurrences lasting {@code durationDays} extra days that overlap {@code [from, to]},
+     * skipping {@code exceptions}.
+     */
+    public List<LocalDate> startsBetween(LocalDate dtStart, long durationDays, LocalDate from, LocalDate to,
+            Set<LocalDate> exceptions) {
+        List<LocalDate> result = new ArrayList<>();
+        LocalDate windowStart = from.minusDays(durationDays);
+        LocalDate last = until != null && until.isBefore(to) ? until : to;
+        // Without COUNT nothing before the window matters, so jump straight to the first relevant period
+        long period = count == null ? firstPeriodNear(dtStart, windowStart) : 0;
+        int produced = 0;
+        for (int steps = 0; steps < MAX_STEPS; steps++, period++) {
+            List<LocalDate> candidates = candidates(dtStart, period);
+            if (candidates.isEmpty() && periodStart(dtStart, period).isAfter(last)) {
+                break;
+            }
+            for (LocalDate date : candidates) {
+                if (date.isBefore(dtStart)) continue;
+                if (date.isAfter(last)) return result;
+                produced++;
+                if (!date.isBefore(windowStart) && (exceptions == null || !exceptions.contains(date))) {
+                    result.add(date);
+                }
+                if (count != null && produced >= count) return result;
+            }
+        }
+        return result;
+    }
+
+    private long firstPeriodNear(LocalDate dtStart, LocalDate windowStart) {
+        if (!windowStart.isAfter(dtStart)) {
+            return 0;
+        }
+        long units = switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS.between(dtStart, windowStart);
+            case WEEKLY -> ChronoUnit.WEEKS.between(weekOf(dtStart), weekOf(windowStart));
+            case MONTHLY -> ChronoUnit.MONTHS.between(dtStart.withDayOfMonth(1), windowStart.withDayOfMonth(1));
+            case YEARLY -> windowStart.getYear() - dtStart.getYear();
+        };
+        return Math.max(0, units / interval - 1);
+    }
+
+    private LocalDate periodStart(LocalDate dtStart, long period) {
+        long step = period * interval;
+        return switch (frequency) {
+            case DAILY -> dtStart.plusDays(step);
+            case WEEKLY -> weekOf(dtStart).plusWeeks(step);
+            case MONTHLY -> dtStart.withDayOfMonth(1).plusMonths(step);
+            case YEARLY -> dtStart.withDayOfYear(1).plusYears(step);
+        };
+    }
+
+    private List<LocalDate> candidates(LocalDate dtStart, long period) {
+        LocalDate start = periodStart(dtStart, period);
+        switch (frequency) {
+            case DAILY:
+                return List.of(start);
+            case WEEKLY:
+                if (byDay.isEmpty()) {
+                    return List.of(start.plusDays(dtStart.getDayOfWeek().getValue() - 1L));
+                }
+                List<LocalDate> days = new ArrayList<>(byDay.size());
+                for (DayOfWeek day : EnumSet.copyOf(byDay)) days.add(start.plusDays(day.getValue() - 1L));
+                return days;
+            case MONTHLY: {
+                int day = byMonthDay != null ? byMonthDay : dtStart.getDayOfMonth();
+                // Months without that day (e.g. the 31st) are skipped, as RFC 5545 requires
+                return day <= start.lengthOfMonth() ? List.of(start.withDayOfMonth(day)) : List.of();
+            }
+            case YEARLY: {
+                if (dtStart.getMonthValue() == 2 && dtStart.getDayOfMonth() == 29 && !start.isLeapYear()) {
+                    return List.of();
+                }
+                return List.of(start.withMonth(dtStart.getMonthValue()).withDayOfMonth(dtStart.getDayOfMonth()));
+            }
+            default:
+                return List.of();
+        }
+    }
+
+    private static LocalDate weekOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
@@ -0,0 +1,301 @@
+package com.classlink.server.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.classlink.server.dto.CurriculumItem;
+import com.classlink.server.event.CurriculumChangedEvent;
+import com.classlink.server.model.Student;
+
+/**
+ * Builds a term-by-term plan for the courses a student still has to take. Courses already behind the
+ * student's current year and semester (or explicitly listed as completed) count as done; the rest are
+ * placed greedily, term by term, choosing among courses whose prerequisites are finished and that are
+ * offered in that term, longest remaining prerequisite chain first, until the unit limit is reached.
+ *
+ * <p>The per-curriculum model (graph, units, offerings and memoised chain heights) is cached until the
+ * program's curriculum changes, and finished plans are cached per curriculum and progress signature.</p>
+ */
+@Service
+public class StudyPlanService {
+
+    private static final String SELECT_VERSION = "SELECT curriculum_id FROM curriculum WHERE program_id = ? ORDER BY curriculum_id LIMIT 1";
+    private static final String SELECT_COURSES =
+            "SELECT subject_code, description, equiv_subject_code, prerequisite, semester, term_title, units, year "
+            + "FROM course WHERE curriculum_version_id = ? ORDER BY year_order, term_order, id";
+
+    public record PlannedCourse(String subjectCode, String description, Integer units) {
+    }
+
+    public record PlannedTerm(int year, String yearLabel, int termOrder, String term, int units, List<PlannedCourse> courses) {
+    }
+
+    public record StudyPlan(Long programId, Long curriculumId, int startYear, int startTerm, int maxUnits,
+            List<String> completed, List<PlannedTerm> terms, List<String> unscheduled) {
+    }
+
+    /** Everything about a curriculum the planner needs, indexed by graph node. */
+    record PlanModel(Long programId, Long curriculumId, PrerequisiteGraph graph, String[] descriptions,
+            int[] units, int[] yearOrder, int[] termOrder, int[] height, int[] terms, Map<Integer, String> termLabels) {
+    }
+
+    private record PlanKey(Long curriculumId, String signature) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int defaultMaxUnits;
+    private final int maxCachedPlans;
+    private final Map<Long, PlanModel> models = new ConcurrentHashMap<>();
+    private final LinkedHashMap<PlanKey, StudyPlan> plans = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+
+    public StudyPlanService(JdbcTemplate jdbcTemplate,
+            @Value("${app.study-plan.max-units:24}") int defaultMaxUnits,
+            @Value("${app.study-plan.cache-size:512}") int maxCachedPlans) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultMaxUnits = defaultMaxUnits;
+        this.maxCachedPlans = maxCachedPlans;
+    }
+
+    /**
+     * Plans the remaining courses of {@code student}'s program. {@code completedCodes} replaces the
+     * position-based assumption (everything before the current term is done) when given.
+     */
+    public Optional<StudyPlan> planFor(Student student, Collection<String> completedCodes, Integer maxUnits) {
+        if (student.getProgram() == null || student.getProgram().getId() == null) {
+            return Optional.empty();
+        }
+        long expectedGeneration;
+        synchronized (this) {
+            expectedGeneration = generation;
+        }
+        Optional<PlanModel> maybeModel = model(student.getProgram().getId(), expectedGeneration);
+        if (maybeModel.isEmpty()) {
+            return Optional.empty();
+        }
+        PlanModel model = maybeModel.get();
+        int startYear = student.getYearLevel() == null || student.getYearLevel() < 1 ? 1 : student.getYearLevel();
+        int startTerm = startTermOrder(model, student.getSemester());
+        int limit = maxUnits == null || maxUnits < 1 ? defaultMaxUnits : maxUnits;
+
+        BitSet completed = new BitSet(model.graph().size());
+        if (completedCodes != null) {
+            completed.or(model.graph().toBits(completedCodes));
+        } else {
+            for (int i = 0; i < model.graph().size(); i++) {
+                if (model.yearOrder()[i] < startYear
+                        || (model.yearOrder()[i] == startYear && model.termOrder()[i] < startTerm)) {
+                    completed.set(i);
+                }
+            }
+        }
+
+        PlanKey key = new PlanKey(model.curriculumId(), startYear + ":" + startTerm + ":" + limit + ":" + Arrays.toString(completed.toLongArray()));
+        synchronized (this) {
+            StudyPlan cached = plans.get(key);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        StudyPlan plan = schedule(model, completed, startYear, startTerm, limit);
+        synchronized (this) {
+            if (generation == expectedGeneration) {
+                plans.put(key, plan);
+                if (plans.size() > maxCachedPlans) {
+                    Iterator<PlanKey> eldest = plans.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return Optional.of(plan);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        synchronized (this) {
+            generation++;
+            models.values().removeIf(model -> Objects.equals(model.programId(), event.programId()));
+            plans.clear();
+        }
+    }
+
+    StudyPlan schedule(PlanModel model, BitSet completed, int startYear, int startTerm, int limit) {
+        PrerequisiteGraph graph = model.graph();
+        int n = graph.size();
+        BitSet done = (BitSet) completed.clone();
+        BitSet remaining = new BitSet(n);
+        remaining.set(0, n);
+        remaining.andNot(done);
+
+        // Candidates in priority order: longest chain of dependents first, then curriculum position
+        Integer[] priority = new Integer[n];
+        for (int i = 0; i < n; i++) priority[i] = i;
+        Arrays.sort(priority, Comparator.<Integer>comparingInt(i -> -model.height()[i])
+                .thenComparingInt(i -> model.yearOrder()[i])
+                .thenComparingInt(i -> model.termOrder()[i])
+                .thenComparingInt(i -> i));
+
+        List<PlannedTerm> terms = new ArrayList<>();
+        int[] termCycle = model.terms();
+        int year = startYear;
+        // A start term outside the cycle (Summer in a two-semester curriculum) begins at the next term that exists
+        int termIndex = Arrays.binarySearch(termCycle, startTerm);
+        if (termIndex < 0) {
+            termIndex = -(termIndex + 1);
+            if (termIndex == termCycle.length) {
+                termIndex = 0;
+                year++;
+            }
+        }
+        int idleTerms = 0;
+        // Each full cycle without progress means the rest can never be placed (cycles or never-offered terms)
+        while (!remaining.isEmpty() && idleTerms <= termCycle.length) {
+            int termOrder = termCycle[termIndex];
+            List<PlannedCourse> courses = new ArrayList<>();
+            BitSet takenThisTerm = new BitSet(n);
+            int units = 0;
+            for (int node : priority) {
+                if (!remaining.get(node)) continue;
+                int offered = model.termOrder()[node];
+                if (offered != Integer.MAX_VALUE && offered != termOrder) continue;
+                BitSet missing = graph.prerequisitesOf(node);
+                missing.andNot(done);
+                if (!missing.isEmpty()) continue;
+                int courseUnits = model.units()[node];
+                // An oversized course still goes into an otherwise empty term
+                if (units + courseUnits > limit && !courses.isEmpty()) continue;
+                courses.add(new PlannedCourse(graph.codeAt(node), model.descriptions()[node], courseUnits));
+                takenThisTerm.set(node);
+                units += courseUnits;
+            }
+            if (courses.isEmpty()) {
+                idleTerms++;
+            } else {
+                idleTerms = 0;
+                done.or(takenThisTerm);
+                remaining.andNot(takenThisTerm);
+                terms.add(new PlannedTerm(year, CurriculumLabels.toYearLabel(year), termOrder,
+                        model.termLabels().getOrDefault(termOrder, "Term " + termOrder), units, List.copyOf(courses)));
+            }
+            termIndex++;
+            if (termIndex == termCycle.length) {
+                termIndex = 0;
+                year++;
+            }
+        }
+
+        List<String> unscheduled = new ArrayList<>();
+        for (int i = remaining.nextSetBit(0); i >= 0; i = remaining.nextSetBit(i + 1)) unscheduled.add(graph.codeAt(i));
+        List<String> completedCodes = new ArrayList<>();
+        for (int i = completed.nextSetBit(0); i >= 0; i = completed.nextSetBit(i + 1)) completedCodes.add(graph.codeAt(i));
+        return new StudyPlan(model.programId(), model.curriculumId(), startYear, startTerm, limit,
+                List.copyOf(completedCodes), List.copyOf(terms), List.copyOf(unscheduled));
+    }
+
+    private int startTermOrder(PlanModel model, String semester) {
+        int order = CurriculumLabels.termOrder(semester);
+        if (order != Integer.MAX_VALUE) {
+            return order;
+        }
+        // Summer follows the year's numbered terms; anything else unreadable starts at the first term
+        boolean summer = semester != null && semester.trim().toLowerCase(Locale.ROOT).startsWith("summer");
+        int[] terms = model.terms();
+        return summer ? terms[terms.length - 1] + 1 : terms[0];
+    }
+
+    private Optional<PlanModel> model(Long programId, long expectedGeneration) {
+        PlanModel cached = models.get(programId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        List<Long> versions = jdbcTemplate.queryForList(SELECT_VERSION, Long.class, programId);
+        if (versions.isEmpty()) {
+            return Optional.empty();
+        }
+        Long curriculumId = versions.get(0);
+        List<CurriculumItem> items = jdbcTemplate.query(SELECT_COURSES, (rs, i) -> new CurriculumItem(
+                rs.getString("subject_code"), rs.getString("description"), rs.getString("equiv_subject_code"),
+                rs.getString("prerequisite"), rs.getString("semester"), rs.getString("term_title"),
+                rs.getObject("units", Integer.class), rs.getObject("year", Integer.class)), curriculumId);
+        PlanModel model = buildModel(programId, curriculumId, items);
+        synchronized (this) {
+            if (generation == expectedGeneration) {
+                models.put(programId, model);
+            }
+        }
+        return Optional.of(model);
+    }
+
+    PlanModel buildModel(Long programId, Long curriculumId, List<CurriculumItem> items) {
+        PrerequisiteGraph graph = PrerequisiteGraph.build(items);
+        int n = graph.size();
+        String[] descriptions = new String[n];
+        int[] units = new int[n];
+        int[] yearOrder = new int[n];
+        int[] termOrder = new int[n];
+        Arrays.fill(yearOrder, Integer.MAX_VALUE);
+        Arrays.fill(termOrder, Integer.MAX_VALUE);
+        boolean[] seen = new boolean[n];
+        TreeMap<Integer, String> termLabels = new TreeMap<>();
+        for (CurriculumItem item : items) {
+            int node = graph.indexOf(item.subjectCode());
+            String label = CurriculumLabels.resolveTermLabel(item.semester(), item.termTitle());
+            int order = CurriculumLabels.termOrder(label);
+            if (order != Integer.MAX_VALUE) termLabels.putIfAbsent(order, label.trim());
+            if (node < 0 || seen[node]) continue;
+            seen[node] = true;
+            descriptions[node] = item.description();
+            units[node] = item.units() == null ? 0 : item.units();
+            yearOrder[node] = CurriculumLabels.yearOrder(item.year());
+            termOrder[node] = order;
+        }
+        int[] terms = termLabels.isEmpty() ? new int[]{1, 2} : termLabels.keySet().stream().mapToInt(Integer::intValue).toArray();
+        if (termLabels.isEmpty()) {
+            termLabels.put(1, "First Semester");
+            termLabels.put(2, "Second Semester");
+        }
+
+        // Memoised longest chain of dependents below each course; nodes on a cycle are cut off at the back edge
+        List<List<Integer>> dependents = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) dependents.add(new ArrayList<>());
+        for (int i = 0; i < n; i++) {
+            BitSet pre = graph.prerequisitesOf(i);
+            for (int p = pre.nextSetBit(0); p >= 0; p = pre.nextSetBit(p + 1)) dependents.get(p).add(i);
+        }
+        int[] height = new int[n];
+        byte[] state = new byte[n];
+        for (int i = 0; i < n; i++) chainHeight(i, dependents, height, state);
+        return new PlanModel(programId, curriculumId, graph, descriptions, units, yearOrder, termOrder, height, terms,
+                Map.copyOf(new HashMap<>(termLabels)));
+    }
+
+    private static int chainHeight(int node, List<List<Integer>> dependents, int[] height, byte[] state) {
+        if (state[node] == 2) return height[node];
+        if (state[node] == 1) return 0;
+        state[node] = 1;
+        int best = 0;
+        for (int next : dependents.get(node)) best = Math.max(best, chainHeight(next, dependents, height, state));
+        height[node] = best + 1;
+        state[node] = 2;
+        return height[node];
+    }
+}
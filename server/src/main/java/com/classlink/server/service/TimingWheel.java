@@ -0,0 +1,139 @@
+package com.classlink.server.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck) over a fixed tick. Each of the {@value #LEVELS} levels has
+ * 64 slots and covers 64 times the span of the level below, so with one-minute ticks the wheel spans
+ * about 31 years. Scheduling is O(1): the entry goes straight into the slot of the coarsest level that
+ * still separates it from now. Advancing one tick expires a single level-0 slot and, on a level boundary,
+ * cascades one slot of the next level down. Not thread-safe; callers synchronise.
+ */
+public final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private record Entry<T>(long dueTick, T value) {
+    }
+
+    private final long tickMillis;
+    private final ArrayDeque<Entry<T>>[][] slots;
+    private final List<Entry<T>> ready = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    // Generic array creation: the slots only ever hold Entry<T>
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.slots = new ArrayDeque[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots[level][slot] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Schedules {@code value} for {@code dueMillis}; anything already due is returned by the next advance. */
+    public void schedule(long dueMillis, T value) {
+        place(new Entry<>(Math.floorDiv(dueMillis, tickMillis), value));
+        size++;
+    }
+
+    /** Moves the wheel to {@code nowMillis} and returns every value that fell due, in tick order. */
+    public List<T> advanceTo(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        drainReady(expired);
+        if (targetTick - currentTick > (long) SLOTS * SLOTS) {
+            // Long gap (suspended host, clock jump): re-place everything instead of stepping tick by tick
+            rehome(targetTick);
+            drainReady(expired);
+            return expired;
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            ArrayDeque<Entry<T>> slot = slots[0][(int) (currentTick & SLOT_MASK)];
+            while (!slot.isEmpty()) {
+                Entry<T> entry = slot.poll();
+                if (entry.dueTick() <= currentTick) {
+                    expired.add(entry.value());
+                    size--;
+                } else {
+                    place(entry);
+                }
+            }
+            drainReady(expired);
+        }
+        return expired;
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.dueTick() - currentTick;
+        if (delta <= 0) {
+            ready.add(entry);
+            return;
+        }
+        long due = delta >= SPAN ? currentTick + SPAN - 1 : entry.dueTick();
+        long span = Math.min(delta, SPAN - 1);
+        int level = 0;
+        while (level < LEVELS - 1 && span >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slots[level][(int) ((due >>> (SLOT_BITS * level)) & SLOT_MASK)].add(entry);
+    }
+
+    // Entering a new block of level-1 ticks pulls that block's slot down; recurse up on wrap-around
+    private void cascade(int level) {
+        if (level >= LEVELS || (currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        cascade(level + 1);
+        ArrayDeque<Entry<T>> slot = slots[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        int pending = slot.size();
+        for (int i = 0; i < pending; i++) {
+            place(slot.poll());
+        }
+    }
+
+    private void rehome(long targetTick) {
+        List<Entry<T>> all = new ArrayList<>(size);
+        for (ArrayDeque<Entry<T>>[] level : slots) {
+            for (ArrayDeque<Entry<T>> slot : level) {
+                all.addAll(slot);
+                slot.clear();
+            }
+        }
+        currentTick = targetTick;
+        for (Entry<T> entry : all) {
+            place(entry);
+        }
+    }
+
+    private void drainReady(List<T> expired) {
+        if (ready.isEmpty()) {
+            return;
+        }
+        ready.sort((a, b) -> Long.compare(a.dueTick(), b.dueTick()));
+        for (Entry<T> entry : ready) {
+            expired.add(entry.value());
+        }
+        size -= ready.size();
+        ready.clear();
+    }
+}
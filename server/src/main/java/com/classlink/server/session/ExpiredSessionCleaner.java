@@ -0,0 +1,47 @@
+package com.classlink.server.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes expired sessions in bounded batches. Each statement range-scans the EXPIRY_TIME index and
+ * deletes at most {@code batchSize} rows, so a large backlog never holds long locks on the session table.
+ * Attribute rows go with their session through the ON DELETE CASCADE foreign key.
+ */
+@Component
+public class ExpiredSessionCleaner {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredSessionCleaner.class);
+    private static final String DELETE_EXPIRED_BATCH =
+            "DELETE FROM SPRING_SESSION WHERE EXPIRY_TIME < ? ORDER BY EXPIRY_TIME LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionMetrics metrics;
+    private final int batchSize;
+
+    public ExpiredSessionCleaner(JdbcTemplate jdbcTemplate, SessionMetrics metrics,
+            @Value("${app.session.cleanup-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.session.cleanup-cron:0 * * * * *}")
+    public void cleanUpExpiredSessions() {
+        long now = System.currentTimeMillis();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_EXPIRED_BATCH, now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            metrics.recordExpiredSessionsRemoved(total);
+            log.debug("Removed {} expired sessions", total);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.classlink.server.session;
+
+import java.util.Map;
+
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+
+/**
+ * Decorates the JDBC session repository with {@link SessionMetrics} counters. The delegate keeps doing the
+ * real work: attribute deltas are tracked per session and flushed once, in a single batch, when the
+ * {@code SessionRepositoryFilter} commits the session at the end of the request.
+ */
+public class MeteredSessionRepository<S extends Session> implements FindByIndexNameSessionRepository<S> {
+
+    private final FindByIndexNameSessionRepository<S> delegate;
+    private final SessionMetrics metrics;
+
+    public MeteredSessionRepository(FindByIndexNameSessionRepository<S> delegate, SessionMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public S createSession() {
+        metrics.recordCreate();
+        return delegate.createSession();
+    }
+
+    @Override
+    public void save(S session) {
+        metrics.recordWrite();
+        delegate.save(session);
+    }
+
+    @Override
+    public S findById(String id) {
+        metrics.recordRead();
+        return delegate.findById(id);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        metrics.recordDelete();
+        delegate.deleteById(id);
+    }
+
+    @Override
+    public Map<String, S> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        metrics.recordRead();
+        return delegate.findByIndexNameAndIndexValue(indexName, indexValue);
+    }
+}
@@ -0,0 +1,99 @@
+package com.classlink.server.session;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts session store round trips, both in total and for the request currently running on this thread.
+ */
+@Component
+public class SessionMetrics {
+
+    private static final ThreadLocal<RequestCounts> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder creates = new LongAdder();
+    private final LongAdder deletes = new LongAdder();
+    private final LongAccumulator maxReadsPerRequest = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator maxWritesPerRequest = new LongAccumulator(Long::max, 0);
+    private final LongAdder expiredSessionsRemoved = new LongAdder();
+
+    public static final class RequestCounts {
+        private int reads;
+        private int writes;
+
+        public int getReads() {
+            return reads;
+        }
+
+        public int getWrites() {
+            return writes;
+        }
+    }
+
+    void beginRequest() {
+        CURRENT.set(new RequestCounts());
+    }
+
+    RequestCounts endRequest() {
+        RequestCounts counts = CURRENT.get();
+        CURRENT.remove();
+        if (counts == null) {
+            return new RequestCounts();
+        }
+        requests.increment();
+        maxReadsPerRequest.accumulate(counts.reads);
+        maxWritesPerRequest.accumulate(counts.writes);
+        return counts;
+    }
+
+    void recordRead() {
+        reads.increment();
+        RequestCounts counts = CURRENT.get();
+        if (counts != null) {
+            counts.reads++;
+        }
+    }
+
+    void recordWrite() {
+        writes.increment();
+        RequestCounts counts = CURRENT.get();
+        if (counts != null) {
+            counts.writes++;
+        }
+    }
+
+    void recordCreate() {
+        creates.increment();
+    }
+
+    void recordDelete() {
+        deletes.increment();
+    }
+
+    void recordExpiredSessionsRemoved(int count) {
+        expiredSessionsRemoved.add(count);
+    }
+
+    public Map<String, Object> snapshot() {
+        long requestCount = requests.sum();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("requests", requestCount);
+        out.put("reads", reads.sum());
+        out.put("writes", writes.sum());
+        out.put("creates", creates.sum());
+        out.put("deletes", deletes.sum());
+        out.put("readsPerRequest", requestCount == 0 ? 0.0 : (double) reads.sum() / requestCount);
+        out.put("writesPerRequest", requestCount == 0 ? 0.0 : (double) writes.sum() / requestCount);
+        out.put("maxReadsPerRequest", maxReadsPerRequest.get());
+        out.put("maxWritesPerRequest", maxWritesPerRequest.get());
+        out.put("expiredSessionsRemoved", expiredSessionsRemoved.sum());
+        return out;
+    }
+}
@@ -0,0 +1,46 @@
+package com.classlink.server.session;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Wraps the session repository filter so the session commit at the end of the request is counted too.
+ */
+@Component
+@Order(SessionRepositoryFilter.DEFAULT_ORDER - 10)
+public class SessionMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionMetricsFilter.class);
+
+    private final SessionMetrics metrics;
+
+    public SessionMetricsFilter(SessionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        metrics.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SessionMetrics.RequestCounts counts = metrics.endRequest();
+            if (log.isDebugEnabled() && (counts.getReads() > 0 || counts.getWrites() > 0)) {
+                log.debug("Session store reads={} writes={} for {} {}", counts.getReads(), counts.getWrites(),
+                        request.getMethod(), request.getRequestURI());
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.classlink.server.storage;
+
+import java.time.Instant;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * What a {@link BlobStore} knows about a stored object without reading it.
+ *
+ * @param key          key below the store root, e.g. {@code profile/ab/cd/<hash>.png}
+ * @param size         length in bytes
+ * @param mediaType    content type, or {@code application/octet-stream} when unknown
+ * @param lastModified when the object was last written
+ */
+public record BlobMetadata(String key, long size, String mediaType, Instant lastModified) {
+
+    private static final Pattern HASHED_NAME = Pattern.compile("^([0-9a-f]{64})(-\\d+)?\\.[a-z]+$");
+
+    /** Strong validator: the content hash for hashed names, otherwise size and modification time. */
+    public String etag() {
+        return etag(key.substring(key.lastIndexOf('/') + 1), size, lastModified.toEpochMilli());
+    }
+
+    public static String etag(String name, long size, long lastModifiedMillis) {
+        Matcher hashed = name == null ? null : HASHED_NAME.matcher(name);
+        if (hashed != null && hashed.matches()) {
+            return hashed.group(1).substring(0, 32) + (hashed.group(2) == null ? "" : hashed.group(2));
+        }
+        return Long.toHexString(size) + "-" + Long.toHexString(lastModifiedMillis);
+    }
+}
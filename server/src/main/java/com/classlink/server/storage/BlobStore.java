@@ -0,0 +1,71 @@
+package com.classlink.server.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Where uploaded files live. Keys are relative, slash-separated paths such as
+ * {@code profile/ab/cd/<hash>.png}; the first segment is the upload area. Writes replace any existing
+ * object under the key in one step, so readers see either the old or the new content, never a mix.
+ *
+ * <p>Backends: {@link FileSystemBlobStore} (the default), {@link InMemoryBlobStore} for tests and local
+ * runs, and {@link S3BlobStore} for S3-compatible object storage. The backend is chosen with
+ * {@code app.storage.backend}.</p>
+ */
+public interface BlobStore {
+
+    /** Streams {@code size} bytes from {@code content} into the store under {@code key}. */
+    BlobMetadata put(String key, InputStream content, long size, String mediaType) throws IOException;
+
+    /**
+     * Stores a finished local file under {@code key}. The file is consumed: backends on the same disk
+     * move it into place rather than copying it, others upload it and delete it.
+     */
+    default BlobMetadata putFile(String key, Path file, String mediaType) throws IOException {
+        try (InputStream content = Files.newInputStream(file)) {
+            BlobMetadata stored = put(key, content, Files.size(file), mediaType);
+            Files.deleteIfExists(file);
+            return stored;
+        }
+    }
+
+    /** The object as a readable resource, or {@code null} if there is none under the key. */
+    Resource get(String key) throws IOException;
+
+    /** Metadata for the object, or {@code null} if there is none under the key. */
+    BlobMetadata stat(String key) throws IOException;
+
+    /** Removes the object; returns whether something was removed (backends that cannot tell return true). */
+    boolean delete(String key) throws IOException;
+
+    /** Visits every object whose key starts with {@code prefix}, streaming through large listings. */
+    void forEach(String prefix, Consumer<BlobMetadata> action) throws IOException;
+
+    /**
+     * A URL that lets a client fetch the object directly from the backend until it expires, or
+     * {@code null} when the backend has no such URLs and the application serves the bytes itself.
+     */
+    default URI signedUrl(String key, Duration ttl) {
+        return null;
+    }
+
+    /** Whether {@code key} is a well-formed key: relative, no empty, dot or dot-dot segments. */
+    static boolean isValidKey(String key) {
+        if (key == null || key.isEmpty() || key.startsWith("/") || key.endsWith("/") || key.indexOf('\\') >= 0) {
+            return false;
+        }
+        for (String segment : key.split("/")) {
+            if (segment.isEmpty() || segment.startsWith(".")) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
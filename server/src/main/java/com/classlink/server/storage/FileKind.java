@@ -0,0 +1,74 @@
+package com.classlink.server.storage;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Upload formats we accept, recognised by their leading magic bytes rather than the client-declared
+ * content type or file name.
+ */
+public enum FileKind {
+    JPEG("image/jpeg", ".jpg"),
+    PNG("image/png", ".png"),
+    GIF("image/gif", ".gif"),
+    WEBP("image/webp", ".webp"),
+    PDF("application/pdf", ".pdf");
+
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private final String mediaType;
+    private final String extension;
+
+    FileKind(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public boolean isImage() {
+        return this != PDF;
+    }
+
+    /** Kind of a file starting with {@code head[0..length)}, or {@code null} if unrecognised. */
+    static FileKind detect(byte[] head, int length) {
+        if (length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return JPEG;
+        }
+        if (startsWith(head, length, PNG_SIGNATURE)) {
+            return PNG;
+        }
+        if (startsWith(head, length, ascii("GIF87a")) || startsWith(head, length, ascii("GIF89a"))) {
+            return GIF;
+        }
+        if (length >= 12 && startsWith(head, length, ascii("RIFF"))
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return WEBP;
+        }
+        if (startsWith(head, length, ascii("%PDF-"))) {
+            return PDF;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int length, byte[] prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (head[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,151 @@
+package com.classlink.server.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+/**
+ * Keeps blobs as files below a root directory, one file per key. Upload keys are already sharded by hash
+ * ({@code <area>/ab/cd/<hash>.<ext>}), so no directory grows past a few hundred entries, and the layout
+ * matches what {@code /static/**} has always served. Writes go to a temporary file under
+ * {@code <root>/.incoming} and are renamed into place; dot-directories are never listed.
+ */
+public class FileSystemBlobStore implements BlobStore {
+
+    private final Path root;
+    private final Path incoming;
+
+    public FileSystemBlobStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        this.incoming = this.root.resolve(".incoming");
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    @Override
+    public BlobMetadata put(String key, InputStream content, long size, String mediaType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(incoming);
+        Path temp = incoming.resolve(UUID.randomUUID() + ".tmp");
+        try {
+            long copied = Files.copy(content, temp);
+            if (size >= 0 && copied != size) {
+                throw new IOException("Expected " + size + " bytes for " + key + " but got " + copied);
+            }
+            moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return stat(key);
+    }
+
+    @Override
+    public BlobMetadata putFile(String key, Path file, String mediaType) throws IOException {
+        Path target = resolve(key);
+        try {
+            moveIntoPlace(file, target);
+        } catch (AtomicMoveNotSupportedException ex) {
+            // Staged on another file system: copy next to the store first so the final step is still a rename
+            try (InputStream content = Files.newInputStream(file)) {
+                put(key, content, Files.size(file), mediaType);
+            }
+            Files.deleteIfExists(file);
+        }
+        return stat(key);
+    }
+
+    // Always replaces: identical content under a hashed key is harmless to overwrite, and the fresh
+    // timestamp is what keeps the upload collector's grace period from removing a just-referenced blob
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public Resource get(String key) throws IOException {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? new FileSystemResource(path) : null;
+    }
+
+    @Override
+    public BlobMetadata stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            return attrs.isRegularFile() ? metadata(key, attrs) : null;
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public void forEach(String prefix, Consumer<BlobMetadata> action) throws IOException {
+        // Walk from the deepest directory the prefix names, then filter on the rest of it
+        int slash = prefix.lastIndexOf('/');
+        Path start = slash < 0 ? root : root.resolve(prefix.substring(0, slash)).normalize();
+        if (!start.startsWith(root) || !Files.isDirectory(start)) {
+            return;
+        }
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return !dir.equals(root) && dir.getFileName().toString().startsWith(".")
+                        ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String key = keyOf(file);
+                if (attrs.isRegularFile() && key.startsWith(prefix) && key.indexOf('/') > 0) {
+                    action.accept(metadata(key, attrs));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                // Removed while walking; nothing to report
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private Path resolve(String key) {
+        if (!BlobStore.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return root.resolve(key);
+    }
+
+    private String keyOf(Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static BlobMetadata metadata(String key, BasicFileAttributes attrs) {
+        return new BlobMetadata(key, attrs.size(), mediaTypeOf(key), attrs.lastModifiedTime().toInstant());
+    }
+
+    static String mediaTypeOf(String key) {
+        return MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.classlink.server.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Keeps blobs in a sorted map on the heap. Meant for tests and throwaway local runs: nothing survives a
+ * restart and every object costs its full size in memory.
+ */
+public class InMemoryBlobStore implements BlobStore {
+
+    private record Blob(byte[] data, String mediaType, Instant lastModified) {
+    }
+
+    private final ConcurrentSkipListMap<String, Blob> blobs = new ConcurrentSkipListMap<>();
+
+    @Override
+    public BlobMetadata put(String key, InputStream content, long size, String mediaType) throws IOException {
+        checkKey(key);
+        byte[] data = content.readAllBytes();
+        if (size >= 0 && data.length != size) {
+            throw new IOException("Expected " + size + " bytes for " + key + " but got " + data.length);
+        }
+        Blob blob = new Blob(data, mediaType, Instant.now());
+        blobs.put(key, blob);
+        return metadata(key, blob);
+    }
+
+    @Override
+    public Resource get(String key) {
+        Blob blob = blobs.get(key);
+        return blob == null ? null : new ByteArrayResource(blob.data(), key);
+    }
+
+    @Override
+    public BlobMetadata stat(String key) {
+        Blob blob = blobs.get(key);
+        return blob == null ? null : metadata(key, blob);
+    }
+
+    @Override
+    public boolean delete(String key) {
+        return blobs.remove(key) != null;
+    }
+
+    @Override
+    public void forEach(String prefix, Consumer<BlobMetadata> action) {
+        ConcurrentNavigableMap<String, Blob> range = prefix.isEmpty() ? blobs : blobs.tailMap(prefix, true);
+        for (Map.Entry<String, Blob> entry : range.entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            action.accept(metadata(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private static BlobMetadata metadata(String key, Blob blob) {
+        String mediaType = blob.mediaType() != null ? blob.mediaType() : FileSystemBlobStore.mediaTypeOf(key);
+        return new BlobMetadata(key, blob.data().length, mediaType, blob.lastModified());
+    }
+
+    private static void checkKey(String key) {
+        if (!BlobStore.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.classlink.server.storage;
+
+/**
+ * Open-addressing set of {@code long} values with linear probing: eight bytes per slot and no boxing, so
+ * hundreds of thousands of fingerprints fit in a few megabytes. Add and lookup only.
+ */
+final class LongHashSet {
+
+    // Zero marks an empty slot, so a real zero is stored as this stand-in
+    private static final long ZERO_KEY = 0x9E3779B97F4A7C15L;
+
+    private long[] slots;
+    private int size;
+
+    LongHashSet(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        this.slots = new long[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean add(long value) {
+        long key = value == 0 ? ZERO_KEY : value;
+        if ((size + 1) * 2 > slots.length) {
+            grow();
+        }
+        if (insert(slots, key)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    boolean contains(long value) {
+        long key = value == 0 ? ZERO_KEY : value;
+        int mask = slots.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long slot = slots[i];
+            if (slot == key) {
+                return true;
+            }
+            if (slot == 0) {
+                return false;
+            }
+        }
+    }
+
+    private static boolean insert(long[] table, long key) {
+        int mask = table.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long slot = table[i];
+            if (slot == key) {
+                return false;
+            }
+            if (slot == 0) {
+                table[i] = key;
+                return true;
+            }
+        }
+    }
+
+    private void grow() {
+        long[] larger = new long[slots.length * 2];
+        for (long key : slots) {
+            if (key != 0) {
+                insert(larger, key);
+            }
+        }
+        slots = larger;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
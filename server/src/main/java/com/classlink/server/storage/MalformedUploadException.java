@@ -0,0 +1,15 @@
+package com.classlink.server.storage;
+
+import java.io.IOException;
+
+/**
+ * The request body is not a well-formed multipart upload.
+ */
+class MalformedUploadException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    MalformedUploadException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,284 @@
+package com.classlink.server.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Forward-only reader for a {@code multipart/form-data} body (RFC 7578). Parts are handed out one at a
+ * time with a body stream that ends at the next boundary, so file content goes straight from the socket
+ * to its destination without being spooled. Reading the next part discards whatever is left of the
+ * current one.
+ */
+final class MultipartStreamReader {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_HEADER_BYTES = 8 * 1024;
+    // Body reads top the buffer up to this much so chunks handed out stay large
+    private static final int READ_AHEAD = BUFFER_SIZE / 2;
+
+    static final class Part {
+        private final String name;
+        private final String filename;
+        private final String contentType;
+        private final InputStream body;
+
+        private Part(String name, String filename, String contentType, InputStream body) {
+            this.name = name;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        String name() {
+            return name;
+        }
+
+        String filename() {
+            return filename;
+        }
+
+        String contentType() {
+            return contentType;
+        }
+
+        InputStream body() {
+            return body;
+        }
+    }
+
+    private final InputStream in;
+    // "\r\n--" + boundary; the buffer starts with a virtual CRLF so the first delimiter matches too
+    private final byte[] delimiter;
+    private final byte[] buf;
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private PartBody current;
+    private boolean finished;
+
+    MultipartStreamReader(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buf = new byte[BUFFER_SIZE + delimiter.length];
+        buf[0] = '\r';
+        buf[1] = '\n';
+        this.limit = 2;
+    }
+
+    /** Boundary parameter of a multipart content type, or {@code null} when there is none. */
+    static String boundaryOf(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            return null;
+        }
+        String boundary = parameter(contentType, "boundary");
+        return boundary == null || boundary.isEmpty() || boundary.length() > 70 ? null : boundary;
+    }
+
+    /** Next part, or {@code null} once the closing boundary has been read. */
+    Part next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (current != null) {
+            current.drain();
+        } else {
+            skipPreamble();
+        }
+        pos += delimiter.length;
+        ensure(2);
+        if (limit - pos >= 2 && buf[pos] == '-' && buf[pos + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        // Rest of the delimiter line: optional transport padding, then CRLF
+        readLine();
+        String name = null;
+        String filename = null;
+        String contentType = null;
+        int headerBytes = 0;
+        while (true) {
+            String line = readLine();
+            headerBytes += line.length() + 2;
+            if (headerBytes > MAX_HEADER_BYTES) {
+                throw new MalformedUploadException("Part headers too large");
+            }
+            if (line.isEmpty()) {
+                break;
+            }
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String header = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (header.equals("content-disposition")) {
+                name = parameter(value, "name");
+                filename = parameter(value, "filename");
+            } else if (header.equals("content-type")) {
+                contentType = value;
+            }
+        }
+        current = new PartBody();
+        return new Part(name, filename, contentType, current);
+    }
+
+    private void skipPreamble() throws IOException {
+        while (true) {
+            ensure(READ_AHEAD);
+            int found = indexOfDelimiter();
+            if (found >= 0) {
+                pos = found;
+                return;
+            }
+            if (eof) {
+                throw new MalformedUploadException("Multipart boundary not found");
+            }
+            pos = Math.max(pos, limit - delimiter.length + 1);
+        }
+    }
+
+    private final class PartBody extends InputStream {
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            ensure(READ_AHEAD);
+            int found = indexOfDelimiter();
+            int available;
+            if (found >= 0) {
+                available = found - pos;
+                if (available == 0) {
+                    done = true;
+                    return -1;
+                }
+            } else if (eof) {
+                throw new MalformedUploadException("Upload ended before the closing boundary");
+            } else {
+                // The tail may hold the start of a delimiter; keep it until more bytes arrive
+                available = limit - pos - (delimiter.length - 1);
+            }
+            int n = Math.min(len, available);
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        void drain() throws IOException {
+            byte[] skip = new byte[4096];
+            while (read(skip, 0, skip.length) >= 0) {
+                // discard
+            }
+        }
+    }
+
+    private int indexOfDelimiter() {
+        int last = limit - delimiter.length;
+        outer:
+        for (int i = pos; i <= last; i++) {
+            if (buf[i] != delimiter[0]) {
+                continue;
+            }
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buf[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // Makes at least count unread bytes available unless the stream ends first
+    private void ensure(int count) throws IOException {
+        if (limit - pos >= count || eof) {
+            return;
+        }
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        while (limit - pos < count) {
+            int n = in.read(buf, limit, buf.length - limit);
+            if (n < 0) {
+                eof = true;
+                return;
+            }
+            limit += n;
+        }
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            ensure(2);
+            if (limit - pos < 2) {
+                throw new MalformedUploadException("Upload ended inside part headers");
+            }
+            if (buf[pos] == '\r' && buf[pos + 1] == '\n') {
+                pos += 2;
+                return line.toString();
+            }
+            line.append((char) (buf[pos++] & 0xFF));
+            if (line.length() > MAX_HEADER_BYTES) {
+                throw new MalformedUploadException("Part headers too large");
+            }
+        }
+    }
+
+    private static String parameter(String header, String name) {
+        int i = 0;
+        int length = header.length();
+        while (i < length) {
+            int semicolon = header.indexOf(';', i);
+            if (semicolon < 0) {
+                return null;
+            }
+            i = semicolon + 1;
+            while (i < length && header.charAt(i) == ' ') i++;
+            int equals = header.indexOf('=', i);
+            if (equals < 0) {
+                return null;
+            }
+            String key = header.substring(i, equals).trim();
+            i = equals + 1;
+            String value;
+            if (i < length && header.charAt(i) == '"') {
+                StringBuilder quoted = new StringBuilder();
+                i++;
+                while (i < length && header.charAt(i) != '"') {
+                    char c = header.charAt(i++);
+                    if (c == '\\' && i < length) {
+                        c = header.charAt(i++);
+                    }
+                    quoted.append(c);
+                }
+                i++;
+                value = quoted.toString();
+            } else {
+                int end = header.indexOf(';', i);
+                value = header.substring(i, end < 0 ? length : end).trim();
+                i = end < 0 ? length : end;
+            }
+            if (key.equalsIgnoreCase(name)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,270 @@
+package com.classlink.server.storage;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Blobs in an S3-compatible bucket (AWS S3, MinIO, Ceph RGW, LocalStack, ...), spoken to over plain HTTP
+ * with SigV4 signing so no SDK is needed. Bodies stream in both directions; uploads are sent as
+ * {@code UNSIGNED-PAYLOAD} so the file is read once. Local stand-ins usually need path-style addressing
+ * ({@code endpoint/bucket/key}) rather than virtual-hosted buckets.
+ *
+ * <p>{@link #signedUrl} hands out presigned GET URLs. The signing time is rounded down to half the
+ * lifetime, so repeated requests get the same URL for a while and browsers can cache the object.</p>
+ */
+public class S3BlobStore implements BlobStore {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient httpClient;
+    private final SigV4Signer signer;
+    private final URI endpoint;
+    private final String bucket;
+    private final boolean pathStyle;
+
+    public S3BlobStore(URI endpoint, String region, String bucket, String accessKey, String secretKey,
+            boolean pathStyle) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.signer = new SigV4Signer(accessKey, secretKey, region, "s3");
+        this.endpoint = endpoint;
+        this.bucket = bucket;
+        this.pathStyle = pathStyle;
+    }
+
+    @Override
+    public BlobMetadata put(String key, InputStream content, long size, String mediaType) throws IOException {
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(
+                HttpRequest.BodyPublishers.ofInputStream(() -> content), size);
+        return upload(key, body, size, mediaType);
+    }
+
+    @Override
+    public BlobMetadata putFile(String key, Path file, String mediaType) throws IOException {
+        long size = Files.size(file);
+        BlobMetadata stored = upload(key, HttpRequest.BodyPublishers.ofFile(file), size, mediaType);
+        Files.deleteIfExists(file);
+        return stored;
+    }
+
+    private BlobMetadata upload(String key, HttpRequest.BodyPublisher body, long size, String mediaType)
+            throws IOException {
+        String contentType = mediaType != null ? mediaType : FileSystemBlobStore.mediaTypeOf(key);
+        HttpRequest.Builder request = signed("PUT", objectUri(key))
+                .header("Content-Type", contentType)
+                .PUT(body);
+        HttpResponse<byte[]> response = send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw failure("PUT", key, response);
+        }
+        return new BlobMetadata(key, size, contentType, Instant.now());
+    }
+
+    @Override
+    public Resource get(String key) throws IOException {
+        BlobMetadata metadata = stat(key);
+        return metadata == null ? null : new ObjectResource(metadata);
+    }
+
+    @Override
+    public BlobMetadata stat(String key) throws IOException {
+        URI uri = objectUri(key);
+        HttpResponse<Void> response = send(signed("HEAD", uri).method("HEAD", HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("HEAD " + key + " failed with status " + response.statusCode());
+        }
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        String mediaType = response.headers().firstValue("Content-Type").orElse(FileSystemBlobStore.mediaTypeOf(key));
+        Instant lastModified = response.headers().firstValue("Last-Modified")
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant())
+                .orElse(Instant.EPOCH);
+        return new BlobMetadata(key, size, mediaType, lastModified);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        URI uri = objectUri(key);
+        HttpResponse<byte[]> response = send(signed("DELETE", uri).DELETE().build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2 && response.statusCode() != 404) {
+            throw failure("DELETE", key, response);
+        }
+        return true;
+    }
+
+    @Override
+    public void forEach(String prefix, Consumer<BlobMetadata> action) throws IOException {
+        String continuation = null;
+        do {
+            String query = "list-type=2&max-keys=1000&prefix=" + SigV4Signer.encode(prefix, true)
+                    + (continuation == null ? "" : "&continuation-token=" + SigV4Signer.encode(continuation, true));
+            URI uri = uri("/", query);
+            HttpResponse<InputStream> response = send(signed("GET", uri).GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() / 100 != 2) {
+                    throw new IOException("Listing " + bucket + "/" + prefix + " failed with status " + response.statusCode());
+                }
+                continuation = readListing(body, action);
+            }
+        } while (continuation != null);
+    }
+
+    @Override
+    public URI signedUrl(String key, Duration ttl) {
+        // Same URL for the first half of its lifetime, so it can be cached; it stays valid for at least the other half
+        long window = Math.max(1, ttl.toSeconds() / 2);
+        Instant signedAt = Instant.ofEpochSecond(Instant.now().getEpochSecond() / window * window);
+        return signer.presign("GET", objectUri(key), ttl, signedAt);
+    }
+
+    // ListObjectsV2 response: one <Contents> per object, and a <NextContinuationToken> while truncated
+    private String readListing(InputStream body, Consumer<BlobMetadata> action) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        try {
+            XMLStreamReader xml = factory.createXMLStreamReader(body);
+            String continuation = null;
+            String key = null;
+            long size = 0;
+            Instant lastModified = Instant.EPOCH;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "Contents" -> {
+                            key = null;
+                            size = 0;
+                            lastModified = Instant.EPOCH;
+                        }
+                        case "Key" -> key = xml.getElementText();
+                        case "Size" -> size = Long.parseLong(xml.getElementText().trim());
+                        case "LastModified" -> lastModified = Instant.parse(xml.getElementText().trim());
+                        case "NextContinuationToken" -> continuation = xml.getElementText();
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "Contents".equals(xml.getLocalName()) && key != null) {
+                    action.accept(new BlobMetadata(key, size, FileSystemBlobStore.mediaTypeOf(key), lastModified));
+                }
+            }
+            xml.close();
+            return continuation;
+        } catch (XMLStreamException ex) {
+            throw new IOException("Unreadable bucket listing", ex);
+        }
+    }
+
+    private HttpRequest.Builder signed(String method, URI uri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT);
+        for (Map.Entry<String, String> header : signer.sign(method, uri, SigV4Signer.UNSIGNED_PAYLOAD, Instant.now()).entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        return builder;
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted talking to object storage", ex);
+        }
+    }
+
+    private URI objectUri(String key) {
+        if (!BlobStore.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return uri("/" + SigV4Signer.encode(key, false), null);
+    }
+
+    private URI uri(String path, String rawQuery) {
+        String base = endpoint.toString().replaceAll("/+$", "");
+        String location = pathStyle
+                ? base + "/" + bucket + path
+                : endpoint.getScheme() + "://" + bucket + "." + endpoint.getRawAuthority() + path;
+        return URI.create(rawQuery == null ? location : location + "?" + rawQuery);
+    }
+
+    private static IOException failure(String method, String key, HttpResponse<byte[]> response) {
+        String detail = new String(response.body(), StandardCharsets.UTF_8);
+        return new IOException(method + " " + key + " failed with status " + response.statusCode()
+                + (detail.isBlank() ? "" : ": " + detail.strip()));
+    }
+
+    /** Reads the object with a fresh GET each time a stream is opened. */
+    private final class ObjectResource extends AbstractResource {
+        private final BlobMetadata metadata;
+
+        ObjectResource(BlobMetadata metadata) {
+            this.metadata = metadata;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            URI uri = objectUri(metadata.key());
+            HttpResponse<InputStream> response = send(signed("GET", uri).GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() / 100 != 2) {
+                response.body().close();
+                if (response.statusCode() == 404) {
+                    throw new FileNotFoundException(metadata.key());
+                }
+                throw new IOException("GET " + metadata.key() + " failed with status " + response.statusCode());
+            }
+            return response.body();
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return metadata.size();
+        }
+
+        @Override
+        public long lastModified() {
+            return metadata.lastModified().toEpochMilli();
+        }
+
+        @Override
+        public String getFilename() {
+            return metadata.key().substring(metadata.key().lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public String getDescription() {
+            return "S3 object [" + bucket + "/" + metadata.key() + "]";
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.classlink.server.storage;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * AWS Signature Version 4 for S3-style requests, both as headers and as a presigned query string. Only
+ * {@code host} and the {@code x-amz-*} headers are signed, which is all S3 and its compatible stand-ins
+ * require. URIs must already carry an RFC 3986 encoded path and query (see {@link #encode}).
+ */
+final class SigV4Signer {
+
+    static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    static final long MAX_PRESIGN_SECONDS = Duration.ofDays(7).toSeconds();
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final String accessKey;
+    private final String secretKey;
+    private final String region;
+    private final String service;
+
+    SigV4Signer(String accessKey, String secretKey, String region, String service) {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+        this.service = service;
+    }
+
+    /** Headers to send with the request: {@code x-amz-date}, {@code x-amz-content-sha256} and {@code Authorization}. */
+    Map<String, String> sign(String method, URI uri, String payloadHash, Instant now) {
+        String amzDate = AMZ_DATE.format(now);
+        String scope = scope(amzDate);
+        String signedHeaders = "host;x-amz-content-sha256;x-amz-date";
+        String canonicalHeaders = "host:" + host(uri) + "\n"
+                + "x-amz-content-sha256:" + payloadHash + "\n"
+                + "x-amz-date:" + amzDate + "\n";
+        String canonicalRequest = method + "\n" + canonicalPath(uri) + "\n" + canonicalQuery(uri.getRawQuery()) + "\n"
+                + canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
+        String signature = signature(amzDate, scope, canonicalRequest);
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("x-amz-date", amzDate);
+        headers.put("x-amz-content-sha256", payloadHash);
+        headers.put("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+        return headers;
+    }
+
+    /** {@code uri} with query-string authentication valid for {@code ttl} from {@code signedAt}. */
+    URI presign(String method, URI uri, Duration ttl, Instant signedAt) {
+        String amzDate = AMZ_DATE.format(signedAt);
+        String scope = scope(amzDate);
+        long expires = Math.max(1, Math.min(MAX_PRESIGN_SECONDS, ttl.toSeconds()));
+        String auth = "X-Amz-Algorithm=" + ALGORITHM
+                + "&X-Amz-Credential=" + encode(accessKey + "/" + scope, true)
+                + "&X-Amz-Date=" + amzDate
+                + "&X-Amz-Expires=" + expires
+                + "&X-Amz-SignedHeaders=host";
+        String query = uri.getRawQuery() == null ? auth : uri.getRawQuery() + "&" + auth;
+        String canonicalRequest = method + "\n" + canonicalPath(uri) + "\n" + canonicalQuery(query) + "\n"
+                + "host:" + host(uri) + "\n\n" + "host\n" + UNSIGNED_PAYLOAD;
+        String signature = signature(amzDate, scope, canonicalRequest);
+        return URI.create(withoutQuery(uri) + "?" + query + "&X-Amz-Signature=" + signature);
+    }
+
+    /** RFC 3986 percent-encoding as SigV4 wants it; slashes are kept unless {@code encodeSlash}. */
+    static String encode(String value, boolean encodeSlash) {
+        StringBuilder out = new StringBuilder(value.length() + 16);
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                out.append(c);
+            } else {
+                out.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+        }
+        return out.toString();
+    }
+
+    static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private String scope(String amzDate) {
+        return amzDate.substring(0, 8) + "/" + region + "/" + service + "/aws4_request";
+    }
+
+    private String signature(String amzDate, String scope, String canonicalRequest) {
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n"
+                + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), amzDate.substring(0, 8));
+        key = hmac(key, region);
+        key = hmac(key, service);
+        key = hmac(key, "aws4_request");
+        return HexFormat.of().formatHex(hmac(key, stringToSign));
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 not available", ex);
+        }
+    }
+
+    private static String canonicalPath(URI uri) {
+        String path = uri.getRawPath();
+        return path == null || path.isEmpty() ? "/" : path;
+    }
+
+    // Parameters sorted by name, then value; a bare name gets an empty value
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        List<String[]> params = new ArrayList<>();
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            params.add(eq < 0 ? new String[] { pair, "" } : new String[] { pair.substring(0, eq), pair.substring(eq + 1) });
+        }
+        params.sort((a, b) -> a[0].equals(b[0]) ? a[1].compareTo(b[1]) : a[0].compareTo(b[0]));
+        StringBuilder out = new StringBuilder();
+        for (String[] param : params) {
+            if (out.length() > 0) {
+                out.append('&');
+            }
+            out.append(param[0]).append('=').append(param[1]);
+        }
+        return out.toString();
+    }
+
+    private static String host(URI uri) {
+        int port = uri.getPort();
+        boolean defaultPort = port == -1
+                || ("http".equalsIgnoreCase(uri.getScheme()) && port == 80)
+                || ("https".equalsIgnoreCase(uri.getScheme()) && port == 443);
+        return defaultPort ? uri.getHost() : uri.getHost() + ":" + port;
+    }
+
+    private static String withoutQuery(URI uri) {
+        String text = uri.toString();
+        int query = text.indexOf('?');
+        return query < 0 ? text : text.substring(0, query);
+    }
+}
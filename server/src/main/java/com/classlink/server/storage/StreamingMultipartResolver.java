@@ -0,0 +1,36 @@
+package com.classlink.server.storage;
+
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Multipart resolver that leaves the file upload endpoints alone. For those paths the request reaches
+ * the controller unparsed, so {@link UploadStorageService} can stream the body to its final location
+ * instead of the container spooling it to a temp file first. Every other multipart request (curriculum
+ * imports, for instance) is resolved as before.
+ */
+@Component("multipartResolver")
+public class StreamingMultipartResolver extends StandardServletMultipartResolver {
+
+    private static final Set<String> STREAMING_PATHS = Set.of(
+            "/api/students/me/profile-image",
+            "/api/students/me/requirements",
+            "/api/admin/me/profile-image");
+
+    @Override
+    public boolean isMultipart(HttpServletRequest request) {
+        return super.isMultipart(request) && !isStreamingUpload(request);
+    }
+
+    private static boolean isStreamingUpload(HttpServletRequest request) {
+        if (!"POST".equalsIgnoreCase(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return STREAMING_PATHS.contains(path);
+    }
+}
@@ -0,0 +1,38 @@
+package com.classlink.server.storage;
+
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Serves the original image for a thumbnail URL ({@code <hash>-<size>.jpg}) whose variant has not been
+ * generated yet, so clients can use variant URLs as soon as the upload returns.
+ */
+public class ThumbnailFallbackResolver extends AbstractResourceResolver {
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+            List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource != null) {
+            return resource;
+        }
+        for (String originalPath : ThumbnailService.originalKeys(requestPath)) {
+            Resource original = chain.resolveResource(request, originalPath, locations);
+            if (original != null) {
+                return original;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
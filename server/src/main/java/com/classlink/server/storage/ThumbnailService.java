@@ -0,0 +1,247 @@
+package com.classlink.server.storage;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Produces square JPEG thumbnails of uploaded profile images in the background. Each image is decoded
+ * once, cropped to its centre square during decoding (subsampled when it is much larger than needed),
+ * and scaled down step by step to every size in {@link #SIZES}. Variants are stored next to the original
+ * in the {@link BlobStore} as {@code <hash>-<size>.jpg}; until they exist the original is served under the
+ * variant URL (see {@link #originalKeys(String)}). Work runs on a small bounded pool; when the queue is
+ * full the upload simply keeps using the original.
+ */
+@Service
+public class ThumbnailService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    /** Thumbnail edge lengths in pixels, largest first (each is scaled from the previous one). */
+    public static final int[] SIZES = { 512, 128, 48 };
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+    static final Pattern BLOB_URL = Pattern.compile("^(.*/)([0-9a-f]{64})\\.(jpg|png|gif|webp)$");
+    static final Pattern VARIANT_NAME = Pattern.compile("^([0-9a-f]{64})-(\\d+)\\.jpg$");
+    private static final List<String> ORIGINAL_EXTENSIONS = List.of(".jpg", ".png", ".gif", ".webp");
+
+    private final BlobStore blobStore;
+    private final ThreadPoolExecutor executor;
+    private final float quality;
+
+    public ThumbnailService(BlobStore blobStore,
+            @Value("${app.uploads.thumbnails.threads:2}") int threads,
+            @Value("${app.uploads.thumbnails.queue-capacity:100}") int queueCapacity,
+            @Value("${app.uploads.thumbnails.jpeg-quality:0.82}") float quality) {
+        AtomicInteger counter = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.blobStore = blobStore;
+        this.quality = quality;
+    }
+
+    /** Queues thumbnail generation for a stored image; returns immediately. */
+    public void submit(String originalKey) {
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(originalKey);
+                } catch (IOException | RuntimeException ex) {
+                    log.warn("Could not create thumbnails for {}", originalKey, ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            log.warn("Thumbnail queue full; {} is served at full size", originalKey);
+        }
+    }
+
+    /**
+     * Variant URLs for a stored profile image URL, keyed by size. Empty for URLs that are not
+     * content-addressed blobs (legacy uploads), which have no thumbnails.
+     */
+    public static Map<String, String> variantUrls(String url) {
+        Map<String, String> variants = new LinkedHashMap<>();
+        Matcher matcher = url == null ? null : BLOB_URL.matcher(url);
+        if (matcher != null && matcher.matches()) {
+            for (int size : SIZES) {
+                variants.put(String.valueOf(size), matcher.group(1) + matcher.group(2) + "-" + size + ".jpg");
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Keys the original of a thumbnail may have, for serving it until the variant exists; empty when the
+     * key is not a thumbnail key.
+     */
+    public static List<String> originalKeys(String variantKey) {
+        int slash = variantKey.lastIndexOf('/');
+        Matcher variant = VARIANT_NAME.matcher(variantKey.substring(slash + 1));
+        if (!variant.matches()) {
+            return List.of();
+        }
+        List<String> keys = new ArrayList<>(ORIGINAL_EXTENSIONS.size());
+        for (String extension : ORIGINAL_EXTENSIONS) {
+            keys.add(variantKey.substring(0, slash + 1) + variant.group(1) + extension);
+        }
+        return keys;
+    }
+
+    static String variantKey(String originalKey, int size) {
+        return originalKey.substring(0, originalKey.lastIndexOf('.')) + "-" + size + ".jpg";
+    }
+
+    void generate(String originalKey) throws IOException {
+        boolean missing = false;
+        for (int size : SIZES) {
+            missing |= blobStore.stat(variantKey(originalKey, size)) == null;
+        }
+        // Deduplicated uploads share a blob, and so its thumbnails
+        if (!missing) {
+            return;
+        }
+        Resource original = blobStore.get(originalKey);
+        if (original == null) {
+            return;
+        }
+        BufferedImage square = decodeSquare(original, originalKey, SIZES[0]);
+        if (square == null) {
+            return;
+        }
+        BufferedImage current = square;
+        for (int size : SIZES) {
+            current = scale(current, size);
+            write(current, variantKey(originalKey, size));
+        }
+    }
+
+    // Centre square of the image, subsampled while decoding so it is at least twice the largest thumbnail
+    private BufferedImage decodeSquare(Resource original, String originalKey, int largest) throws IOException {
+        try (InputStream content = original.getInputStream();
+                ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                // e.g. WebP, which the JDK cannot decode; the original stays in use
+                log.debug("No decoder for {}; skipping thumbnails", originalKey);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    log.warn("{} is {}x{}; too large to thumbnail", originalKey, width, height);
+                    return null;
+                }
+                int side = Math.min(width, height);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                int step = Math.max(1, side / (largest * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return toRgb(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // JPEG has no alpha: flatten transparent images onto white
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    // Halve with bilinear filtering until one step from the target, which keeps downscaling smooth;
+    // images smaller than the target are scaled up in one step
+    private static BufferedImage scale(BufferedImage source, int size) {
+        BufferedImage current = source;
+        while (current.getWidth() != size) {
+            int next = current.getWidth() > size ? Math.max(size, current.getWidth() / 2) : size;
+            BufferedImage scaled = new BufferedImage(next, next, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, next, next, null);
+            } finally {
+                g.dispose();
+            }
+            current = scaled;
+        }
+        return current;
+    }
+
+    // Thumbnails are a few kilobytes, so they are encoded in memory and stored in one put
+    private void write(BufferedImage image, String key) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(16 * 1024);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(encoded)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        blobStore.put(key, new ByteArrayInputStream(encoded.toByteArray()), encoded.size(), "image/jpeg");
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
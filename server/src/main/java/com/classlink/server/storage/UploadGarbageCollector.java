@@ -0,0 +1,312 @@
+package com.classlink.server.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconciles the {@link BlobStore} against the profile image and requirements URLs stored on students and
+ * admins, and deletes files nothing points at any more. Referenced URLs are streamed from the database
+ * into a set of 64-bit fingerprints, then the store is listed once. A blob's thumbnails and
+ * precompressed siblings share its fingerprint, so they live and die with it. Files younger than the
+ * grace period are kept, because an upload is on disk before the row that references it is saved.
+ * Those stored URLs are the only source of truth for what is in use; {@code stored_blob} just records
+ * what was uploaded and when, and its rows go with the files.
+ * Deletions run in batches with a pause in between so a large backlog does not saturate the disk.
+ */
+@Component
+public class UploadGarbageCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadGarbageCollector.class);
+
+    private static final String REFERENCED_URLS =
+            "SELECT profile_image_url FROM student WHERE profile_image_url IS NOT NULL "
+            + "UNION ALL SELECT requirements_document_url FROM student WHERE requirements_document_url IS NOT NULL "
+            + "UNION ALL SELECT profile_image_url FROM admin WHERE profile_image_url IS NOT NULL";
+    private static final String RECENTLY_REFERENCED_BLOBS =
+            "SELECT sha256 FROM stored_blob WHERE last_referenced_at > ? AND sha256 IN (%s)";
+    private static final String DELETE_BLOB_ROWS =
+            "DELETE FROM stored_blob WHERE last_referenced_at <= ? AND blob_key IN (%s)";
+    private static final Pattern HASH_STEM = Pattern.compile("^([0-9a-f]{64})(-\\d+)?$");
+    // A thumbnail (<hash>-<size>.jpg) or a precompressed sibling (<hash>.<ext>.gz)
+    private static final Pattern VARIANT_OR_SIBLING = Pattern.compile("^[0-9a-f]{64}(-\\d+|\\.[a-z]+\\.)");
+
+    public record Report(Instant startedAt, long durationMillis, boolean dryRun, int referencedUrls,
+            long scannedFiles, long keptRecent, long deletedFiles, long reclaimedBytes, int failures) {
+    }
+
+    private record Candidate(String key, long size, String blobHash, String blobKey) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+    private final UploadStorageService uploadStorageService;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Report lastReport;
+
+    public UploadGarbageCollector(JdbcTemplate jdbcTemplate, BlobStore blobStore,
+            UploadStorageService uploadStorageService,
+            @Value("${app.uploads.gc.grace-period:PT24H}") Duration gracePeriod,
+            @Value("${app.uploads.gc.batch-size:200}") int batchSize,
+            @Value("${app.uploads.gc.batch-pause:PT0.2S}") Duration batchPause) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+        this.uploadStorageService = uploadStorageService;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPause = batchPause;
+    }
+
+    @Scheduled(cron = "${app.uploads.gc.cron:0 30 3 * * *}")
+    public void scheduledCollect() {
+        collect(false);
+    }
+
+    public Report lastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Runs one collection; with {@code dryRun} nothing is deleted and the report shows what would be.
+     *
+     * @return the report, or {@code null} when a collection is already running
+     */
+    public Report collect(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            Report report = run(dryRun);
+            lastReport = report;
+            log.info("Upload collection{}: {} files scanned, {} deleted, {} bytes reclaimed, {} kept as recent, {} failures",
+                    dryRun ? " (dry run)" : "", report.scannedFiles(), report.deletedFiles(), report.reclaimedBytes(),
+                    report.keptRecent(), report.failures());
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Report run(boolean dryRun) {
+        Instant started = Instant.now();
+        Instant cutoff = started.minus(gracePeriod);
+        LongHashSet referenced = new LongHashSet(1024);
+        int[] urls = new int[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(REFERENCED_URLS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J streams rows one at a time with this fetch size instead of buffering the result
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            String key = referenceKey(UploadStorageService.keyOf(rs.getString(1)));
+            if (key != null) {
+                referenced.add(fingerprint(key));
+                urls[0]++;
+            }
+        });
+
+        Sweep sweep = new Sweep(dryRun, cutoff, referenced);
+        try {
+            blobStore.forEach("", sweep);
+            sweep.flush();
+        } catch (IOException | UncheckedIOException ex) {
+            log.error("Upload collection stopped while listing stored uploads", ex);
+            sweep.failures++;
+        }
+        sweepStaging(sweep, cutoff, dryRun);
+        return new Report(started, Duration.between(started, Instant.now()).toMillis(), dryRun, urls[0],
+                sweep.scanned, sweep.keptRecent, sweep.deleted, sweep.reclaimed, sweep.failures);
+    }
+
+    // Uploads that never finished leave a part file behind in the local staging directory
+    private void sweepStaging(Sweep sweep, Instant cutoff, boolean dryRun) {
+        Path staging = uploadStorageService.stagingDir();
+        if (!Files.isDirectory(staging)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(staging)) {
+            for (Path file : files) {
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                if (!attrs.isRegularFile() || attrs.lastModifiedTime().toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+                sweep.scanned++;
+                if (dryRun || Files.deleteIfExists(file)) {
+                    sweep.deleted++;
+                    sweep.reclaimed += attrs.size();
+                }
+            }
+        } catch (IOException ex) {
+            sweep.failures++;
+            log.warn("Could not clean up staging directory {}", staging, ex);
+        }
+    }
+
+    private final class Sweep implements Consumer<BlobMetadata> {
+        private final boolean dryRun;
+        private final Instant cutoff;
+        private final LongHashSet referenced;
+        private final List<Candidate> batch = new ArrayList<>();
+        long scanned;
+        long keptRecent;
+        long deleted;
+        long reclaimed;
+        int failures;
+
+        Sweep(boolean dryRun, Instant cutoff, LongHashSet referenced) {
+            this.dryRun = dryRun;
+            this.cutoff = cutoff;
+            this.referenced = referenced;
+        }
+
+        @Override
+        public void accept(BlobMetadata blob) {
+            scanned++;
+            if (blob.lastModified().isAfter(cutoff)) {
+                keptRecent++;
+                return;
+            }
+            String key = referenceKey(blob.key());
+            if (key == null || referenced.contains(fingerprint(key))) {
+                return;
+            }
+            String blobHash = null;
+            String blobKey = null;
+            Matcher hashed = HASH_STEM.matcher(key.substring(key.lastIndexOf('/') + 1));
+            if (hashed.matches()) {
+                blobHash = hashed.group(1);
+                // Only the original carries the stored_blob row; variants have a -<size> suffix
+                String name = blob.key().substring(blob.key().lastIndexOf('/') + 1);
+                blobKey = VARIANT_OR_SIBLING.matcher(name).find() ? null : blob.key();
+            }
+            batch.add(new Candidate(blob.key(), blob.size(), blobHash, blobKey));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Set<String> recent = recentlyReferenced(batch, cutoff);
+            List<String> removedBlobKeys = new ArrayList<>();
+            for (Candidate candidate : batch) {
+                // A blob uploaded again within the grace period keeps its older thumbnails too
+                if (candidate.blobHash() != null && recent.contains(candidate.blobHash())) {
+                    keptRecent++;
+                    continue;
+                }
+                try {
+                    if (dryRun || blobStore.delete(candidate.key())) {
+                        deleted++;
+                        reclaimed += candidate.size();
+                        if (candidate.blobKey() != null) {
+                            removedBlobKeys.add(candidate.blobKey());
+                        }
+                    }
+                } catch (IOException ex) {
+                    failures++;
+                    log.warn("Could not delete orphaned upload {}", candidate.key(), ex);
+                }
+            }
+            if (!dryRun && !removedBlobKeys.isEmpty()) {
+                List<Object> args = new ArrayList<>(removedBlobKeys.size() + 1);
+                args.add(Timestamp.from(cutoff));
+                args.addAll(removedBlobKeys);
+                jdbcTemplate.update(String.format(DELETE_BLOB_ROWS, placeholders(removedBlobKeys.size())), args.toArray());
+            }
+            batch.clear();
+            pause();
+        }
+
+        private void pause() {
+            if (dryRun || batchPause.isZero() || batchPause.isNegative()) {
+                return;
+            }
+            try {
+                Thread.sleep(batchPause.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Set<String> recentlyReferenced(List<Candidate> batch, Instant cutoff) {
+        Set<String> hashes = new HashSet<>();
+        for (Candidate candidate : batch) {
+            if (candidate.blobHash() != null) {
+                hashes.add(candidate.blobHash());
+            }
+        }
+        if (hashes.isEmpty()) {
+            return Set.of();
+        }
+        List<Object> args = new ArrayList<>(hashes.size() + 1);
+        args.add(Timestamp.from(cutoff));
+        args.addAll(hashes);
+        return new HashSet<>(jdbcTemplate.queryForList(String.format(RECENTLY_REFERENCED_BLOBS, placeholders(hashes.size())),
+                String.class, args.toArray()));
+    }
+
+    // Directory plus file stem, with a thumbnail's -<size> suffix dropped: an original, its variants and
+    // any .gz/.br sibling all map to the same key
+    static String referenceKey(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) {
+            return null;
+        }
+        int slash = relativePath.lastIndexOf('/');
+        String name = relativePath.substring(slash + 1);
+        int dot = name.indexOf('.');
+        String stem = dot < 0 ? name : name.substring(0, dot);
+        Matcher hashed = HASH_STEM.matcher(stem);
+        if (hashed.matches()) {
+            stem = hashed.group(1);
+        }
+        return relativePath.substring(0, slash + 1) + stem;
+    }
+
+    // 64-bit FNV-1a; a collision can only keep an orphan, never delete a referenced file
+    static long fingerprint(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
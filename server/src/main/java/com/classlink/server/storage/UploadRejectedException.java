@@ -0,0 +1,22 @@
+package com.classlink.server.storage;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An upload was refused before it was stored; the message is safe to return to the client.
+ */
+public class UploadRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final HttpStatus status;
+
+    public UploadRejectedException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,228 @@
+package com.classlink.server.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Stores profile images and requirement documents straight from the request body. The multipart stream
+ * is parsed as it arrives (see {@link StreamingMultipartResolver}): the declared Content-Length is checked
+ * before anything is read, the file type is taken from the magic bytes of the first block, and the rest
+ * is transferred into a {@code .part} file with the size limit enforced per chunk.
+ *
+ * <p>Storage is content-addressed: the SHA-256 of the file is computed while it streams and names the
+ * blob, sharded two levels deep ({@code <area>/ab/cd/<hash>.<ext>}). A re-upload of identical content
+ * maps to the same blob. The finished file is handed to the {@link BlobStore}, which puts it in place in
+ * one step, so readers never see a partial file, and is then recorded in {@code stored_blob}. Nothing
+ * counts references: the URLs saved on students and admins decide what is still in use, see
+ * {@link UploadGarbageCollector}. Stored files are linked as {@code /api/files/<key>}.</p>
+ *
+ * <p>Profile images are limited to JPEG, PNG, GIF and WebP, the formats the thumbnail worker can decode,
+ * and to {@code app.uploads.profile-image.max-bytes} (5 MB by default). Before streaming uploads any
+ * declared {@code image/*} type was accepted up to the 20 MB multipart limit; SVG in particular is no
+ * longer taken, since it is served from our own origin. Requirement documents keep their 10 MB PDF limit.</p>
+ */
+@Service
+public class UploadStorageService {
+
+    // Boundaries and part headers on top of the file itself
+    private static final long MULTIPART_OVERHEAD = 16 * 1024;
+    private static final int HEAD_BYTES = 8 * 1024;
+    private static final long TRANSFER_CHUNK = 256 * 1024;
+    private static final String FILE_PART = "file";
+    /** Path under which {@code FileController} serves blobs by key. */
+    public static final String FILES_PATH = "/api/files/";
+    // Where uploads were linked before the blob store; still served for files on the local disk
+    private static final String LEGACY_PATH = "/static/";
+
+    private static final String RECORD_BLOB =
+            "INSERT INTO stored_blob (blob_key, area, sha256, media_type, size_bytes) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE last_referenced_at = CURRENT_TIMESTAMP";
+
+    public record StoredUpload(String url, String key, FileKind kind, long size, String sha256) {
+    }
+
+    private record Policy(String area, long maxBytes, Set<FileKind> accepted,
+            String wrongTypeMessage, String tooLargeMessage) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+    private final ThumbnailService thumbnailService;
+    private final Path staging;
+    private final Policy profileImages;
+    private final Policy requirements;
+
+    public UploadStorageService(JdbcTemplate jdbcTemplate, BlobStore blobStore, ThumbnailService thumbnailService,
+            @Value("${app.storage.staging-dir:uploads/.incoming}") String stagingDir,
+            @Value("${app.uploads.profile-image.max-bytes:5242880}") long maxImageBytes,
+            @Value("${app.uploads.requirements.max-bytes:10485760}") long maxRequirementsBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+        this.thumbnailService = thumbnailService;
+        // Local even when blobs live elsewhere; next to a file-system store it keeps the final move a rename
+        this.staging = Path.of(stagingDir);
+        this.profileImages = new Policy("profile", maxImageBytes,
+                Set.of(FileKind.JPEG, FileKind.PNG, FileKind.GIF, FileKind.WEBP),
+                "File must be an image", "Image exceeds " + megabytes(maxImageBytes) + " MB limit");
+        this.requirements = new Policy("requirements", maxRequirementsBytes,
+                Set.of(FileKind.PDF),
+                "Requirements file must be a PDF", "File exceeds " + megabytes(maxRequirementsBytes) + " MB limit");
+    }
+
+    /** Stores the image and queues its thumbnails; see {@link ThumbnailService#variantUrls(String)}. */
+    public StoredUpload storeProfileImage(HttpServletRequest request) throws IOException {
+        StoredUpload stored = store(request, profileImages);
+        thumbnailService.submit(stored.key());
+        return stored;
+    }
+
+    public StoredUpload storeRequirementsDocument(HttpServletRequest request) throws IOException {
+        return store(request, requirements);
+    }
+
+    /** Staging directory for uploads in progress; anything old in it was abandoned. */
+    Path stagingDir() {
+        return staging;
+    }
+
+    /**
+     * Store key for a stored URL, absolute or relative, current ({@code /api/files/}) or legacy
+     * ({@code /static/}); {@code null} if the URL does not point at an upload.
+     */
+    public static String keyOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        String prefix = FILES_PATH;
+        int start = url.indexOf(prefix);
+        if (start < 0) {
+            prefix = LEGACY_PATH;
+            start = url.indexOf(prefix);
+        }
+        if (start < 0) {
+            return null;
+        }
+        String key = url.substring(start + prefix.length());
+        int end = key.indexOf('?');
+        if (end < 0) {
+            end = key.indexOf('#');
+        }
+        key = end < 0 ? key : key.substring(0, end);
+        return BlobStore.isValidKey(key) ? key : null;
+    }
+
+    private StoredUpload store(HttpServletRequest request, Policy policy) throws IOException {
+        String boundary = MultipartStreamReader.boundaryOf(request.getContentType());
+        if (boundary == null) {
+            throw new UploadRejectedException(HttpStatus.BAD_REQUEST, "Expected a multipart/form-data upload");
+        }
+        // Refuse before reading a byte when the client already told us the body is too big
+        if (request.getContentLengthLong() > policy.maxBytes() + MULTIPART_OVERHEAD) {
+            throw new UploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE, policy.tooLargeMessage());
+        }
+        try {
+            MultipartStreamReader reader = new MultipartStreamReader(request.getInputStream(), boundary);
+            MultipartStreamReader.Part part;
+            while ((part = reader.next()) != null && !FILE_PART.equals(part.name())) {
+                // skip other form fields
+            }
+            if (part == null) {
+                throw new UploadRejectedException(HttpStatus.BAD_REQUEST, "Missing file part");
+            }
+            return write(part.body(), policy);
+        } catch (MalformedUploadException ex) {
+            throw new UploadRejectedException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
+    private StoredUpload write(InputStream body, Policy policy) throws IOException {
+        byte[] head = new byte[HEAD_BYTES];
+        int headLength = body.readNBytes(head, 0, head.length);
+        if (headLength == 0) {
+            throw new UploadRejectedException(HttpStatus.BAD_REQUEST, "Empty file");
+        }
+        FileKind kind = FileKind.detect(head, headLength);
+        if (kind == null || !policy.accepted().contains(kind)) {
+            throw new UploadRejectedException(HttpStatus.BAD_REQUEST, policy.wrongTypeMessage());
+        }
+        if (headLength > policy.maxBytes()) {
+            throw new UploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE, policy.tooLargeMessage());
+        }
+
+        Files.createDirectories(staging);
+        Path partial = staging.resolve(UUID.randomUUID() + ".part");
+        try {
+            MessageDigest sha256 = sha256();
+            sha256.update(head, 0, headLength);
+            long size = headLength;
+            try (FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                out.write(ByteBuffer.wrap(head, 0, headLength));
+                ReadableByteChannel in = Channels.newChannel(new DigestInputStream(body, sha256));
+                while (true) {
+                    // Ask for at most one byte past the limit so an oversized upload stops right there
+                    long wanted = Math.min(TRANSFER_CHUNK, policy.maxBytes() + 1 - size);
+                    long transferred = out.transferFrom(in, size, wanted);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    size += transferred;
+                    if (size > policy.maxBytes()) {
+                        throw new UploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE, policy.tooLargeMessage());
+                    }
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            String key = policy.area() + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + kind.extension();
+            // Always stored, even over an existing copy: the bytes are identical, and the fresh timestamp
+            // keeps the upload collector's grace period from removing a blob that was just uploaded again
+            blobStore.putFile(key, partial, kind.mediaType());
+            // Recorded only once the blob exists; if this or the caller's save fails, the collector reclaims it
+            jdbcTemplate.update(RECORD_BLOB, key, policy.area(), hash, kind.mediaType(), size);
+            return new StoredUpload(publicUrl(key), key, kind, size, hash);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    // Absolute, like the URLs stored before, so clients on another origin can use it as is
+    private static String publicUrl(String key) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(FILES_PATH)
+                .path(key)
+                .toUriString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static long megabytes(long bytes) {
+        return Math.max(1, bytes / (1024 * 1024));
+    }
+}
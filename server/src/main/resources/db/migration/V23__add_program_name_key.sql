@@ -0,0 +1,44 @@
+-- Normalized (trimmed, lower-cased) program name used for case-insensitive lookups by name
+SET @name_key_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE()
+    AND table_name = 'program'
+    AND column_name = 'name_key'
+);
+SET @add_name_key := IF(@name_key_exists = 0,
+  'ALTER TABLE `program` ADD COLUMN `name_key` VARCHAR(255) NULL AFTER `name`',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_name_key;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+UPDATE `program`
+SET `name_key` = NULLIF(LOWER(TRIM(`name`)), '');
+
+-- Programs whose names only differ by case or padding keep the key on the oldest row only
+UPDATE `program` p
+JOIN (
+  SELECT `name_key`, MIN(`id`) AS keep_id
+  FROM `program`
+  WHERE `name_key` IS NOT NULL
+  GROUP BY `name_key`
+  HAVING COUNT(*) > 1
+) dup ON dup.`name_key` = p.`name_key` AND p.`id` <> dup.keep_id
+SET p.`name_key` = NULL;
+
+SET @name_key_index_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE()
+    AND table_name = 'program'
+    AND index_name = 'ux_program_name_key'
+);
+SET @add_name_key_index := IF(@name_key_index_exists = 0,
+  'CREATE UNIQUE INDEX `ux_program_name_key` ON `program` (`name_key`)',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_name_key_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
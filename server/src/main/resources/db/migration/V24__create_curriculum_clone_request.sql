@@ -0,0 +1,11 @@
+-- Idempotency ledger for POST /api/curricula/{id}/clone (see CurriculumCloneService).
+-- A client-supplied clone key maps to the program created by the first request carrying it;
+-- the unique key also serialises concurrent retries of the same clone.
+CREATE TABLE IF NOT EXISTS curriculum_clone_request (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  clone_key VARCHAR(100) NOT NULL,
+  source_program_id BIGINT NOT NULL,
+  program_id BIGINT NULL,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY ux_curriculum_clone_request_key (clone_key)
+) ENGINE=InnoDB;
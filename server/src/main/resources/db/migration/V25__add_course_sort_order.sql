@@ -0,0 +1,83 @@
+-- Normalized sort keys for course rows, written by the application on every insert/update
+-- (see Course#syncSortOrder). 2147483647 sorts unknown years/terms last, matching CurriculumLabels.
+SET @year_order_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE()
+    AND table_name = 'course'
+    AND column_name = 'year_order'
+);
+SET @add_year_order := IF(@year_order_exists = 0,
+  'ALTER TABLE `course` ADD COLUMN `year_order` INT NOT NULL DEFAULT 2147483647',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_year_order;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @term_order_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE()
+    AND table_name = 'course'
+    AND column_name = 'term_order'
+);
+SET @add_term_order := IF(@term_order_exists = 0,
+  'ALTER TABLE `course` ADD COLUMN `term_order` INT NOT NULL DEFAULT 2147483647',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_term_order;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Backfill with the same rules as CurriculumLabels.yearOrder / termOrder(resolveTermLabel(...))
+UPDATE `course` c
+JOIN (
+  SELECT `id`,
+         LOWER(TRIM(COALESCE(NULLIF(TRIM(`semester`), ''), NULLIF(TRIM(`term_title`), ''), ''))) AS term_label
+  FROM `course`
+) t ON t.`id` = c.`id`
+SET c.`year_order` = IF(c.`year` IS NOT NULL AND c.`year` > 0, c.`year`, 2147483647),
+    c.`term_order` = CASE
+      WHEN t.term_label = '' THEN 2147483647
+      WHEN t.term_label LIKE 'first%' THEN 1
+      WHEN t.term_label LIKE 'second%' THEN 2
+      WHEN t.term_label LIKE 'third%' THEN 3
+      WHEN t.term_label LIKE 'fourth%' THEN 4
+      WHEN t.term_label LIKE 'fifth%' THEN 5
+      WHEN t.term_label LIKE 'sixth%' THEN 6
+      WHEN REGEXP_REPLACE(t.term_label, '[^0-9]', '') = '' THEN 2147483647
+      WHEN LENGTH(REGEXP_REPLACE(t.term_label, '[^0-9]', '')) > 9 THEN 2147483647
+      ELSE CAST(REGEXP_REPLACE(t.term_label, '[^0-9]', '') AS UNSIGNED)
+    END;
+
+SET @version_order_index_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE()
+    AND table_name = 'course'
+    AND index_name = 'ix_course_version_order'
+);
+SET @add_version_order_index := IF(@version_order_index_exists = 0,
+  'CREATE INDEX `ix_course_version_order` ON `course` (`curriculum_version_id`, `year_order`, `term_order`, `id`)',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_version_order_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Curriculum pages are read per program, so the same ordering is indexed under program_id too
+SET @program_order_index_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE()
+    AND table_name = 'course'
+    AND index_name = 'ix_course_program_order'
+);
+SET @add_program_order_index := IF(@program_order_index_exists = 0,
+  'CREATE INDEX `ix_course_program_order` ON `course` (`program_id`, `year_order`, `term_order`, `id`)',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_program_order_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
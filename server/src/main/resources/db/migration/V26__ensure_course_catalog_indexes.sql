@@ -0,0 +1,49 @@
+-- Indexes behind the paginated course catalog (GET /api/courses). InnoDB normally creates an index for
+-- each foreign key, but older schemas rebuilt by hand may lack them, so only add what is missing.
+SET @program_index_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE()
+    AND table_name = 'course'
+    AND column_name = 'program_id'
+    AND seq_in_index = 1
+);
+SET @add_program_index := IF(@program_index_exists = 0,
+  'CREATE INDEX `ix_course_program` ON `course` (`program_id`)',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_program_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @version_index_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE()
+    AND table_name = 'course'
+    AND column_name = 'curriculum_version_id'
+    AND seq_in_index = 1
+);
+SET @add_version_index := IF(@version_index_exists = 0,
+  'CREATE INDEX `ix_course_curriculum_version` ON `course` (`curriculum_version_id`)',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_version_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Subject-code prefix filter (LIKE 'IT1%') across all programs
+SET @subject_index_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE()
+    AND table_name = 'course'
+    AND index_name = 'ix_course_subject_code'
+);
+SET @add_subject_index := IF(@subject_index_exists = 0,
+  'CREATE INDEX `ix_course_subject_code` ON `course` (`subject_code`)',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_subject_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,27 @@
+-- The calendar table has so far been created by Hibernate; create it here when missing so the
+-- range index below can always be added (Hibernate still adds any columns it finds missing).
+CREATE TABLE IF NOT EXISTS `calendar` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `title` VARCHAR(255),
+  `start_date` DATE,
+  `end_date` DATE,
+  `type` VARCHAR(255),
+  `description` VARCHAR(255),
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB;
+
+-- Overlap queries (start_date <= :to AND end_date >= :from) for GET /api/calendar?from=&to=
+SET @calendar_range_index_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE()
+    AND table_name = 'calendar'
+    AND index_name = 'ix_calendar_start_end'
+);
+SET @add_calendar_range_index := IF(@calendar_range_index_exists = 0,
+  'CREATE INDEX `ix_calendar_start_end` ON `calendar` (`start_date`, `end_date`)',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_calendar_range_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
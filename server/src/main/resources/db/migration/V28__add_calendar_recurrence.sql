@@ -0,0 +1,46 @@
+-- Recurring calendar events: one row per series instead of one row per occurrence.
+-- recurrence_until is the last day any occurrence covers (NULL = open-ended) and is maintained by the app.
+SET @recurrence_rule_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE()
+    AND table_name = 'calendar'
+    AND column_name = 'recurrence_rule'
+);
+SET @add_recurrence_rule := IF(@recurrence_rule_exists = 0,
+  'ALTER TABLE `calendar` ADD COLUMN `recurrence_rule` VARCHAR(255) NULL',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_recurrence_rule;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @recurrence_exceptions_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE()
+    AND table_name = 'calendar'
+    AND column_name = 'recurrence_exceptions'
+);
+SET @add_recurrence_exceptions := IF(@recurrence_exceptions_exists = 0,
+  'ALTER TABLE `calendar` ADD COLUMN `recurrence_exceptions` VARCHAR(2000) NULL',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_recurrence_exceptions;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @recurrence_until_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE()
+    AND table_name = 'calendar'
+    AND column_name = 'recurrence_until'
+);
+SET @add_recurrence_until := IF(@recurrence_until_exists = 0,
+  'ALTER TABLE `calendar` ADD COLUMN `recurrence_until` DATE NULL',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_recurrence_until;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
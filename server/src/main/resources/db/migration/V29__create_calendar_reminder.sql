@@ -0,0 +1,12 @@
+-- Due index for calendar event reminders (see CalendarReminderScheduler). One row per event occurrence
+-- and reminder offset; fired_at is the checkpoint that keeps a reminder from being sent twice across restarts.
+CREATE TABLE IF NOT EXISTS calendar_reminder (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  event_id BIGINT NOT NULL,
+  occurrence_date DATE NOT NULL,
+  offset_days INT NOT NULL,
+  due_at DATETIME NOT NULL,
+  fired_at DATETIME NULL,
+  UNIQUE KEY ux_calendar_reminder_occurrence (event_id, occurrence_date, offset_days),
+  KEY ix_calendar_reminder_pending (fired_at, due_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,23 @@
+-- Lookups of notifications by what they point at (e.g. every CALENDAR_EVENT row for a deleted event).
+-- The notifications table is created by Hibernate, so only add the index once the table exists;
+-- fresh installs get the same index from the entity mapping.
+SET @notifications_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.tables
+  WHERE table_schema = DATABASE()
+    AND table_name = 'notifications'
+);
+SET @notification_related_index_exists := (
+  SELECT COUNT(*)
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE()
+    AND table_name = 'notifications'
+    AND index_name = 'ix_notifications_type_related'
+);
+SET @add_notification_related_index := IF(@notifications_exists = 1 AND @notification_related_index_exists = 0,
+  'CREATE INDEX `ix_notifications_type_related` ON `notifications` (`type`, `related_entity_id`)',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_notification_related_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
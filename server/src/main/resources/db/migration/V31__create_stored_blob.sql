@@ -0,0 +1,16 @@
+-- Content-addressed upload store (see UploadStorageService). Files live at
+-- uploads/<area>/<hash[0..2]>/<hash[2..4]>/<hash>.<ext>; blob_key is that path below uploads/.
+-- ref_count counts the profile/requirements URLs pointing at the blob; rows at zero are left for cleanup.
+CREATE TABLE IF NOT EXISTS stored_blob (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  blob_key VARCHAR(255) NOT NULL,
+  area VARCHAR(32) NOT NULL,
+  sha256 CHAR(64) NOT NULL,
+  media_type VARCHAR(100) NOT NULL,
+  size_bytes BIGINT NOT NULL,
+  ref_count INT NOT NULL DEFAULT 0,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  last_referenced_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY ux_stored_blob_key (blob_key),
+  KEY ix_stored_blob_ref_count (ref_count)
+) ENGINE=InnoDB;
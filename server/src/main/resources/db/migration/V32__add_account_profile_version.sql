@@ -0,0 +1,35 @@
+-- Version of the display fields on an account, bumped with every update of the row (see the @PreUpdate
+-- hooks on Student and Admin). Session principals remember the version they were built from, so a change
+-- made on another node or before a restart is still noticed. Hibernate creates both tables, so only add
+-- the column to tables that already exist; fresh installs get it from the entity mapping.
+SET @student_exists := (
+  SELECT COUNT(*) FROM information_schema.tables
+  WHERE table_schema = DATABASE() AND table_name = 'student'
+);
+SET @student_version_exists := (
+  SELECT COUNT(*) FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'student' AND column_name = 'profile_version'
+);
+SET @add_student_version := IF(@student_exists = 1 AND @student_version_exists = 0,
+  'ALTER TABLE `student` ADD COLUMN `profile_version` BIGINT NOT NULL DEFAULT 0',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_student_version;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @admin_exists := (
+  SELECT COUNT(*) FROM information_schema.tables
+  WHERE table_schema = DATABASE() AND table_name = 'admin'
+);
+SET @admin_version_exists := (
+  SELECT COUNT(*) FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'admin' AND column_name = 'profile_version'
+);
+SET @add_admin_version := IF(@admin_exists = 1 AND @admin_version_exists = 0,
+  'ALTER TABLE `admin` ADD COLUMN `profile_version` BIGINT NOT NULL DEFAULT 0',
+  'SELECT 1'
+);
+PREPARE stmt FROM @add_admin_version;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
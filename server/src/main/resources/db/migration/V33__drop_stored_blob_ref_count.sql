@@ -0,0 +1,14 @@
+-- stored_blob.ref_count was never read: the upload collector decides what to keep from the URLs stored on
+-- students and admins, and the count drifted whenever an upload or the save after it failed. Dropping the
+-- column also drops its index.
+SET @ref_count_exists := (
+  SELECT COUNT(*) FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'stored_blob' AND column_name = 'ref_count'
+);
+SET @drop_ref_count := IF(@ref_count_exists = 1,
+  'ALTER TABLE `stored_blob` DROP COLUMN `ref_count`',
+  'SELECT 1'
+);
+PREPARE stmt FROM @drop_ref_count;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,73 @@
+package com.classlink.server.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.classlink.server.event.AccountChangedEvent;
+
+class AccountProfileVersionsTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void readsTheColumnOncePerTtl() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(7L))).thenReturn(List.of(3L));
+        AccountProfileVersions versions = new AccountProfileVersions(jdbcTemplate, Duration.ofMinutes(5));
+
+        assertEquals(3L, versions.current("student", 7L));
+        assertEquals(3L, versions.current("STUDENT", 7L));
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq(7L));
+    }
+
+    @Test
+    void rereadsAfterTheTtl() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(7L))).thenReturn(List.of(3L), List.of(4L));
+        AccountProfileVersions versions = new AccountProfileVersions(jdbcTemplate, Duration.ZERO);
+
+        assertEquals(3L, versions.current("admin", 7L));
+        assertEquals(4L, versions.current("admin", 7L));
+    }
+
+    @Test
+    void localWritesApplyWithoutAQuery() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(7L))).thenReturn(List.of(3L));
+        AccountProfileVersions versions = new AccountProfileVersions(jdbcTemplate, Duration.ofMinutes(5));
+        versions.current("student", 7L);
+
+        versions.onAccountChanged(new AccountChangedEvent("student", 7L, 4L));
+        assertEquals(4L, versions.current("student", 7L));
+
+        versions.onAccountChanged(new AccountChangedEvent("student", 7L, -1L));
+        assertEquals(-1L, versions.current("student", 7L));
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq(7L));
+    }
+
+    @Test
+    void aReadRacingACommitKeepsTheNewerVersion() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(7L))).thenReturn(List.of(3L));
+        AccountProfileVersions versions = new AccountProfileVersions(jdbcTemplate, Duration.ZERO);
+        versions.onAccountChanged(new AccountChangedEvent("student", 7L, 4L));
+
+        assertEquals(4L, versions.current("student", 7L));
+    }
+
+    @Test
+    void missingAccountsReportMinusOne() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(9L))).thenReturn(List.of());
+        AccountProfileVersions versions = new AccountProfileVersions(jdbcTemplate, Duration.ofMinutes(5));
+
+        assertEquals(-1L, versions.current("admin", 9L));
+        assertEquals(-1L, versions.current("admin", null));
+    }
+}
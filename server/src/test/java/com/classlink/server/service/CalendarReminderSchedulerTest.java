@@ -0,0 +1,55 @@
+package com.classlink.server.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.classlink.server.repository.CalendarEventRepository;
+
+class CalendarReminderSchedulerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final CalendarReminderScheduler scheduler = new CalendarReminderScheduler(jdbcTemplate, transactionTemplate,
+            mock(CalendarEventRepository.class), mock(NotificationService.class), List.of(7, 1), "08:00", 14, 50);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void retriesAFailedBatchOnceOnTheNextTick() {
+        long overdue = System.currentTimeMillis() - 120_000;
+        when(jdbcTemplate.query(startsWith("SELECT id, due_at"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(new long[] { 1L, overdue }, new long[] { 2L, overdue }));
+        doThrow(new QueryTimeoutException("lock wait"))
+                .doAnswer(invocation -> {
+                    invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+                    return null;
+                })
+                .when(transactionTemplate).executeWithoutResult(any());
+        scheduler.start();
+
+        scheduler.tick();
+        // Reloading the unfired rows must not schedule the retried ids a second time
+        scheduler.rollHorizon();
+        scheduler.tick();
+        scheduler.tick();
+
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+        verify(jdbcTemplate, times(1)).query(startsWith("SELECT id, event_id"), any(RowMapper.class), eq(1L), eq(2L));
+    }
+}
@@ -0,0 +1,114 @@
+package com.classlink.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.classlink.server.event.CurriculumChangedEvent;
+
+class CourseSearchIndexTest {
+
+    private static final String SELECT_ALL =
+            "SELECT id, program_id, curriculum_version_id, subject_code, equiv_subject_code, description, units, year, semester, term_title FROM course";
+    private static final String SELECT_PROGRAM = SELECT_ALL + " WHERE program_id = ?";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CourseSearchIndex index = new CourseSearchIndex(jdbcTemplate);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentFirstSearchesBuildOnce() throws Exception {
+        ResultSet course = course(1L, 7L, "IT 111", "Programming");
+        when(jdbcTemplate.query(eq(SELECT_ALL), any(RowMapper.class))).thenAnswer(rows(course));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> index.search("IT 111", 0, 10)));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        index.build();
+
+        verify(jdbcTemplate, times(1)).query(eq(SELECT_ALL), any(RowMapper.class));
+        assertEquals(1, index.search("IT 111", 0, 10).total());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aChangeWhileBuildingIsNotLostToTheSnapshot() throws Exception {
+        ResultSet before = course(1L, 7L, "IT 111", "Old title");
+        ResultSet after = course(1L, 7L, "IT 111", "New title");
+        when(jdbcTemplate.query(eq(SELECT_ALL), any(RowMapper.class))).thenAnswer(invocation -> {
+            // Committed after the snapshot was read
+            index.onCurriculumChanged(new CurriculumChangedEvent(7L));
+            return rows(before).answer(invocation);
+        });
+        when(jdbcTemplate.query(eq(SELECT_PROGRAM), any(RowMapper.class), eq(7L))).thenAnswer(rows(after));
+
+        index.build();
+
+        assertEquals(0, index.search("old", 0, 10).total());
+        assertEquals(1, index.search("new", 0, 10).total());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void anOlderReloadDoesNotOverwriteANewerOne() throws Exception {
+        ResultSet before = course(1L, 7L, "IT 111", "Old title");
+        ResultSet after = course(1L, 7L, "IT 111", "New title");
+        when(jdbcTemplate.query(eq(SELECT_ALL), any(RowMapper.class))).thenAnswer(rows());
+        index.build();
+        when(jdbcTemplate.query(eq(SELECT_PROGRAM), any(RowMapper.class), eq(7L)))
+                .thenAnswer(invocation -> {
+                    // A second change lands and is applied while the first reload is still reading
+                    index.onCurriculumChanged(new CurriculumChangedEvent(7L));
+                    return rows(before).answer(invocation);
+                })
+                .thenAnswer(rows(after));
+
+        index.onCurriculumChanged(new CurriculumChangedEvent(7L));
+
+        assertEquals(0, index.search("old", 0, 10).total());
+        assertEquals(1, index.search("new", 0, 10).total());
+    }
+
+    private static Answer<List<Object>> rows(ResultSet... courses) {
+        return invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> result = new ArrayList<>();
+            for (int i = 0; i < courses.length; i++) {
+                result.add(mapper.mapRow(courses[i], i));
+            }
+            return result;
+        };
+    }
+
+    private static ResultSet course(Long id, Long programId, String code, String description) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getObject("program_id", Long.class)).thenReturn(programId);
+        when(rs.getString(anyString())).thenAnswer(invocation -> switch (invocation.<String>getArgument(0)) {
+            case "subject_code" -> code;
+            case "description" -> description;
+            default -> null;
+        });
+        return rs;
+    }
+}
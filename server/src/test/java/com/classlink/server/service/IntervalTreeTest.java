@@ -0,0 +1,79 @@
+package com.classlink.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntervalTreeTest {
+
+    private record Span(int start, int end) {
+    }
+
+    private static final Comparator<Span> BY_START_END = Comparator.comparingInt(Span::start).thenComparingInt(Span::end);
+
+    private static IntervalTree<Integer, Span> tree(List<Span> spans) {
+        return new IntervalTree<>(spans, Span::start, Span::end);
+    }
+
+    @Test
+    void boundsAreClosed() {
+        IntervalTree<Integer, Span> tree = tree(List.of(new Span(10, 20), new Span(30, 30), new Span(5, 9)));
+
+        assertEquals(List.of(new Span(10, 20)), tree.overlapping(20, 25));
+        assertEquals(List.of(new Span(5, 9), new Span(10, 20)), tree.overlapping(0, 10));
+        assertEquals(List.of(new Span(30, 30)), tree.overlapping(30, 30));
+        assertEquals(List.of(), tree.overlapping(21, 29));
+        assertEquals(List.of(), tree.overlapping(31, 100));
+    }
+
+    @Test
+    void emptyTreeHasNoOverlaps() {
+        IntervalTree<Integer, Span> tree = tree(List.of());
+
+        assertEquals(0, tree.size());
+        assertEquals(List.of(), tree.overlapping(Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void findsLongIntervalsHiddenBehindShortOnes() {
+        // One long interval early on must not be pruned by the short ones that start after it
+        List<Span> spans = new ArrayList<>();
+        spans.add(new Span(0, 1000));
+        for (int i = 1; i < 200; i++) {
+            spans.add(new Span(i * 2, i * 2 + 1));
+        }
+        IntervalTree<Integer, Span> tree = tree(spans);
+
+        assertEquals(List.of(new Span(0, 1000)), tree.overlapping(900, 950));
+    }
+
+    @Test
+    void matchesALinearScan() {
+        Random random = new Random(7);
+        for (int size : new int[] { 1, 2, 3, 17, 64, 500 }) {
+            List<Span> spans = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int start = random.nextInt(1000);
+                spans.add(new Span(start, start + random.nextInt(random.nextBoolean() ? 10 : 300)));
+            }
+            IntervalTree<Integer, Span> tree = tree(spans);
+            for (int query = 0; query < 200; query++) {
+                int from = random.nextInt(1400) - 200;
+                int to = from + random.nextInt(120);
+                List<Span> expected = spans.stream()
+                        .filter(span -> span.start() <= to && span.end() >= from)
+                        .sorted(Comparator.comparingInt(Span::start))
+                        .toList();
+                List<Span> actual = tree.overlapping(from, to);
+                // In start order; ties on start may come back in any order
+                assertEquals(expected.stream().map(Span::start).toList(), actual.stream().map(Span::start).toList());
+                assertEquals(expected.stream().sorted(BY_START_END).toList(), actual.stream().sorted(BY_START_END).toList());
+            }
+        }
+    }
+}
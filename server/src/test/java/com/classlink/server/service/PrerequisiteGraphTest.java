@@ -0,0 +1,105 @@
+package com.classlink.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.classlink.server.dto.CurriculumItem;
+
+class PrerequisiteGraphTest {
+
+    @Test
+    void parsesCodeShapedTokens() {
+        assertEquals(List.of("IT111", "CS101", "MATH2A"), List.copyOf(PrerequisiteGraph.parseCodes("IT 111, CS101 and MATH-2A")));
+        assertEquals(List.of("PE1", "NSTP1", "MATH1"), List.copyOf(PrerequisiteGraph.parseCodes("PE 1 / NSTP 1; Math 1")));
+        assertEquals(Set.of(), PrerequisiteGraph.parseCodes("None"));
+        assertEquals(Set.of(), PrerequisiteGraph.parseCodes("3rd Year Standing"));
+        assertEquals(Set.of(), PrerequisiteGraph.parseCodes(null));
+        // Candidates only: prose still yields a token, which build() then ignores
+        assertEquals(List.of("LEAST72"), List.copyOf(PrerequisiteGraph.parseCodes("at least 72 units")));
+    }
+
+    @Test
+    void linksSingleDigitCodes() {
+        PrerequisiteGraph graph = PrerequisiteGraph.build(List.of(
+                item("PE 1", null, null),
+                item("PE 2", null, "PE 1"),
+                item("NSTP 2", null, "NSTP 1")));
+
+        assertEquals(List.of("PE 1"), graph.directPrerequisites("PE 2").orElseThrow());
+        assertTrue(graph.topologicalOrder().indexOf("PE 1") < graph.topologicalOrder().indexOf("PE 2"));
+        assertEquals(List.of("NSTP 2 requires unknown course NSTP1"), graph.unknownReferences());
+    }
+
+    @Test
+    void ignoresTokensWithUnknownSubjectPrefix() {
+        PrerequisiteGraph graph = PrerequisiteGraph.build(List.of(
+                item("IT 101", null, null),
+                item("IT 499", null, "IT 101; at least 72 units; Year 4")));
+
+        assertEquals(List.of("IT 101"), graph.directPrerequisites("IT 499").orElseThrow());
+        assertTrue(graph.problems().isEmpty());
+    }
+
+    @Test
+    void resolvesEquivalentCodeAliases() {
+        PrerequisiteGraph graph = PrerequisiteGraph.build(List.of(
+                item("GE 1", "MATH 1", null),
+                item("CS 11", null, "Math 1")));
+
+        assertEquals(List.of("GE 1"), graph.directPrerequisites("CS 11").orElseThrow());
+        assertTrue(graph.contains("math-1"));
+        assertTrue(graph.unknownReferences().isEmpty());
+    }
+
+    @Test
+    void reportsCycles() {
+        PrerequisiteGraph graph = PrerequisiteGraph.build(List.of(
+                item("CS 1", null, null),
+                item("CS 2", null, "CS 1, CS 4"),
+                item("CS 3", null, "CS 2"),
+                item("CS 4", null, "CS 3"),
+                item("CS 5", null, "CS 1")));
+
+        assertEquals(List.of("Prerequisite cycle involving CS 2, CS 3, CS 4"), graph.cycles());
+        assertTrue(graph.unknownReferences().isEmpty());
+        assertEquals(List.of("CS 1", "CS 5"), graph.topologicalOrder());
+        // Unlocks still resolve around the cycle
+        assertEquals(List.of("CS 2", "CS 3", "CS 4"), graph.allUnlocks("CS 4").orElseThrow());
+    }
+
+    @Test
+    void answersUnlocksAndEligibility() {
+        PrerequisiteGraph graph = PrerequisiteGraph.build(List.of(
+                item("IT 1", null, null),
+                item("IT 2", null, "IT 1"),
+                item("IT 3", "CS 3", "IT 2"),
+                item("IT 4", null, "IT 1 and IT 3"),
+                item("IT 5", null, "None")));
+
+        assertTrue(graph.cycles().isEmpty());
+        assertEquals(List.of("IT 2", "IT 4"), graph.directUnlocks("IT 1").orElseThrow());
+        assertEquals(List.of("IT 2", "IT 3", "IT 4"), graph.allUnlocks("IT 1").orElseThrow());
+        assertEquals(List.of(), graph.allUnlocks("IT 5").orElseThrow());
+        assertTrue(graph.allUnlocks("IT 9").isEmpty());
+
+        PrerequisiteGraph.Eligibility blocked = graph.eligibility("IT 4", List.of("IT 1")).orElseThrow();
+        assertFalse(blocked.eligible());
+        assertEquals(List.of("IT 3"), blocked.missing());
+
+        // Completed courses may be named by an alias and spelled loosely
+        PrerequisiteGraph.Eligibility open = graph.eligibility("it-4", List.of("IT1", "cs 3")).orElseThrow();
+        assertTrue(open.eligible());
+        assertEquals("IT 4", open.code());
+        assertTrue(graph.eligibility("IT 5", List.of()).orElseThrow().eligible());
+    }
+
+    private static CurriculumItem item(String code, String equiv, String prerequisite) {
+        return new CurriculumItem(code, null, equiv, prerequisite, "1", "First Semester", 3, 1);
+    }
+}
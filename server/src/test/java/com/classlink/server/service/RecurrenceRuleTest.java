@@ -0,0 +1,99 @@
+package com.classlink.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class RecurrenceRuleTest {
+
+    @ParameterizedTest(name = "{0} from {1}, [{3}, {4}]")
+    @CsvSource(delimiter = '|', nullValues = "-", textBlock = """
+            # rule                              | dtStart    | days | from       | to         | exdates               | expected
+            # COUNT counts from dtStart, even when the window starts later
+            FREQ=WEEKLY;COUNT=5                 | 2026-01-05 | 0    | 2026-01-20 | 2026-03-01 | -                     | 2026-01-26 2026-02-02
+            FREQ=WEEKLY;COUNT=5                 | 2026-01-05 | 0    | 2026-02-03 | 2026-12-31 | -                     | -
+            # Without COUNT the window start is jumped to directly
+            FREQ=WEEKLY;INTERVAL=2              | 2026-01-05 | 0    | 2027-01-01 | 2027-01-31 | -                     | 2027-01-04 2027-01-18
+            FREQ=DAILY;INTERVAL=5               | 2026-01-01 | 0    | 2026-12-25 | 2027-01-05 | -                     | 2026-12-27 2027-01-01
+            FREQ=WEEKLY;BYDAY=MO,WE             | 2026-01-07 | 0    | 2026-01-01 | 2026-01-13 | -                     | 2026-01-07 2026-01-12
+            FREQ=DAILY;UNTIL=20260305           | 2026-03-01 | 0    | 2026-03-04 | 2026-03-10 | -                     | 2026-03-04 2026-03-05
+            # Occurrences lasting several days overlap a window that starts after them
+            FREQ=WEEKLY                         | 2026-01-05 | 2    | 2026-01-14 | 2026-01-14 | -                     | 2026-01-12
+            FREQ=WEEKLY                         | 2026-01-05 | 2    | 2026-01-15 | 2026-01-18 | -                     | -
+            # Months without a 31st are skipped, not moved, and do not use up COUNT
+            FREQ=MONTHLY;BYMONTHDAY=31          | 2026-01-31 | 0    | 2026-02-01 | 2026-08-31 | -                     | 2026-03-31 2026-05-31 2026-07-31 2026-08-31
+            FREQ=MONTHLY;BYMONTHDAY=31;COUNT=3  | 2026-01-31 | 0    | 2026-01-01 | 2026-12-31 | -                     | 2026-01-31 2026-03-31 2026-05-31
+            FREQ=MONTHLY;INTERVAL=3;BYMONTHDAY=31 | 2026-01-31 | 0  | 2027-01-01 | 2027-12-31 | -                     | 2027-01-31 2027-07-31 2027-10-31
+            FREQ=MONTHLY                        | 2026-01-30 | 0    | 2026-02-01 | 2026-04-30 | -                     | 2026-03-30 2026-04-30
+            # A yearly rule on Feb 29 only occurs in leap years
+            FREQ=YEARLY                         | 2024-02-29 | 0    | 2025-01-01 | 2033-12-31 | -                     | 2028-02-29 2032-02-29
+            FREQ=YEARLY;COUNT=2                 | 2024-02-29 | 0    | 2024-01-01 | 2040-12-31 | -                     | 2024-02-29 2028-02-29
+            FREQ=YEARLY;INTERVAL=2              | 2024-02-29 | 0    | 2025-01-01 | 2036-12-31 | -                     | 2028-02-29 2032-02-29 2036-02-29
+            # EXDATE removes occurrences but they still count towards COUNT
+            FREQ=DAILY;COUNT=3                  | 2026-03-01 | 0    | 2026-03-01 | 2026-03-31 | 2026-03-02            | 2026-03-01 2026-03-03
+            FREQ=WEEKLY                         | 2026-01-05 | 0    | 2026-01-01 | 2026-01-31 | 2026-01-12 2026-01-26 | 2026-01-05 2026-01-19
+            FREQ=MONTHLY;BYMONTHDAY=31          | 2026-01-31 | 0    | 2026-01-01 | 2026-05-31 | 2026-03-31            | 2026-01-31 2026-05-31
+            """)
+    void startsBetween(String rule, LocalDate dtStart, long days, LocalDate from, LocalDate to, String exdates,
+            String expected) {
+        assertEquals(dates(expected),
+                RecurrenceRule.parse(rule).startsBetween(dtStart, days, from, to, Set.copyOf(dates(exdates))));
+    }
+
+    @ParameterizedTest(name = "{0} from {1}")
+    @CsvSource(delimiter = '|', nullValues = "-", textBlock = """
+            # rule                              | dtStart    | exdates    | expected
+            FREQ=WEEKLY                         | 2026-01-05 | -          | -
+            FREQ=WEEKLY;COUNT=5                 | 2026-01-05 | -          | 2026-02-02
+            FREQ=DAILY;UNTIL=20260305           | 2026-03-01 | -          | 2026-03-05
+            FREQ=MONTHLY;BYMONTHDAY=31;COUNT=3  | 2026-01-31 | -          | 2026-05-31
+            FREQ=YEARLY;COUNT=3                 | 2024-02-29 | -          | 2032-02-29
+            FREQ=DAILY;COUNT=3                  | 2026-03-01 | 2026-03-03 | 2026-03-02
+            # Every occurrence excluded: the series still reaches its start
+            FREQ=DAILY;COUNT=1                  | 2026-03-01 | 2026-03-01 | 2026-03-01
+            """)
+    void lastStart(String rule, LocalDate dtStart, String exdates, LocalDate expected) {
+        assertEquals(expected, RecurrenceRule.parse(rule).lastStart(dtStart, Set.copyOf(dates(exdates))));
+    }
+
+    @Test
+    void windowSkipAgreesWithWalkingFromTheStart() {
+        List<String> rules = List.of("FREQ=DAILY;INTERVAL=3", "FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,FR",
+                "FREQ=MONTHLY;INTERVAL=2;BYMONTHDAY=31", "FREQ=MONTHLY;INTERVAL=5", "FREQ=YEARLY;INTERVAL=3");
+        LocalDate dtStart = LocalDate.of(2024, 2, 29);
+        LocalDate end = LocalDate.of(2040, 12, 31);
+        for (String text : rules) {
+            RecurrenceRule rule = RecurrenceRule.parse(text);
+            List<LocalDate> all = rule.startsBetween(dtStart, 0, dtStart, end.plusYears(2), Set.of());
+            for (LocalDate from = dtStart.minusDays(40); from.isBefore(end.minusYears(1)); from = from.plusDays(37)) {
+                LocalDate windowStart = from;
+                LocalDate to = from.plusDays(400);
+                List<LocalDate> expected = all.stream()
+                        .filter(date -> !date.isBefore(windowStart.minusDays(3)) && !date.isAfter(to))
+                        .toList();
+                assertEquals(expected, rule.startsBetween(dtStart, 3, from, to, Set.of()), text + " from " + from);
+            }
+        }
+    }
+
+    @Test
+    void unboundedRuleHasNoLastStart() {
+        assertNull(RecurrenceRule.parse("RRULE:FREQ=MONTHLY;BYMONTHDAY=31").lastStart(LocalDate.of(2026, 1, 31), Set.of()));
+    }
+
+    private static List<LocalDate> dates(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.trim().split("\\s+")).map(LocalDate::parse).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+package com.classlink.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.classlink.server.dto.CurriculumItem;
+
+class StudyPlanServiceTest {
+
+    private final StudyPlanService service = new StudyPlanService(null, 24, 16);
+
+    @Test
+    void startTermAfterTheCycleMovesToNextYear() {
+        StudyPlanService.PlanModel model = model(List.of(
+                item("IT 1", null, "First Semester", 3, 1),
+                item("IT 2", null, "Second Semester", 3, 1),
+                item("IT 3", "IT 1", "First Semester", 3, 2),
+                item("IT 4", "IT 2", "Second Semester", 3, 2)));
+        BitSet completed = model.graph().toBits(List.of("IT 1", "IT 2"));
+
+        // Term 3 (e.g. a summer) is not in this two-semester curriculum
+        StudyPlanService.StudyPlan plan = service.schedule(model, completed, 1, 3, 24);
+
+        assertEquals(2, plan.terms().size());
+        assertTerm(plan.terms().get(0), 2, 1, "IT 3");
+        assertTerm(plan.terms().get(1), 2, 2, "IT 4");
+        assertTrue(plan.unscheduled().isEmpty());
+    }
+
+    @Test
+    void startTermBetweenCycleTermsMovesToTheNextOne() {
+        StudyPlanService.PlanModel model = model(List.of(
+                item("IT 1", null, "First Semester", 3, 1),
+                item("IT 3", null, "Third Semester", 3, 1)));
+
+        StudyPlanService.StudyPlan plan = service.schedule(model, new BitSet(), 1, 2, 24);
+
+        assertTerm(plan.terms().get(0), 1, 3, "IT 3");
+        assertTerm(plan.terms().get(1), 2, 1, "IT 1");
+    }
+
+    @Test
+    void respectsTheUnitLimit() {
+        StudyPlanService.PlanModel model = model(List.of(
+                item("GE 1", null, null, 9, 1),
+                item("GE 2", null, null, 9, 1),
+                item("GE 3", null, null, 9, 1),
+                item("GE 4", null, null, 30, 1)));
+
+        StudyPlanService.StudyPlan plan = service.schedule(model, new BitSet(), 1, 1, 20);
+
+        for (StudyPlanService.PlannedTerm term : plan.terms()) {
+            // A course bigger than the limit still gets a term of its own
+            assertTrue(term.units() <= 20 || term.courses().size() == 1, term.toString());
+        }
+        assertEquals(List.of(), plan.unscheduled());
+        assertEquals(3, plan.terms().size());
+        assertTerm(plan.terms().get(0), 1, 1, "GE 1", "GE 2");
+        assertTerm(plan.terms().get(1), 1, 2, "GE 3");
+        assertTerm(plan.terms().get(2), 2, 1, "GE 4");
+        assertEquals(30, plan.terms().get(2).units());
+    }
+
+    @Test
+    void placesCoursesOnlyInTermsThatOfferThem() {
+        StudyPlanService.PlanModel model = model(List.of(
+                item("CS 1", null, "First Semester", 3, 1),
+                item("CS 2", "CS 1", "Second Semester", 3, 1),
+                item("CS 3", "CS 2", "First Semester", 3, 2),
+                item("CS 9", null, "Second Semester", 3, 1)));
+
+        StudyPlanService.StudyPlan plan = service.schedule(model, new BitSet(), 1, 1, 24);
+
+        assertTerm(plan.terms().get(0), 1, 1, "CS 1");
+        assertTerm(plan.terms().get(1), 1, 2, "CS 2", "CS 9");
+        assertTerm(plan.terms().get(2), 2, 1, "CS 3");
+    }
+
+    @Test
+    void reportsCoursesThatCanNeverBePlaced() {
+        StudyPlanService.PlanModel model = model(List.of(
+                item("CS 1", "CS 2", "First Semester", 3, 1),
+                item("CS 2", "CS 1", "Second Semester", 3, 1),
+                item("CS 5", null, "First Semester", 3, 1)));
+
+        StudyPlanService.StudyPlan plan = service.schedule(model, new BitSet(), 1, 1, 24);
+
+        assertTerm(plan.terms().get(0), 1, 1, "CS 5");
+        assertEquals(List.of("CS 1", "CS 2"), plan.unscheduled());
+    }
+
+    private StudyPlanService.PlanModel model(List<CurriculumItem> items) {
+        return service.buildModel(1L, 10L, items);
+    }
+
+    private static void assertTerm(StudyPlanService.PlannedTerm term, int year, int termOrder, String... codes) {
+        assertEquals(year, term.year(), term.toString());
+        assertEquals(termOrder, term.termOrder(), term.toString());
+        assertEquals(List.of(codes), term.courses().stream().map(StudyPlanService.PlannedCourse::subjectCode).sorted().toList());
+    }
+
+    private static CurriculumItem item(String code, String prerequisite, String semester, int units, int year) {
+        return new CurriculumItem(code, code + " description", null, prerequisite, semester, semester, units, year);
+    }
+}
@@ -0,0 +1,118 @@
+package com.classlink.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    // 64 slots per level, 4 levels
+    private static final long SPAN = 1L << 24;
+
+    @Test
+    void firesEntriesAtLevelBoundariesOnceAndOnTime() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        long[] dueTicks = { 1, 62, 63, 64, 65, 127, 128, 4095, 4096, 4097, 262143, 262144, 262145,
+                SPAN - 1, SPAN, SPAN + 1, SPAN + 4096, 3 * SPAN + 17 };
+        for (int i = dueTicks.length - 1; i >= 0; i--) {
+            wheel.schedule(dueTicks[i], dueTicks[i]);
+        }
+
+        // Steps of varying size that stay below the long-gap threshold, so every tick is walked
+        Map<Long, Long> firedAt = new HashMap<>();
+        List<Long> order = new ArrayList<>();
+        long now = 0;
+        long[] steps = { 1, 7, 64, 4096, 1000, 3 };
+        for (int i = 0; now < 3 * SPAN + 20; i++) {
+            now += steps[i % steps.length];
+            for (Long value : wheel.advanceTo(now)) {
+                assertNull(firedAt.put(value, now), "fired twice: " + value);
+                order.add(value);
+            }
+        }
+
+        assertEquals(dueTicks.length, order.size());
+        for (int i = 0; i < dueTicks.length; i++) {
+            assertEquals(dueTicks[i], order.get(i));
+        }
+        for (long due : dueTicks) {
+            long fired = firedAt.get(due);
+            // Fired by the first advance that reached its tick
+            assertTrue(fired >= due, due + " fired early at " + fired);
+            assertTrue(fired - due < 4096, due + " fired late at " + fired);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void firesEachTickExactlyWhenReached() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        long[] dueTicks = { 63, 64, 4095, 4096, SPAN + 3 };
+        for (long due : dueTicks) {
+            wheel.schedule(due, due);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 1; now <= 5000; now++) {
+            List<Long> expired = wheel.advanceTo(now);
+            for (Long value : expired) {
+                assertEquals(now, value.longValue());
+            }
+            fired.addAll(expired);
+        }
+        assertEquals(List.of(63L, 64L, 4095L, 4096L), fired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void returnsAlreadyDueEntriesOnTheNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(60_000, 600_000);
+        wheel.schedule(540_000, "past");
+        wheel.schedule(600_000, "now");
+        wheel.schedule(0, "long ago");
+
+        // Same time: a retry re-scheduled at "now" comes back without the clock moving
+        assertEquals(List.of("long ago", "past", "now"), wheel.advanceTo(600_000));
+        assertEquals(List.of(), wheel.advanceTo(600_000));
+
+        wheel.schedule(600_000, "retry");
+        assertEquals(List.of("retry"), wheel.advanceTo(600_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rehomesAfterALongGap() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        long[] dueTicks = { 10, 5000, 100_000, 100_001, 200_000, SPAN + 50 };
+        for (long due : dueTicks) {
+            wheel.schedule(due, due);
+        }
+
+        // Far more than 64 * 64 ticks at once: everything due so far comes back in order
+        assertEquals(List.of(10L, 5000L, 100_000L), wheel.advanceTo(100_000));
+        assertEquals(List.of(100_001L), wheel.advanceTo(100_001));
+        assertEquals(List.of(), wheel.advanceTo(199_999));
+        assertEquals(List.of(200_000L), wheel.advanceTo(200_000));
+        assertEquals(List.of(), wheel.advanceTo(SPAN + 49));
+        assertEquals(List.of(SPAN + 50), wheel.advanceTo(SPAN + 50));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void keepsTicksInWallClockUnits() {
+        TimingWheel<String> wheel = new TimingWheel<>(60_000, 0);
+        wheel.schedule(90_000, "minute one");
+        wheel.schedule(120_000, "minute two");
+
+        assertEquals(List.of(), wheel.advanceTo(59_999));
+        assertEquals(List.of("minute one"), wheel.advanceTo(60_000));
+        assertEquals(List.of("minute two"), wheel.advanceTo(179_999));
+    }
+}
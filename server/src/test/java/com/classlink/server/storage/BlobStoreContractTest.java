@@ -0,0 +1,142 @@
+package com.classlink.server.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+/** Behaviour every {@link BlobStore} backend must share; one subclass per backend. */
+abstract class BlobStoreContractTest {
+
+    private static final String HASH = "ab".repeat(32);
+    static final String IMAGE_KEY = "profile/ab/ab/" + HASH + ".png";
+    static final String DOCUMENT_KEY = "requirements/cd/ef/" + "cd".repeat(32) + ".pdf";
+
+    @TempDir
+    Path temp;
+
+    BlobStore store;
+
+    abstract BlobStore createStore(Path temp) throws IOException;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = createStore(temp);
+    }
+
+    @Test
+    void putThenGetReturnsTheSameBytes() throws IOException {
+        byte[] content = "image bytes".getBytes(StandardCharsets.UTF_8);
+        BlobMetadata stored = store.put(IMAGE_KEY, new ByteArrayInputStream(content), content.length, "image/png");
+
+        assertEquals(IMAGE_KEY, stored.key());
+        assertEquals(content.length, stored.size());
+        assertArrayEquals(content, read(store.get(IMAGE_KEY)));
+    }
+
+    @Test
+    void statDescribesStoredObjects() throws IOException {
+        byte[] content = new byte[1234];
+        store.put(DOCUMENT_KEY, new ByteArrayInputStream(content), content.length, "application/pdf");
+
+        BlobMetadata metadata = store.stat(DOCUMENT_KEY);
+        assertNotNull(metadata);
+        assertEquals(1234, metadata.size());
+        assertEquals("application/pdf", metadata.mediaType());
+        assertNotNull(metadata.lastModified());
+    }
+
+    @Test
+    void missingKeysHaveNoMetadataOrContent() throws IOException {
+        assertNull(store.stat(IMAGE_KEY));
+        assertNull(store.get(IMAGE_KEY));
+    }
+
+    @Test
+    void putReplacesExistingContent() throws IOException {
+        store.put(IMAGE_KEY, stream("first"), 5, "image/png");
+        store.put(IMAGE_KEY, stream("second"), 6, "image/png");
+
+        assertEquals("second", new String(read(store.get(IMAGE_KEY)), StandardCharsets.UTF_8));
+        assertEquals(6, store.stat(IMAGE_KEY).size());
+    }
+
+    @Test
+    void putRejectsContentOfTheWrongLength() {
+        assertThrows(IOException.class, () -> store.put(IMAGE_KEY, stream("short"), 100, "image/png"));
+    }
+
+    @Test
+    void putFileStoresAndConsumesTheFile() throws IOException {
+        Path staged = temp.resolve("upload.part");
+        Files.writeString(staged, "staged upload");
+
+        BlobMetadata stored = store.putFile(DOCUMENT_KEY, staged, "application/pdf");
+
+        assertEquals(13, stored.size());
+        assertFalse(Files.exists(staged));
+        assertEquals("staged upload", new String(read(store.get(DOCUMENT_KEY)), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void deleteRemovesTheObject() throws IOException {
+        store.put(IMAGE_KEY, stream("x"), 1, "image/png");
+
+        assertTrue(store.delete(IMAGE_KEY));
+        assertNull(store.stat(IMAGE_KEY));
+        assertFalse(store.delete(IMAGE_KEY));
+    }
+
+    @Test
+    void forEachVisitsKeysUnderThePrefix() throws IOException {
+        String variant = "profile/ab/ab/" + HASH + "-48.jpg";
+        store.put(IMAGE_KEY, stream("a"), 1, "image/png");
+        store.put(variant, stream("b"), 1, "image/jpeg");
+        store.put(DOCUMENT_KEY, stream("c"), 1, "application/pdf");
+
+        List<String> all = new ArrayList<>();
+        store.forEach("", blob -> all.add(blob.key()));
+        List<String> variants = new ArrayList<>();
+        store.forEach("profile/ab/ab/" + HASH + "-", blob -> variants.add(blob.key()));
+
+        assertEquals(3, all.size());
+        assertTrue(all.containsAll(List.of(IMAGE_KEY, variant, DOCUMENT_KEY)));
+        assertEquals(List.of(variant), variants);
+    }
+
+    @Test
+    void invalidKeysAreRejected() {
+        for (String key : List.of("../etc/passwd", "/profile/a.png", "profile//a.png", "profile/.hidden", "profile\\a.png")) {
+            assertFalse(BlobStore.isValidKey(key), key);
+            assertThrows(IllegalArgumentException.class, () -> store.put(key, stream("x"), 1, null), key);
+        }
+    }
+
+    static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static byte[] read(Resource resource) throws IOException {
+        assertNotNull(resource);
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
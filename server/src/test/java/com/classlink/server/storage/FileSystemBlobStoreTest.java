@@ -0,0 +1,42 @@
+package com.classlink.server.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class FileSystemBlobStoreTest extends BlobStoreContractTest {
+
+    private Path root;
+
+    @Override
+    BlobStore createStore(Path temp) {
+        root = temp.resolve("uploads");
+        return new FileSystemBlobStore(root);
+    }
+
+    @Test
+    void keysMapOneToOneOntoFilesBelowTheRoot() throws IOException {
+        store.put(IMAGE_KEY, stream("png"), 3, "image/png");
+
+        assertTrue(Files.isRegularFile(root.resolve(IMAGE_KEY)));
+    }
+
+    @Test
+    void dotDirectoriesAreNotListed() throws IOException {
+        Files.createDirectories(root.resolve(".incoming"));
+        Files.writeString(root.resolve(".incoming/abandoned.part"), "partial");
+        store.put(IMAGE_KEY, stream("png"), 3, "image/png");
+
+        List<String> keys = new ArrayList<>();
+        store.forEach("", blob -> keys.add(blob.key()));
+
+        assertEquals(List.of(IMAGE_KEY), keys);
+    }
+}
@@ -0,0 +1,11 @@
+package com.classlink.server.storage;
+
+import java.nio.file.Path;
+
+class InMemoryBlobStoreTest extends BlobStoreContractTest {
+
+    @Override
+    BlobStore createStore(Path temp) {
+        return new InMemoryBlobStore();
+    }
+}
@@ -0,0 +1,188 @@
+package com.classlink.server.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MultipartStreamReaderTest {
+
+    private static final String BOUNDARY = "----form7MA4YWxkTrZu0gW";
+
+    @Test
+    void readsBoundaryFromContentType() {
+        assertEquals(BOUNDARY, MultipartStreamReader.boundaryOf("multipart/form-data; boundary=" + BOUNDARY));
+        assertEquals("a b", MultipartStreamReader.boundaryOf("Multipart/Form-Data; charset=utf-8; boundary=\"a b\""));
+        assertNull(MultipartStreamReader.boundaryOf("application/json"));
+        assertNull(MultipartStreamReader.boundaryOf("multipart/form-data"));
+    }
+
+    @Test
+    void findsDelimiterSplitAcrossReads() throws IOException {
+        // Content full of near-misses for the delimiter, larger than the reader's buffer
+        byte[] content = new byte[40_000];
+        new Random(42).nextBytes(content);
+        byte[] nearMiss = ("\r\n--" + BOUNDARY.substring(0, 10)).getBytes(StandardCharsets.ISO_8859_1);
+        for (int at = 0; at + nearMiss.length < content.length; at += 997) {
+            System.arraycopy(nearMiss, 0, content, at, nearMiss.length);
+        }
+        byte[] body = concat(partHeader("file", "photo.png", "image/png"), content, closing());
+
+        for (int chunk : new int[] { 1, 3, 7, 61, 4096 }) {
+            MultipartStreamReader reader = new MultipartStreamReader(new ChunkedInputStream(body, chunk), BOUNDARY);
+            MultipartStreamReader.Part part = reader.next();
+            assertEquals("file", part.name());
+            assertEquals("photo.png", part.filename());
+            assertEquals("image/png", part.contentType());
+            assertArrayEquals(content, part.body().readAllBytes(), "chunk size " + chunk);
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void skipsPreambleTransportPaddingAndEpilogue() throws IOException {
+        String body = "This is the preamble, to be ignored.\r\n"
+                + "--" + BOUNDARY + " \t \r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"a.txt\"\r\n"
+                + "\r\n"
+                + "hello\r\n"
+                + "--" + BOUNDARY + "--  \r\n"
+                + "This is the epilogue.";
+        MultipartStreamReader reader = reader(body.getBytes(StandardCharsets.ISO_8859_1));
+
+        MultipartStreamReader.Part part = reader.next();
+        assertEquals("file", part.name());
+        assertEquals("hello", text(part.body()));
+        assertNull(reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void skipsFieldsBeforeTheFile() throws IOException {
+        byte[] body = concat(
+                partHeader("studentId", null, null), "42".getBytes(StandardCharsets.US_ASCII),
+                partHeader("note", null, "text/plain"), "unread field".getBytes(StandardCharsets.US_ASCII),
+                partHeader("file", "doc.pdf", "application/pdf"), "%PDF-1.7 body".getBytes(StandardCharsets.US_ASCII),
+                closing());
+        MultipartStreamReader reader = reader(body);
+
+        MultipartStreamReader.Part id = reader.next();
+        assertEquals("studentId", id.name());
+        assertNull(id.filename());
+        assertEquals("42", text(id.body()));
+
+        // Left unread: next() discards the rest of it
+        assertEquals("note", reader.next().name());
+
+        MultipartStreamReader.Part file = reader.next();
+        assertEquals("file", file.name());
+        assertEquals("doc.pdf", file.filename());
+        assertEquals("%PDF-1.7 body", text(file.body()));
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsBodyTruncatedInsideFile() throws IOException {
+        byte[] content = new byte[30_000];
+        byte[] body = concat(partHeader("file", "big.jpg", "image/jpeg"), content);
+        MultipartStreamReader reader = reader(body);
+
+        MultipartStreamReader.Part part = reader.next();
+        assertThrows(MalformedUploadException.class, () -> part.body().readAllBytes());
+    }
+
+    @Test
+    void rejectsBodyTruncatedInsideHeaders() {
+        byte[] body = ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; na").getBytes(StandardCharsets.ISO_8859_1);
+
+        assertThrows(MalformedUploadException.class, () -> reader(body).next());
+    }
+
+    @Test
+    void rejectsBodyWithoutBoundary() {
+        byte[] body = "not multipart at all".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertThrows(MalformedUploadException.class, () -> reader(body).next());
+    }
+
+    @Test
+    void rejectsOversizedHeaderLine() {
+        String header = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + "x".repeat(9000) + "\"\r\n"
+                + "\r\nbody";
+        byte[] body = concat(header.getBytes(StandardCharsets.ISO_8859_1), closing());
+
+        assertThrows(MalformedUploadException.class, () -> reader(body).next());
+    }
+
+    @Test
+    void rejectsTooManyHeaderLines() {
+        StringBuilder header = new StringBuilder("--" + BOUNDARY + "\r\n");
+        for (int i = 0; i < 400; i++) {
+            header.append("X-Filler-").append(i).append(": padding padding\r\n");
+        }
+        header.append("\r\nbody");
+        byte[] body = concat(header.toString().getBytes(StandardCharsets.ISO_8859_1), closing());
+
+        assertThrows(MalformedUploadException.class, () -> reader(body).next());
+    }
+
+    private static MultipartStreamReader reader(byte[] body) {
+        return new MultipartStreamReader(new ByteArrayInputStream(body), BOUNDARY);
+    }
+
+    // Delimiter and headers of a part; every part after the first starts with the CRLF ending the previous one
+    private static byte[] partHeader(String name, String filename, String contentType) {
+        StringBuilder header = new StringBuilder("\r\n--").append(BOUNDARY).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"").append(name).append('"');
+        if (filename != null) {
+            header.append("; filename=\"").append(filename).append('"');
+        }
+        header.append("\r\n");
+        if (contentType != null) {
+            header.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        header.append("\r\n");
+        return header.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] closing() {
+        return ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] concat(byte[]... pieces) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] piece : pieces) {
+            out.writeBytes(piece);
+        }
+        return out.toByteArray();
+    }
+
+    private static String text(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.ISO_8859_1);
+    }
+
+    /** Hands out at most {@code chunk} bytes per read, like a socket delivering small segments. */
+    private static final class ChunkedInputStream extends ByteArrayInputStream {
+        private final int chunk;
+
+        ChunkedInputStream(byte[] data, int chunk) {
+            super(data);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunk));
+        }
+    }
+}
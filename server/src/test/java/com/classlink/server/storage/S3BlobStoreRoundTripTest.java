@@ -0,0 +1,135 @@
+package com.classlink.server.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Round trip against a real S3-compatible endpoint, e.g. a local MinIO:
+ * {@code docker run -p 9000:9000 minio/minio server /data}, then
+ * {@code S3_TEST_ENDPOINT=http://localhost:9000 mvn test}. Skipped when no endpoint is set. The bucket
+ * ({@code S3_TEST_BUCKET}, default {@code classlink-test}) is created if missing; credentials default to
+ * MinIO's {@code minioadmin}.
+ */
+@EnabledIfEnvironmentVariable(named = "S3_TEST_ENDPOINT", matches = ".+")
+class S3BlobStoreRoundTripTest {
+
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+
+    @TempDir
+    Path temp;
+
+    private S3BlobStore store;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        URI endpoint = URI.create(env("S3_TEST_ENDPOINT", null).replaceAll("/+$", ""));
+        String region = env("S3_TEST_REGION", "us-east-1");
+        String bucket = env("S3_TEST_BUCKET", "classlink-test");
+        String accessKey = env("S3_TEST_ACCESS_KEY", "minioadmin");
+        String secretKey = env("S3_TEST_SECRET_KEY", "minioadmin");
+        createBucket(endpoint, region, bucket, accessKey, secretKey);
+        store = new S3BlobStore(endpoint, region, bucket, accessKey, secretKey, true);
+        // Unique per run, so leftovers from an interrupted run never disturb the listing checks
+        prefix = "profile/test-" + UUID.randomUUID() + "/";
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        List<String> keys = new ArrayList<>();
+        store.forEach(prefix, blob -> keys.add(blob.key()));
+        for (String key : keys) {
+            store.delete(key);
+        }
+    }
+
+    @Test
+    void putStatGetListAndDelete() throws IOException {
+        byte[] content = "s3 round trip".getBytes(StandardCharsets.UTF_8);
+        String key = prefix + "ab/cd/" + "ab".repeat(32) + ".png";
+
+        store.put(key, new ByteArrayInputStream(content), content.length, "image/png");
+
+        BlobMetadata metadata = store.stat(key);
+        assertNotNull(metadata);
+        assertEquals(content.length, metadata.size());
+        assertEquals("image/png", metadata.mediaType());
+        assertArrayEquals(content, BlobStoreContractTest.read(store.get(key)));
+
+        List<String> listed = new ArrayList<>();
+        store.forEach(prefix, blob -> listed.add(blob.key()));
+        assertEquals(List.of(key), listed);
+
+        store.delete(key);
+        assertNull(store.stat(key));
+        assertNull(store.get(key));
+    }
+
+    @Test
+    void putFileUploadsKeysThatNeedEncoding() throws IOException {
+        Path staged = temp.resolve("upload.part");
+        Files.writeString(staged, "file body");
+        String key = prefix + "name with spaces+plus.pdf";
+
+        store.putFile(key, staged, "application/pdf");
+
+        assertTrue(Files.notExists(staged));
+        assertEquals("file body", new String(BlobStoreContractTest.read(store.get(key)), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void signedUrlServesTheObjectWithoutCredentials() throws Exception {
+        byte[] content = "signed".getBytes(StandardCharsets.UTF_8);
+        String key = prefix + "signed.png";
+        store.put(key, new ByteArrayInputStream(content), content.length, "image/png");
+
+        HttpResponse<byte[]> response = HTTP.send(HttpRequest.newBuilder(store.signedUrl(key, Duration.ofMinutes(5))).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertArrayEquals(content, response.body());
+    }
+
+    private static void createBucket(URI endpoint, String region, String bucket, String accessKey, String secretKey)
+            throws Exception {
+        URI uri = URI.create(endpoint + "/" + bucket);
+        SigV4Signer signer = new SigV4Signer(accessKey, secretKey, region, "s3");
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).PUT(HttpRequest.BodyPublishers.noBody());
+        for (Map.Entry<String, String> header : signer.sign("PUT", uri, SigV4Signer.UNSIGNED_PAYLOAD, Instant.now()).entrySet()) {
+            request.header(header.getKey(), header.getValue());
+        }
+        int status = HTTP.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        // 409: the bucket already exists
+        assertTrue(status / 100 == 2 || status == 409, "Could not create bucket " + bucket + ": " + status);
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}